@@ -0,0 +1,101 @@
+/**
+ * Copyright © 2018, Ondrej Benkovsky
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ *
+ * The views and conclusions contained in the software and documentation are those
+ * of the authors and should not be interpreted as representing official policies,
+ * either expressed or implied, of the FreeBSD Project.
+ */
+package com.github.structlogging;
+
+import com.github.structlogging.annotation.LoggerContext;
+import com.github.structlogging.async.AsyncLoggingCallback;
+import com.github.structlogging.async.FullBufferPolicy;
+import com.github.structlogging.async.WaitStrategy;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares cost of log statement on logging thread, when event is serialized by OutputStreamCallback on logging thread
+ * and when it is handed over to consumer thread by AsyncLoggingCallback, written bytes are discarded, full ring buffer
+ * drops events, so that speed of consumer thread does not affect measured time
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(5)
+public class AsyncCallbackBenchmark {
+
+    private static final OutputStream NULL_OUTPUT_STREAM = new OutputStream() {
+        @Override
+        public void write(final int b) {
+        }
+
+        @Override
+        public void write(final byte[] b, final int off, final int len) {
+        }
+    };
+
+    @LoggerContext(context = DefaultContextWithoutParametrization.class)
+    private static StructLogger<DefaultContextWithoutParametrization> structLogger = new StructLogger<>(
+            new OutputStreamCallback(NULL_OUTPUT_STREAM)
+    );
+
+    @LoggerContext(context = DefaultContextWithoutParametrization.class)
+    private static StructLogger<DefaultContextWithoutParametrization> asyncStructLogger = new StructLogger<>(
+            new AsyncLoggingCallback(new OutputStreamCallback(NULL_OUTPUT_STREAM), 64 * 1024, WaitStrategy.YIELD, FullBufferPolicy.DROP)
+    );
+
+    private static long counter;
+
+    @Warmup(iterations = 5)
+    @Measurement(iterations = 5)
+    @Benchmark
+    public void synchronous() {
+        structLogger.info("Event with long, int, double and boolean")
+                .varLong(counter++)
+                .varInt(42)
+                .varDouble(1.2)
+                .varBoolean(false)
+                .log("benchmark.SynchronousEvent");
+    }
+
+    @Warmup(iterations = 5)
+    @Measurement(iterations = 5)
+    @Benchmark
+    public void asynchronous() {
+        asyncStructLogger.info("Event with long, int, double and boolean")
+                .varLong(counter++)
+                .varInt(42)
+                .varDouble(1.2)
+                .varBoolean(false)
+                .log("benchmark.AsynchronousEvent");
+    }
+}
@@ -0,0 +1,135 @@
+/**
+ * Copyright © 2018, Ondrej Benkovsky
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ *
+ * The views and conclusions contained in the software and documentation are those
+ * of the authors and should not be interpreted as representing official policies,
+ * either expressed or implied, of the FreeBSD Project.
+ */
+package com.github.structlogging;
+
+import com.github.structlogging.annotation.LoggerContext;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares cost of structured log statements creating events with statements writing binary frames, callback hands
+ * event over by keeping reference to it and frame by copying its bytes, as callback passing it to another thread would do,
+ * run with GC profiler (-prof gc) to see allocations per statement (gc.alloc.rate.norm)
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(5)
+public class BinaryFramesBenchmark {
+
+    private static final HandOverCallback CALLBACK = new HandOverCallback();
+
+    @LoggerContext(context = DefaultContextWithoutParametrization.class)
+    private static StructLogger<DefaultContextWithoutParametrization> structLogger = new StructLogger<>(CALLBACK);
+
+    @LoggerContext(context = DefaultContextWithoutParametrization.class, binaryFrames = true)
+    private static StructLogger<DefaultContextWithoutParametrization> binaryStructLogger = new StructLogger<>(CALLBACK);
+
+    private static long counter;
+
+    @Warmup(iterations = 5)
+    @Measurement(iterations = 5)
+    @Benchmark
+    public void events() {
+        structLogger.info("Event with long, int, double, boolean and String")
+                .varLong(counter++)
+                .varInt(42)
+                .varDouble(1.2)
+                .varBoolean(false)
+                .varString("value")
+                .log("benchmark.ObjectEvent");
+    }
+
+    @Warmup(iterations = 5)
+    @Measurement(iterations = 5)
+    @Benchmark
+    public void binaryFrames() {
+        binaryStructLogger.info("Event with long, int, double, boolean and String")
+                .varLong(counter++)
+                .varInt(42)
+                .varDouble(1.2)
+                .varBoolean(false)
+                .varString("value")
+                .log("benchmark.FrameEvent");
+    }
+
+    private static class HandOverCallback implements LoggingCallback {
+
+        private final byte[] frames = new byte[64 * 1024];
+        private int position;
+        private LoggingEvent lastEvent;
+
+        @Override
+        public void frame(final ByteBuffer frame) {
+            final int length = frame.remaining();
+            if (position + length > frames.length) {
+                position = 0;
+            }
+            frame.get(frames, position, length);
+            position += length;
+        }
+
+        @Override
+        public void info(final LoggingEvent e) {
+            lastEvent = e;
+        }
+
+        @Override
+        public void warn(final LoggingEvent e) {
+            lastEvent = e;
+        }
+
+        @Override
+        public void debug(final LoggingEvent e) {
+            lastEvent = e;
+        }
+
+        @Override
+        public void error(final LoggingEvent e) {
+            lastEvent = e;
+        }
+
+        @Override
+        public void trace(final LoggingEvent e) {
+            lastEvent = e;
+        }
+
+        @Override
+        public void audit(final LoggingEvent e) {
+            lastEvent = e;
+        }
+    }
+}
@@ -0,0 +1,194 @@
+/**
+ * Copyright © 2018, Ondrej Benkovsky
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ *
+ * The views and conclusions contained in the software and documentation are those
+ * of the authors and should not be interpreted as representing official policies,
+ * either expressed or implied, of the FreeBSD Project.
+ */
+package com.github.structlogging;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.github.structlogging.annotation.LoggerContext;
+import com.github.structlogging.kafka.EventKeyExtractors;
+import com.github.structlogging.kafka.KeyedKafkaCallback;
+import com.github.structlogging.kafka.LoggingEventJsonSerializer;
+import com.github.structlogging.utils.JsonWriter;
+import com.github.structlogging.utils.MessageFormatterUtils;
+import com.github.structlogging.utils.SidCounter;
+import org.apache.kafka.clients.producer.MockProducer;
+import org.apache.kafka.common.serialization.LongSerializer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures each step of logging path separately, so that regressions of end to end benchmarks can be attributed
+ * to individual components: sid generation, message formatting, creation of event by log statement, Jackson and generated
+ * serialization of event, OutputStreamCallback writing into null stream, KeyedKafkaCallback sending into
+ * MockProducer (which does not serialize records without cluster) and kafka LoggingEventJsonSerializer.
+ *
+ * {@link #main(String[])} runs all benchmarks with GC profiler, so that allocated bytes per operation are reported
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+@Fork(5)
+public class ComponentBenchmark {
+
+    private static final String MESSAGE_PATTERN = "Event with double={} and boolean={}";
+    private static final int CLEARED_HISTORY_SIZE = 1024;
+
+    private static final OutputStream NULL_OUTPUT_STREAM = new OutputStream() {
+        @Override
+        public void write(final int b) {
+        }
+
+        @Override
+        public void write(final byte[] b, final int off, final int len) {
+        }
+    };
+
+    @LoggerContext(context = DefaultContextWithoutParametrization.class)
+    private StructLogger<DefaultContextWithoutParametrization> structLogger;
+
+    private final OutputStreamCallback outputStreamCallback = new OutputStreamCallback(NULL_OUTPUT_STREAM);
+    private final MockProducer<Long, LoggingEvent> producer = new MockProducer<>(true, new LongSerializer(), new LoggingEventJsonSerializer());
+    private final KeyedKafkaCallback<Long> kafkaCallback = new KeyedKafkaCallback<>(producer, type -> type, EventKeyExtractors.timestamp());
+    private final LoggingEventJsonSerializer kafkaSerializer = new LoggingEventJsonSerializer();
+    private LoggingEvent event;
+    private long sent;
+
+    @Setup
+    public void setUp() {
+        final LoggingEvent[] logged = new LoggingEvent[1];
+        structLogger = new StructLogger<>(new CapturingCallback(logged));
+        logEvent();
+        event = logged[0];
+    }
+
+    @Warmup(iterations = 5)
+    @Measurement(iterations = 5)
+    @Benchmark
+    public long sidCounter() {
+        return SidCounter.incrementAndGet();
+    }
+
+    @Warmup(iterations = 5)
+    @Measurement(iterations = 5)
+    @Benchmark
+    public String messageFormatting() {
+        return MessageFormatterUtils.format(MESSAGE_PATTERN, 1.2, false);
+    }
+
+    /**
+     * log statement including sid, timestamp and construction of event, callback only keeps event
+     */
+    @Warmup(iterations = 5)
+    @Measurement(iterations = 5)
+    @Benchmark
+    public void eventConstruction() {
+        logEvent();
+    }
+
+    @Warmup(iterations = 5)
+    @Measurement(iterations = 5)
+    @Benchmark
+    public byte[] jacksonSerialization() throws JsonProcessingException {
+        return JsonWriter.objectMapper().writeValueAsBytes(event);
+    }
+
+    @Warmup(iterations = 5)
+    @Measurement(iterations = 5)
+    @Benchmark
+    public int generatedSerialization() {
+        final JsonWriter writer = JsonWriter.acquire();
+        try {
+            event.writeJson(writer);
+            return writer.size();
+        } finally {
+            writer.release();
+        }
+    }
+
+    @Warmup(iterations = 5)
+    @Measurement(iterations = 5)
+    @Benchmark
+    public void outputStreamCallback() {
+        outputStreamCallback.info(event);
+    }
+
+    @Warmup(iterations = 5)
+    @Measurement(iterations = 5)
+    @Benchmark
+    public void kafkaCallback() {
+        kafkaCallback.info(event);
+        //MockProducer keeps all sent records
+        if ((++sent % CLEARED_HISTORY_SIZE) == 0) {
+            producer.clear();
+        }
+    }
+
+    @Warmup(iterations = 5)
+    @Measurement(iterations = 5)
+    @Benchmark
+    public byte[] kafkaJsonSerializer() {
+        return kafkaSerializer.serialize("benchmark.events", event);
+    }
+
+    private void logEvent() {
+        structLogger.info("Event with double and boolean")
+                .varDouble(1.2)
+                .varBoolean(false)
+                .log("benchmark.ComponentEvent");
+    }
+
+    /**
+     * @param args JMH command line options, e.g. -f 1 for shorter run
+     */
+    public static void main(final String[] args) throws RunnerException, CommandLineOptionException {
+        new Runner(
+                new OptionsBuilder()
+                        .parent(new CommandLineOptions(args))
+                        .include(ComponentBenchmark.class.getSimpleName())
+                        .addProfiler(GCProfiler.class)
+                        .build()
+        ).run();
+    }
+}
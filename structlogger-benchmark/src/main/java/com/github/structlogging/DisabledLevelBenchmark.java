@@ -0,0 +1,149 @@
+/**
+ * Copyright © 2018, Ondrej Benkovsky
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ *
+ * The views and conclusions contained in the software and documentation are those
+ * of the authors and should not be interpreted as representing official policies,
+ * either expressed or implied, of the FreeBSD Project.
+ */
+package com.github.structlogging;
+
+import com.github.structlogging.annotation.LoggerContext;
+import com.github.structlogging.slf4j.Slf4jLoggingCallback;
+import com.github.structlogging.utils.EventSwitchboard;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures cost of structured log statements on disabled level (DisabledLevelBenchmark logger is configured on INFO level),
+ * such statements should cost about the same as empty method, because neither event nor its variables are evaluated,
+ * callbackDisabled* benchmarks pass already created event directly to {@link Slf4jLoggingCallback} on disabled level,
+ * which should not serialize it, structLoggerDisabledEventType logs on enabled level event type, which is disabled
+ * in {@link EventSwitchboard}
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Fork(5)
+public class DisabledLevelBenchmark {
+
+    @LoggerContext(context = DefaultContext.class)
+    private static StructLogger<DefaultContext> structLogger = new StructLogger<>(
+            new Slf4jLoggingCallback(
+                    LoggerFactory.getLogger(
+                            DisabledLevelBenchmark.class.getSimpleName()
+                    )
+            )
+    );
+
+    private static Logger logger = LoggerFactory.getLogger(DisabledLevelBenchmark.class.getSimpleName());
+
+    @LoggerContext(context = DefaultContext.class)
+    private StructLogger<DefaultContext> capturingLogger;
+
+    private final Slf4jLoggingCallback callback = new Slf4jLoggingCallback(logger);
+    private final Slf4jLoggingCallback lazyCallback = new Slf4jLoggingCallback(logger, true);
+    private LoggingEvent event;
+
+    @Setup
+    public void setUp() {
+        EventSwitchboard.disable("benchmark.DisabledTypeEvent");
+        final LoggingEvent[] logged = new LoggingEvent[1];
+        capturingLogger = new StructLogger<>(new CapturingCallback(logged));
+        capturingLogger.debug("Event with double={} and boolean={}")
+                .varDouble(1.2)
+                .varBoolean(false)
+                .log();
+        event = logged[0];
+    }
+
+    @Warmup(iterations = 5)
+    @Measurement(iterations = 5)
+    @Benchmark
+    public void baseline() {
+        // empty method, cost of disabled statements is compared against it
+    }
+
+    @Warmup(iterations = 5)
+    @Measurement(iterations = 5)
+    @Benchmark
+    public void structLoggerDisabledDebug() {
+        structLogger.debug("Event with double={} and boolean={}")
+                .varDouble(1.2)
+                .varBoolean(false)
+                .log();
+    }
+
+    @Warmup(iterations = 5)
+    @Measurement(iterations = 5)
+    @Benchmark
+    public void structLoggerDisabledTraceWithComputedVariable() {
+        structLogger.trace("Event with string={} and long={}")
+                .varString(String.valueOf(System.nanoTime()))
+                .varLong(System.currentTimeMillis())
+                .log();
+    }
+
+    @Warmup(iterations = 5)
+    @Measurement(iterations = 5)
+    @Benchmark
+    public void slf4jDisabledDebug() {
+        logger.debug("log double={} and boolean={}", 1.2, false);
+    }
+
+    @Warmup(iterations = 5)
+    @Measurement(iterations = 5)
+    @Benchmark
+    public void callbackDisabledDebug() {
+        callback.debug(event);
+    }
+
+    @Warmup(iterations = 5)
+    @Measurement(iterations = 5)
+    @Benchmark
+    public void lazyCallbackDisabledDebug() {
+        lazyCallback.debug(event);
+    }
+
+    @Warmup(iterations = 5)
+    @Measurement(iterations = 5)
+    @Benchmark
+    public void structLoggerDisabledEventType() {
+        structLogger.info("Event with string={} and long={}")
+                .varString(String.valueOf(System.nanoTime()))
+                .varLong(System.currentTimeMillis())
+                .log("benchmark.DisabledTypeEvent");
+    }
+}
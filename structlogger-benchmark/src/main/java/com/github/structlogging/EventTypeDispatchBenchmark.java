@@ -0,0 +1,108 @@
+/**
+ * Copyright © 2018, Ondrej Benkovsky
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ *
+ * The views and conclusions contained in the software and documentation are those
+ * of the authors and should not be interpreted as representing official policies,
+ * either expressed or implied, of the FreeBSD Project.
+ */
+package com.github.structlogging;
+
+import com.github.structlogging.annotation.LoggerContext;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Compares per-type state of events (counter of events of each type) kept in map keyed by event type
+ * with state kept in array indexed by type id of event, events of four types are counted in turns
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+@Fork(5)
+public class EventTypeDispatchBenchmark {
+
+    @LoggerContext(context = DefaultContextWithoutParametrization.class)
+    private StructLogger<DefaultContextWithoutParametrization> structLogger;
+
+    private final LoggingEvent[] events = new LoggingEvent[4];
+    private final ConcurrentMap<String, AtomicLong> countersByType = new ConcurrentHashMap<>();
+    private AtomicLongArray countersByTypeId;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        final LoggingEvent[] logged = new LoggingEvent[1];
+        structLogger = new StructLogger<>(new CapturingCallback(logged));
+        structLogger.info("Event of first type").varInt(1).log("benchmark.dispatch.FirstEvent");
+        events[0] = logged[0];
+        structLogger.info("Event of second type").varInt(2).log("benchmark.dispatch.SecondEvent");
+        events[1] = logged[0];
+        structLogger.info("Event of third type").varInt(3).log("benchmark.dispatch.ThirdEvent");
+        events[2] = logged[0];
+        structLogger.info("Event of fourth type").varInt(4).log("benchmark.dispatch.FourthEvent");
+        events[3] = logged[0];
+
+        int maxTypeId = 0;
+        for (LoggingEvent event : events) {
+            countersByType.put(event.getType(), new AtomicLong());
+            maxTypeId = Math.max(maxTypeId, event.typeId());
+        }
+        countersByTypeId = new AtomicLongArray(maxTypeId + 1);
+    }
+
+    @Warmup(iterations = 5)
+    @Measurement(iterations = 5)
+    @Benchmark
+    public long mapByType() {
+        final LoggingEvent event = nextEvent();
+        return countersByType.get(event.getType()).incrementAndGet();
+    }
+
+    @Warmup(iterations = 5)
+    @Measurement(iterations = 5)
+    @Benchmark
+    public long arrayByTypeId() {
+        final LoggingEvent event = nextEvent();
+        return countersByTypeId.incrementAndGet(event.typeId());
+    }
+
+    private LoggingEvent nextEvent() {
+        next = (next + 1) & 3;
+        return events[next];
+    }
+}
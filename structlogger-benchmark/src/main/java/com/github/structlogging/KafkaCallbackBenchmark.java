@@ -0,0 +1,149 @@
+/**
+ * Copyright © 2018, Ondrej Benkovsky
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ *
+ * The views and conclusions contained in the software and documentation are those
+ * of the authors and should not be interpreted as representing official policies,
+ * either expressed or implied, of the FreeBSD Project.
+ */
+package com.github.structlogging;
+
+import com.github.structlogging.annotation.LoggerContext;
+import com.github.structlogging.kafka.EventKeyExtractors;
+import com.github.structlogging.kafka.KeyedKafkaCallback;
+import com.github.structlogging.kafka.LoggingEventJsonSerializer;
+import org.apache.kafka.clients.producer.MockProducer;
+import org.apache.kafka.clients.producer.internals.DefaultPartitioner;
+import org.apache.kafka.common.Cluster;
+import org.apache.kafka.common.Node;
+import org.apache.kafka.common.PartitionInfo;
+import org.apache.kafka.common.serialization.LongSerializer;
+import org.apache.kafka.common.serialization.Serializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares events per second sent by KeyedKafkaCallback into MockProducer, which partitions records
+ * into 8 partitions of topic, using records keyed by timestamp, sid and event type
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(5)
+public class KafkaCallbackBenchmark {
+
+    private static final String TOPIC = "benchmark.events";
+    private static final int CLEARED_HISTORY_SIZE = 1024;
+
+    private static final MockProducer<Long, LoggingEvent> timestampProducer = producer(new LongSerializer());
+    private static final MockProducer<Long, LoggingEvent> sidProducer = producer(new LongSerializer());
+    private static final MockProducer<String, LoggingEvent> eventTypeProducer = producer(new StringSerializer());
+
+    @LoggerContext(context = DefaultContextWithoutParametrization.class)
+    private static StructLogger<DefaultContextWithoutParametrization> timestampLogger = new StructLogger<>(
+            new KeyedKafkaCallback<>(timestampProducer, KafkaCallbackBenchmark::topic, EventKeyExtractors.timestamp())
+    );
+
+    @LoggerContext(context = DefaultContextWithoutParametrization.class)
+    private static StructLogger<DefaultContextWithoutParametrization> sidLogger = new StructLogger<>(
+            new KeyedKafkaCallback<>(sidProducer, KafkaCallbackBenchmark::topic, EventKeyExtractors.sid())
+    );
+
+    @LoggerContext(context = DefaultContextWithoutParametrization.class)
+    private static StructLogger<DefaultContextWithoutParametrization> eventTypeLogger = new StructLogger<>(
+            new KeyedKafkaCallback<>(eventTypeProducer, KafkaCallbackBenchmark::topic, EventKeyExtractors.eventType())
+    );
+
+    private static long counter;
+
+    @Warmup(iterations = 5)
+    @Measurement(iterations = 5)
+    @Benchmark
+    public void timestampKey() {
+        timestampLogger.info("Event with long, int, double and boolean")
+                .varLong(counter++)
+                .varInt(42)
+                .varDouble(1.2)
+                .varBoolean(false)
+                .log("benchmark.KafkaEvent");
+        clearHistory(timestampProducer);
+    }
+
+    @Warmup(iterations = 5)
+    @Measurement(iterations = 5)
+    @Benchmark
+    public void sidKey() {
+        sidLogger.info("Event with long, int, double and boolean")
+                .varLong(counter++)
+                .varInt(42)
+                .varDouble(1.2)
+                .varBoolean(false)
+                .log("benchmark.KafkaEvent");
+        clearHistory(sidProducer);
+    }
+
+    @Warmup(iterations = 5)
+    @Measurement(iterations = 5)
+    @Benchmark
+    public void eventTypeKey() {
+        eventTypeLogger.info("Event with long, int, double and boolean")
+                .varLong(counter++)
+                .varInt(42)
+                .varDouble(1.2)
+                .varBoolean(false)
+                .log("benchmark.KafkaEvent");
+        clearHistory(eventTypeProducer);
+    }
+
+    //mapping of event types to topics, which is not trivial, e.g. it is configured by prefix
+    private static String topic(final String eventType) {
+        return TOPIC + "." + eventType.toLowerCase();
+    }
+
+    //MockProducer keeps all sent records
+    private static void clearHistory(final MockProducer<?, ?> producer) {
+        if ((counter % CLEARED_HISTORY_SIZE) == 0) {
+            producer.clear();
+        }
+    }
+
+    private static <K> MockProducer<K, LoggingEvent> producer(final Serializer<K> keySerializer) {
+        final Node node = new Node(0, "localhost", 9092);
+        final List<PartitionInfo> partitions = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            partitions.add(new PartitionInfo(topic("benchmark.KafkaEvent"), i, node, new Node[]{node}, new Node[]{node}));
+        }
+        final Cluster cluster = new Cluster("benchmark", Collections.singletonList(node), partitions, Collections.emptySet(), Collections.emptySet());
+        return new MockProducer<>(cluster, true, new DefaultPartitioner(), keySerializer, new LoggingEventJsonSerializer());
+    }
+}
@@ -0,0 +1,124 @@
+/**
+ * Copyright © 2018, Ondrej Benkovsky
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ *
+ * The views and conclusions contained in the software and documentation are those
+ * of the authors and should not be interpreted as representing official policies,
+ * either expressed or implied, of the FreeBSD Project.
+ */
+package com.github.structlogging;
+
+import ch.qos.logback.classic.Logger;
+import com.github.structlogging.annotation.LoggerContext;
+import com.github.structlogging.logback.LogbackLoggingCallback;
+import com.github.structlogging.slf4j.Slf4jLoggingCallback;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares events written into file by Logback through {@link Slf4jLoggingCallback}, which serializes event into String
+ * encoded again by pattern layout, with {@link LogbackLoggingCallback}, which passes event to Logback
+ * and {@link com.github.structlogging.logback.StructuredEventEncoder} serializes it straight into bytes,
+ * both with synchronous FileAppender and with AsyncAppender (see logback.xml)
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(5)
+public class LogbackEncoderBenchmark {
+
+    @LoggerContext(context = DefaultContext.class)
+    private static StructLogger<DefaultContext> slf4jLogger = new StructLogger<>(
+            new Slf4jLoggingCallback(
+                    LoggerFactory.getLogger(LogbackEncoderBenchmark.class.getSimpleName())
+            )
+    );
+
+    @LoggerContext(context = DefaultContext.class)
+    private static StructLogger<DefaultContext> logbackLogger = new StructLogger<>(
+            new LogbackLoggingCallback(
+                    (Logger) LoggerFactory.getLogger(LogbackEncoderBenchmark.class.getSimpleName() + "2")
+            )
+    );
+
+    @LoggerContext(context = DefaultContext.class)
+    private static StructLogger<DefaultContext> asyncSlf4jLogger = new StructLogger<>(
+            new Slf4jLoggingCallback(
+                    LoggerFactory.getLogger(LogbackEncoderBenchmark.class.getSimpleName() + "3")
+            )
+    );
+
+    @LoggerContext(context = DefaultContext.class)
+    private static StructLogger<DefaultContext> asyncLogbackLogger = new StructLogger<>(
+            new LogbackLoggingCallback(
+                    (Logger) LoggerFactory.getLogger(LogbackEncoderBenchmark.class.getSimpleName() + "4")
+            )
+    );
+
+    @Warmup(iterations = 5)
+    @Measurement(iterations = 5)
+    @Benchmark
+    public void slf4jCallback() {
+        slf4jLogger.info("Event with double={} and boolean={}")
+                .varDouble(1.2)
+                .varBoolean(false)
+                .log();
+    }
+
+    @Warmup(iterations = 5)
+    @Measurement(iterations = 5)
+    @Benchmark
+    public void logbackCallback() {
+        logbackLogger.info("Event with double={} and boolean={}")
+                .varDouble(1.2)
+                .varBoolean(false)
+                .log();
+    }
+
+    @Warmup(iterations = 5)
+    @Measurement(iterations = 5)
+    @Benchmark
+    public void slf4jCallbackAsyncAppender() {
+        asyncSlf4jLogger.info("Event with double={} and boolean={}")
+                .varDouble(1.2)
+                .varBoolean(false)
+                .log();
+    }
+
+    @Warmup(iterations = 5)
+    @Measurement(iterations = 5)
+    @Benchmark
+    public void logbackCallbackAsyncAppender() {
+        asyncLogbackLogger.info("Event with double={} and boolean={}")
+                .varDouble(1.2)
+                .varBoolean(false)
+                .log();
+    }
+}
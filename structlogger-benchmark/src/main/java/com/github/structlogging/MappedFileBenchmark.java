@@ -0,0 +1,98 @@
+/**
+ * Copyright © 2018, Ondrej Benkovsky
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ *
+ * The views and conclusions contained in the software and documentation are those
+ * of the authors and should not be interpreted as representing official policies,
+ * either expressed or implied, of the FreeBSD Project.
+ */
+package com.github.structlogging;
+
+import com.github.structlogging.annotation.LoggerContext;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares events per second written by 4 threads into file benchmark-outputstream-mt.log by OutputStreamCallback
+ * and into memory mapped segments benchmark-mapped.log.N by MappedFileCallback
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(5)
+@Threads(4)
+public class MappedFileBenchmark {
+
+    private static final int SEGMENT_SIZE = 64 * 1024 * 1024;
+
+    @LoggerContext(context = DefaultContextWithoutParametrization.class)
+    private static StructLogger<DefaultContextWithoutParametrization> structLogger;
+
+    @LoggerContext(context = DefaultContextWithoutParametrization.class)
+    private static StructLogger<DefaultContextWithoutParametrization> mappedStructLogger;
+
+    static {
+        try {
+            structLogger = new StructLogger<>(new OutputStreamCallback(new FileOutputStream("benchmark-outputstream-mt.log")));
+            mappedStructLogger = new StructLogger<>(new MappedFileCallback(Paths.get("benchmark-mapped.log"), SEGMENT_SIZE));
+        } catch (IOException e) {
+            throw new RuntimeException("unable to open benchmark files", e);
+        }
+    }
+
+    private static long counter;
+
+    @Warmup(iterations = 5)
+    @Measurement(iterations = 5)
+    @Benchmark
+    public void outputStreamCallback() {
+        structLogger.info("Event with long, int, double and boolean")
+                .varLong(counter++)
+                .varInt(42)
+                .varDouble(1.2)
+                .varBoolean(false)
+                .log("benchmark.OutputStreamMtEvent");
+    }
+
+    @Warmup(iterations = 5)
+    @Measurement(iterations = 5)
+    @Benchmark
+    public void mappedFileCallback() {
+        mappedStructLogger.info("Event with long, int, double and boolean")
+                .varLong(counter++)
+                .varInt(42)
+                .varDouble(1.2)
+                .varBoolean(false)
+                .log("benchmark.MappedFileEvent");
+    }
+}
@@ -0,0 +1,238 @@
+/**
+ * Copyright © 2018, Ondrej Benkovsky
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ *
+ * The views and conclusions contained in the software and documentation are those
+ * of the authors and should not be interpreted as representing official policies,
+ * either expressed or implied, of the FreeBSD Project.
+ */
+package com.github.structlogging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.OutputStreamAppender;
+import com.github.structlogging.annotation.LoggerContext;
+import com.github.structlogging.kafka.EventKeyExtractors;
+import com.github.structlogging.kafka.KeyedKafkaCallback;
+import com.github.structlogging.kafka.LoggingEventJsonSerializer;
+import com.github.structlogging.slf4j.Slf4jLoggingCallback;
+import org.apache.kafka.clients.producer.MockProducer;
+import org.apache.kafka.common.serialization.LongSerializer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures how events per second of built-in callbacks scale with count of logging threads, all threads log generated events
+ * through shared callback, so contention in sid generation, serialization and shared output becomes visible:
+ * OutputStreamCallback writes into BufferedOutputStream (synchronized, as stream wrapping file usually is),
+ * BufferedOutputStreamCallback copies events into its buffer under lock, Slf4jLoggingCallback logs into Logback appender
+ * writing into null stream and KeyedKafkaCallback sends into MockProducer, which synchronizes each send.
+ *
+ * Run with thread count given by JMH option -t, or by {@link #main(String[])}, which runs benchmarks with 1, 2, 4, 8, 16 and 32 threads
+ * and prints scaling efficiency, i.e. throughput with N threads divided by N times throughput with single thread
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Fork(5)
+public class ScalabilityBenchmark {
+
+    private static final int[] THREADS = {1, 2, 4, 8, 16, 32};
+    private static final int CLEARED_HISTORY_SIZE = 1024;
+
+    private static final OutputStream NULL_OUTPUT_STREAM = new OutputStream() {
+        @Override
+        public void write(final int b) {
+        }
+
+        @Override
+        public void write(final byte[] b, final int off, final int len) {
+        }
+    };
+
+    @LoggerContext(context = DefaultContextWithoutParametrization.class)
+    private StructLogger<DefaultContextWithoutParametrization> outputStreamLogger;
+
+    @LoggerContext(context = DefaultContextWithoutParametrization.class)
+    private StructLogger<DefaultContextWithoutParametrization> bufferedOutputStreamLogger;
+
+    @LoggerContext(context = DefaultContextWithoutParametrization.class)
+    private StructLogger<DefaultContextWithoutParametrization> slf4jLogger;
+
+    @LoggerContext(context = DefaultContextWithoutParametrization.class)
+    private StructLogger<DefaultContextWithoutParametrization> kafkaLogger;
+
+    private BufferedOutputStreamCallback bufferedOutputStreamCallback;
+    private MockProducer<Long, LoggingEvent> producer;
+
+    @Setup
+    public void setUp() {
+        outputStreamLogger = new StructLogger<>(new OutputStreamCallback(new BufferedOutputStream(NULL_OUTPUT_STREAM, 64 * 1024)));
+
+        bufferedOutputStreamCallback = new BufferedOutputStreamCallback(NULL_OUTPUT_STREAM);
+        bufferedOutputStreamLogger = new StructLogger<>(bufferedOutputStreamCallback);
+
+        slf4jLogger = new StructLogger<>(new Slf4jLoggingCallback(nullAppenderLogger()));
+
+        producer = new MockProducer<>(true, new LongSerializer(), new LoggingEventJsonSerializer());
+        kafkaLogger = new StructLogger<>(new KeyedKafkaCallback<>(producer, type -> type, EventKeyExtractors.timestamp()));
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        bufferedOutputStreamCallback.close();
+    }
+
+    @Warmup(iterations = 5)
+    @Measurement(iterations = 5)
+    @Benchmark
+    public void outputStreamCallback(final ThreadCounter counter) {
+        outputStreamLogger.info("Event with long, int, double and boolean")
+                .varLong(counter.logged++)
+                .varInt(42)
+                .varDouble(1.2)
+                .varBoolean(false)
+                .log("benchmark.ScalabilityEvent");
+    }
+
+    @Warmup(iterations = 5)
+    @Measurement(iterations = 5)
+    @Benchmark
+    public void bufferedOutputStreamCallback(final ThreadCounter counter) {
+        bufferedOutputStreamLogger.info("Event with long, int, double and boolean")
+                .varLong(counter.logged++)
+                .varInt(42)
+                .varDouble(1.2)
+                .varBoolean(false)
+                .log("benchmark.ScalabilityEvent");
+    }
+
+    @Warmup(iterations = 5)
+    @Measurement(iterations = 5)
+    @Benchmark
+    public void slf4jCallback(final ThreadCounter counter) {
+        slf4jLogger.info("Event with long, int, double and boolean")
+                .varLong(counter.logged++)
+                .varInt(42)
+                .varDouble(1.2)
+                .varBoolean(false)
+                .log("benchmark.ScalabilityEvent");
+    }
+
+    @Warmup(iterations = 5)
+    @Measurement(iterations = 5)
+    @Benchmark
+    public void kafkaCallback(final ThreadCounter counter) {
+        kafkaLogger.info("Event with long, int, double and boolean")
+                .varLong(counter.logged++)
+                .varInt(42)
+                .varDouble(1.2)
+                .varBoolean(false)
+                .log("benchmark.ScalabilityEvent");
+        //MockProducer keeps all sent records
+        if ((counter.logged % CLEARED_HISTORY_SIZE) == 0) {
+            producer.clear();
+        }
+    }
+
+    /**
+     * count of events logged by thread, used as value of variable and to clear history of MockProducer
+     */
+    @State(Scope.Thread)
+    public static class ThreadCounter {
+        long logged;
+    }
+
+    //Logback logger writing messages by pattern layout into null stream, so that file system does not limit scaling
+    private static org.slf4j.Logger nullAppenderLogger() {
+        final Logger logger = (Logger) LoggerFactory.getLogger(ScalabilityBenchmark.class.getSimpleName());
+        final PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+        encoder.setContext(logger.getLoggerContext());
+        encoder.setPattern("%msg%n");
+        encoder.start();
+        final OutputStreamAppender<ILoggingEvent> appender = new OutputStreamAppender<>();
+        appender.setContext(logger.getLoggerContext());
+        appender.setEncoder(encoder);
+        appender.setOutputStream(NULL_OUTPUT_STREAM);
+        appender.start();
+        logger.detachAndStopAllAppenders();
+        logger.addAppender(appender);
+        logger.setAdditive(false);
+        logger.setLevel(Level.INFO);
+        return logger;
+    }
+
+    /**
+     * @param args JMH command line options, e.g. -f 1 for shorter run
+     */
+    public static void main(final String[] args) throws RunnerException, CommandLineOptionException {
+        final CommandLineOptions commandLineOptions = new CommandLineOptions(args);
+        final Map<String, Map<Integer, Double>> scores = new TreeMap<>();
+        for (int threads : THREADS) {
+            final OptionsBuilder options = new OptionsBuilder();
+            options.parent(commandLineOptions)
+                    .include(ScalabilityBenchmark.class.getSimpleName())
+                    .threads(threads);
+            for (RunResult result : new Runner(options.build()).run()) {
+                final String benchmark = result.getParams().getBenchmark();
+                scores.computeIfAbsent(benchmark.substring(benchmark.lastIndexOf('.') + 1), name -> new TreeMap<>())
+                        .put(threads, result.getPrimaryResult().getScore());
+            }
+        }
+
+        System.out.println();
+        System.out.println(String.format("%-30s %8s %15s %11s", "Benchmark", "Threads", "ops/s", "Efficiency"));
+        for (Map.Entry<String, Map<Integer, Double>> benchmark : scores.entrySet()) {
+            final double singleThread = benchmark.getValue().get(1);
+            for (Map.Entry<Integer, Double> score : benchmark.getValue().entrySet()) {
+                final double efficiency = score.getValue() / (score.getKey() * singleThread);
+                System.out.println(String.format("%-30s %8d %15.0f %10.0f%%", benchmark.getKey(), score.getKey(), score.getValue(), efficiency * 100));
+            }
+        }
+    }
+}
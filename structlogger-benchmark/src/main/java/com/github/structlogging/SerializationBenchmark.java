@@ -0,0 +1,139 @@
+/**
+ * Copyright © 2018, Ondrej Benkovsky
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ *
+ * The views and conclusions contained in the software and documentation are those
+ * of the authors and should not be interpreted as representing official policies,
+ * either expressed or implied, of the FreeBSD Project.
+ */
+package com.github.structlogging;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.structlogging.annotation.LoggerContext;
+import com.github.structlogging.utils.JsonWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares serialization of one generated event by Jackson bean serialization and by generated writeJson method,
+ * which copies pre-encoded constant parts of JSON and encodes only timestamp, sid, message and variables,
+ * event message is not parametrized, so that message rendering is not part of measurement
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+@Fork(5)
+public class SerializationBenchmark {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    @LoggerContext(context = DefaultContextWithoutParametrization.class)
+    private StructLogger<DefaultContextWithoutParametrization> structLogger;
+
+    private LoggingEvent event;
+
+    @Setup
+    public void setUp() {
+        final LastEventCallback callback = new LastEventCallback();
+        structLogger = new StructLogger<>(callback);
+        structLogger.info("Event with double, string and long")
+                .varDouble(1.2)
+                .varString("some \"quoted\" text")
+                .varLong(123456789L)
+                .log("benchmark.SerializationEvent");
+        event = callback.getLastEvent();
+    }
+
+    @Warmup(iterations = 5)
+    @Measurement(iterations = 5)
+    @Benchmark
+    public byte[] jackson() throws JsonProcessingException {
+        return MAPPER.writeValueAsBytes(event);
+    }
+
+    @Warmup(iterations = 5)
+    @Measurement(iterations = 5)
+    @Benchmark
+    public int generatedWriter() {
+        final JsonWriter writer = JsonWriter.acquire();
+        try {
+            event.writeJson(writer);
+            return writer.size();
+        } finally {
+            writer.release();
+        }
+    }
+
+    /**
+     * Callback remembering last logged event
+     */
+    private static class LastEventCallback implements LoggingCallback {
+
+        private LoggingEvent lastEvent;
+
+        LoggingEvent getLastEvent() {
+            return lastEvent;
+        }
+
+        @Override
+        public void info(final LoggingEvent e) {
+            lastEvent = e;
+        }
+
+        @Override
+        public void warn(final LoggingEvent e) {
+            lastEvent = e;
+        }
+
+        @Override
+        public void debug(final LoggingEvent e) {
+            lastEvent = e;
+        }
+
+        @Override
+        public void error(final LoggingEvent e) {
+            lastEvent = e;
+        }
+
+        @Override
+        public void trace(final LoggingEvent e) {
+            lastEvent = e;
+        }
+
+        @Override
+        public void audit(final LoggingEvent e) {
+            lastEvent = e;
+        }
+    }
+}
@@ -0,0 +1,183 @@
+/**
+ * Copyright © 2018, Ondrej Benkovsky
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ *
+ * The views and conclusions contained in the software and documentation are those
+ * of the authors and should not be interpreted as representing official policies,
+ * either expressed or implied, of the FreeBSD Project.
+ */
+package com.github.structlogging;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.structlogging.annotation.LoggerContext;
+import com.github.structlogging.serializer.AvroEventSerializer;
+import com.github.structlogging.serializer.BinaryEventSerializer;
+import com.github.structlogging.serializer.CborEventSerializer;
+import com.github.structlogging.serializer.EventSerializer;
+import com.github.structlogging.serializer.EventSerializers;
+import com.github.structlogging.serializer.SmileEventSerializer;
+import com.github.structlogging.utils.JsonWriter;
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericDatumReader;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.avro.io.BinaryDecoder;
+import org.apache.avro.io.DecoderFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares encoding of one event into JSON, CBOR, Smile and Avro and decoding of encoded event into tree (Avro into generic record),
+ * encoded sizes of event are printed during setup
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Fork(5)
+public class WireFormatBenchmark {
+
+    private static final ObjectMapper JSON_MAPPER = new ObjectMapper();
+
+    @LoggerContext(context = DefaultContext.class)
+    private static StructLogger<DefaultContext> structLogger;
+
+    private final BinaryEventSerializer cborSerializer = new CborEventSerializer();
+    private final BinaryEventSerializer smileSerializer = new SmileEventSerializer();
+
+    private LoggingEvent event;
+    private byte[] json;
+    private byte[] cbor;
+    private byte[] smile;
+    private byte[] avro;
+    private GenericDatumReader<GenericRecord> avroReader;
+    private BinaryDecoder avroDecoder;
+
+    @Setup
+    public void setUp() throws ReflectiveOperationException {
+        final LoggingEvent[] logged = new LoggingEvent[1];
+        structLogger = new StructLogger<>(new CapturingCallback(logged));
+        structLogger.info("Event with long={}, int={}, double={}, boolean={} and string={}")
+                .varLong(1234567890123L)
+                .varInt(42)
+                .varDouble(1.2)
+                .varBoolean(false)
+                .varString("some string value")
+                .log("benchmark.WireFormatEvent");
+        event = logged[0];
+
+        json = encode(EventSerializers.REGISTERED);
+        cbor = encode(cborSerializer);
+        smile = encode(smileSerializer);
+        avro = encode(AvroEventSerializer.INSTANCE);
+        avroReader = new GenericDatumReader<>(new Schema.Parser().parse((String) event.getClass().getField("AVRO_SCHEMA").get(null)));
+        System.out.println("encoded size of event: json=" + json.length + "B, cbor=" + cbor.length + "B, smile=" + smile.length + "B, avro=" + avro.length + "B");
+    }
+
+    @Warmup(iterations = 5)
+    @Measurement(iterations = 5)
+    @Benchmark
+    public int encodeJson() {
+        return encodedSize(EventSerializers.REGISTERED);
+    }
+
+    @Warmup(iterations = 5)
+    @Measurement(iterations = 5)
+    @Benchmark
+    public int encodeCbor() {
+        return encodedSize(cborSerializer);
+    }
+
+    @Warmup(iterations = 5)
+    @Measurement(iterations = 5)
+    @Benchmark
+    public int encodeSmile() {
+        return encodedSize(smileSerializer);
+    }
+
+    @Warmup(iterations = 5)
+    @Measurement(iterations = 5)
+    @Benchmark
+    public int encodeAvro() {
+        return encodedSize(AvroEventSerializer.INSTANCE);
+    }
+
+    @Warmup(iterations = 5)
+    @Measurement(iterations = 5)
+    @Benchmark
+    public JsonNode decodeJson() throws IOException {
+        return JSON_MAPPER.readTree(json);
+    }
+
+    @Warmup(iterations = 5)
+    @Measurement(iterations = 5)
+    @Benchmark
+    public JsonNode decodeCbor() throws IOException {
+        return cborSerializer.getObjectMapper().readTree(cbor);
+    }
+
+    @Warmup(iterations = 5)
+    @Measurement(iterations = 5)
+    @Benchmark
+    public JsonNode decodeSmile() throws IOException {
+        return smileSerializer.getObjectMapper().readTree(smile);
+    }
+
+    @Warmup(iterations = 5)
+    @Measurement(iterations = 5)
+    @Benchmark
+    public GenericRecord decodeAvro() throws IOException {
+        avroDecoder = DecoderFactory.get().binaryDecoder(avro, avroDecoder);
+        return avroReader.read(null, avroDecoder);
+    }
+
+    private int encodedSize(final EventSerializer serializer) {
+        final JsonWriter writer = JsonWriter.acquire();
+        try {
+            serializer.serialize(event, writer);
+            return writer.size();
+        } finally {
+            writer.release();
+        }
+    }
+
+    private byte[] encode(final EventSerializer serializer) {
+        final JsonWriter writer = JsonWriter.acquire();
+        try {
+            serializer.serialize(event, writer);
+            return writer.toByteArray();
+        } finally {
+            writer.release();
+        }
+    }
+}
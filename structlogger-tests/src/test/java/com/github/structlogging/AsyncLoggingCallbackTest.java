@@ -0,0 +1,221 @@
+/**
+ * Copyright © 2018, Ondrej Benkovsky
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ *
+ * The views and conclusions contained in the software and documentation are those
+ * of the authors and should not be interpreted as representing official policies,
+ * either expressed or implied, of the FreeBSD Project.
+ */
+package com.github.structlogging;
+
+import com.github.structlogging.annotation.LoggerContext;
+import com.github.structlogging.async.AsyncLoggingCallback;
+import com.github.structlogging.async.FullBufferPolicy;
+import com.github.structlogging.async.WaitStrategy;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+
+public class AsyncLoggingCallbackTest {
+
+    private static final int THREADS = 4;
+    private static final int EVENTS_PER_THREAD = 1000;
+
+    @LoggerContext(context = TestContext.class)
+    private StructLogger<TestContext> logger;
+
+    @LoggerContext(context = TestContext.class, reusableEvents = true)
+    private StructLogger<TestContext> reusableLogger;
+
+    @LoggerContext(context = TestContext.class, binaryFrames = true)
+    private StructLogger<TestContext> binaryLogger;
+
+    @Test
+    public void shouldDeliverEventsOfEachThreadInOrder() throws Exception {
+        final ListLoggingCallback callback = new ListLoggingCallback();
+        final AsyncLoggingCallback asyncCallback = new AsyncLoggingCallback(callback, 64, WaitStrategy.YIELD, FullBufferPolicy.WAIT);
+        logger = new StructLogger<>(asyncCallback);
+
+        final List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            final Thread thread = new Thread(this::logEvents, "thread" + i);
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        asyncCallback.close();
+
+        assertThat(callback.getLoggingEventList(), hasSize(THREADS * EVENTS_PER_THREAD));
+        assertThat(asyncCallback.getDroppedEvents(), is(0L));
+        final Map<String, Integer> lastValues = new HashMap<>();
+        for (LoggingEvent event : callback.getLoggingEventList()) {
+            final AsyncEvent asyncEvent = (AsyncEvent) event;
+            final int last = lastValues.getOrDefault(asyncEvent.getVarString(), -1);
+            assertThat(asyncEvent.getVarInt(), is(last + 1));
+            lastValues.put(asyncEvent.getVarString(), asyncEvent.getVarInt());
+        }
+        assertThat(lastValues.size(), is(THREADS));
+    }
+
+    @Test
+    public void shouldDropEventsWhenBufferIsFull() throws Exception {
+        final CountDownLatch delivering = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final ListLoggingCallback callback = new ListLoggingCallback() {
+            @Override
+            public void info(final LoggingEvent e) {
+                delivering.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException ex) {
+                    throw new RuntimeException(ex);
+                }
+                super.info(e);
+            }
+        };
+        final AsyncLoggingCallback asyncCallback = new AsyncLoggingCallback(callback, 2, WaitStrategy.PARK, FullBufferPolicy.DROP);
+        logger = new StructLogger<>(asyncCallback);
+
+        logEvent(0);
+        //slot of event being delivered is freed after delivery, so only one of next events fits into buffer
+        delivering.await();
+        for (int i = 1; i < 5; i++) {
+            logEvent(i);
+        }
+        release.countDown();
+        asyncCallback.close();
+
+        assertThat(asyncCallback.getDroppedEvents(), is(3L));
+        assertThat(callback.getLoggingEventList(), hasSize(2));
+        assertThat(((AsyncEvent) callback.getLoggingEventList().get(1)).getVarInt(), is(1));
+    }
+
+    @Test
+    public void shouldDeliverSnapshotsOfReusableEvents() {
+        final ListLoggingCallback callback = new ListLoggingCallback();
+        final AsyncLoggingCallback asyncCallback = new AsyncLoggingCallback(callback);
+        reusableLogger = new StructLogger<>(asyncCallback);
+
+        for (int i = 0; i < 3; i++) {
+            reusableLogger.info("reusable async event")
+                    .varInt(i)
+                    .varString("reusable")
+                    .log("async.ReusableAsyncEvent");
+        }
+        asyncCallback.close();
+
+        assertThat(callback.getLoggingEventList(), hasSize(3));
+        assertThat(callback.getLoggingEventList().get(0), is(not(sameInstance(callback.getLoggingEventList().get(1)))));
+        for (int i = 0; i < 3; i++) {
+            final LoggingEvent event = callback.getLoggingEventList().get(i);
+            assertThat(event.getContext().getMessage(), is(equalTo("reusable async event")));
+            assertThat(event.getContext().getSid(), is(callback.getLoggingEventList().get(0).getContext().getSid() + i));
+        }
+    }
+
+    @Test
+    public void shouldDeliverCopiesOfBinaryFrames() {
+        final ListLoggingCallback callback = new ListLoggingCallback();
+        final AsyncLoggingCallback asyncCallback = new AsyncLoggingCallback(callback);
+        binaryLogger = new StructLogger<>(asyncCallback);
+
+        for (int i = 0; i < 3; i++) {
+            binaryLogger.warn("binary async event")
+                    .varInt(i)
+                    .varString("frame" + i)
+                    .log("async.BinaryAsyncEvent");
+        }
+        asyncCallback.close();
+
+        assertThat(callback.getLoggingEventList(), hasSize(3));
+        for (int i = 0; i < 3; i++) {
+            final LoggingEvent event = callback.getLoggingEventList().get(i);
+            assertThat(event.getContext().getMessage(), is(equalTo("binary async event")));
+            assertThat(event.getContext().getLogLevel(), is(equalTo("WARN")));
+            assertThat(event.getType(), is(equalTo("async.BinaryAsyncEvent")));
+        }
+    }
+
+    @Test
+    public void shouldKeepDeliveringWhenCallbackThrowsError() {
+        final ListLoggingCallback callback = new ListLoggingCallback() {
+            @Override
+            public void info(final LoggingEvent e) {
+                if (getLoggingEventList().isEmpty() && ((AsyncEvent) e).getVarInt() == 0) {
+                    throw new AssertionError("failure of callback");
+                }
+                super.info(e);
+            }
+        };
+        final AsyncLoggingCallback asyncCallback = new AsyncLoggingCallback(callback, 2, WaitStrategy.YIELD, FullBufferPolicy.WAIT);
+        logger = new StructLogger<>(asyncCallback);
+
+        for (int i = 0; i < 5; i++) {
+            logEvent(i);
+        }
+        asyncCallback.close();
+
+        assertThat(asyncCallback.getFailedEvents(), is(1L));
+        assertThat(callback.getLoggingEventList(), hasSize(4));
+    }
+
+    @Test
+    public void shouldCountEventsLoggedAfterCloseAsDropped() {
+        final ListLoggingCallback callback = new ListLoggingCallback();
+        final AsyncLoggingCallback asyncCallback = new AsyncLoggingCallback(callback);
+        logger = new StructLogger<>(asyncCallback);
+
+        logEvent(0);
+        asyncCallback.close();
+        logEvent(1);
+
+        assertThat(callback.getLoggingEventList(), hasSize(1));
+        assertThat(asyncCallback.getDroppedEvents(), is(1L));
+    }
+
+    private void logEvents() {
+        for (int i = 0; i < EVENTS_PER_THREAD; i++) {
+            logEvent(i);
+        }
+    }
+
+    private void logEvent(final int i) {
+        logger.info("async event")
+                .varInt(i)
+                .varString(Thread.currentThread().getName())
+                .log("com.github.structlogging.AsyncEvent");
+    }
+}
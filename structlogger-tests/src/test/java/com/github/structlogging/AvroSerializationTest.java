@@ -0,0 +1,133 @@
+/**
+ * Copyright © 2018, Ondrej Benkovsky
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ *
+ * The views and conclusions contained in the software and documentation are those
+ * of the authors and should not be interpreted as representing official policies,
+ * either expressed or implied, of the FreeBSD Project.
+ */
+package com.github.structlogging;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.structlogging.annotation.LoggerContext;
+import com.github.structlogging.kafka.LoggingEventAvroSerializer;
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericDatumReader;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.avro.io.DecoderFactory;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Collections;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+import static org.hamcrest.Matchers.nullValue;
+
+public class AvroSerializationTest {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private ListLoggingCallback callback;
+
+    @LoggerContext(context = JsonTestContext.class)
+    private StructLogger<JsonTestContext> logger;
+
+    @Before
+    public void setUp() {
+        callback = new ListLoggingCallback();
+        logger = new StructLogger<>(callback);
+    }
+
+    @Test
+    public void shouldDecodeEventBySchemaOfEvent() throws Exception {
+        logger.info("avro {} {} {} {} {} {} {} {} {}")
+                .varLong(Long.MIN_VALUE)
+                .varDouble(0.1)
+                .varFloat(-1.5f)
+                .varBoolean(true)
+                .varChar('€')
+                .varString("unicode é€😀")
+                .varBoxed(null)
+                .varObject(Collections.singletonMap("key", 1))
+                .xValue(-42)
+                .log("avro.AllTypesEvent");
+
+        assertThat(callback.getLoggingEventList(), hasSize(1));
+        final LoggingEvent event = callback.getLoggingEventList().get(0);
+        final byte[] avro = new LoggingEventAvroSerializer().serialize("topic", event);
+        final GenericRecord record = decode(event, avro);
+        final JsonNode json = MAPPER.readTree(MAPPER.writeValueAsBytes(event));
+
+        assertThat(record.get("type").toString(), is(equalTo(json.get("type").asText())));
+        assertThat(record.get("timestamp"), is(equalTo(json.get("timestamp").asLong())));
+        assertThat(record.get("timestampNanos"), is(equalTo(json.get("timestampNanos").asLong())));
+        final GenericRecord context = (GenericRecord) record.get("context");
+        assertThat(context.get("message").toString(), is(equalTo(json.get("context").get("message").asText())));
+        assertThat(context.get("sourceFile").toString(), is(equalTo(json.get("context").get("sourceFile").asText())));
+        assertThat(context.get("lineNumber"), is(equalTo(json.get("context").get("lineNumber").asLong())));
+        assertThat(context.get("sid"), is(equalTo(json.get("context").get("sid").asLong())));
+        assertThat(context.get("logLevel").toString(), is(equalTo("INFO")));
+        assertThat(record.get("varLong"), is(equalTo(Long.MIN_VALUE)));
+        assertThat(record.get("varDouble"), is(equalTo(0.1)));
+        assertThat(record.get("varFloat"), is(equalTo(-1.5f)));
+        assertThat(record.get("varBoolean"), is(equalTo(true)));
+        assertThat(record.get("varChar").toString(), is(equalTo("€")));
+        assertThat(record.get("varString").toString(), is(equalTo("unicode é€😀")));
+        assertThat(record.get("varBoxed"), is(nullValue()));
+        assertThat(record.get("varObject").toString(), is(equalTo("{\"key\":1}")));
+        assertThat(record.get("xvalue"), is(equalTo(-42)));
+
+        assertThat(avro.length, is(lessThan(MAPPER.writeValueAsBytes(event).length / 2)));
+    }
+
+    @Test
+    public void shouldWriteAvroSchemaFile() throws Exception {
+        logger.info("avro event without variables")
+                .log("avro.NoVariablesEvent");
+
+        final LoggingEvent event = callback.getLoggingEventList().get(0);
+        final Schema schemaFile = new Schema.Parser().parse(
+                new String(Files.readAllBytes(Paths.get(System.getProperty("schemasRoot", "target"), "schemas", "avro", "avro", "NoVariablesEvent.avsc")), "UTF-8")
+        );
+
+        assertThat(schemaFile, is(equalTo(schemaOf(event))));
+        assertThat(decode(event, new LoggingEventAvroSerializer().serialize("topic", event)).get("type").toString(),
+                is(equalTo("avro.NoVariablesEvent")));
+    }
+
+    private static GenericRecord decode(final LoggingEvent event, final byte[] avro) throws Exception {
+        final Schema schema = schemaOf(event);
+        return new GenericDatumReader<GenericRecord>(schema).read(null, DecoderFactory.get().binaryDecoder(avro, null));
+    }
+
+    private static Schema schemaOf(final LoggingEvent event) throws Exception {
+        return new Schema.Parser().parse((String) event.getClass().getField("AVRO_SCHEMA").get(null));
+    }
+}
@@ -0,0 +1,185 @@
+/**
+ * Copyright © 2018, Ondrej Benkovsky
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ *
+ * The views and conclusions contained in the software and documentation are those
+ * of the authors and should not be interpreted as representing official policies,
+ * either expressed or implied, of the FreeBSD Project.
+ */
+package com.github.structlogging;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.structlogging.annotation.LoggerContext;
+import com.github.structlogging.utils.EventFrames;
+import com.github.structlogging.utils.JsonWriter;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+
+public class BinaryFramesTest {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    @LoggerContext(context = JsonTestContext.class, binaryFrames = true)
+    private StructLogger<JsonTestContext> jsonLogger;
+
+    @LoggerContext(context = TestContext.class, binaryFrames = true)
+    private StructLogger<TestContext> logger;
+
+    @Test
+    public void shouldDecodeFrameIntoEvent() throws Exception {
+        final ListLoggingCallback callback = new ListLoggingCallback();
+        jsonLogger = new StructLogger<>(callback);
+
+        jsonLogger.warn("binary {} {} {} {} {} {} {}")
+                .varLong(Long.MIN_VALUE)
+                .varDouble(1.5)
+                .varFloat(-2.25f)
+                .varBoolean(true)
+                .varChar('\u0001')
+                .varString("quote \" unicode é€😀")
+                .xValue(7)
+                .log("binary.AllTypesEvent");
+
+        assertThat(callback.getLoggingEventList(), hasSize(1));
+        final LoggingEvent event = callback.getLoggingEventList().get(0);
+        assertThat(event.getType(), is(equalTo("binary.AllTypesEvent")));
+        assertThat(event.getContext().getLogLevel(), is(equalTo("WARN")));
+        assertThat(event.getContext().getMessage(), is(equalTo("binary -9223372036854775808 1.5 -2.25 true \u0001 quote \" unicode é€😀 7")));
+
+        final String json = MAPPER.writeValueAsString(event);
+        assertThat(writeJson(event), is(equalTo(json)));
+        assertThat(json.endsWith("\"varLong\":-9223372036854775808,\"varDouble\":1.5,\"varFloat\":-2.25,\"varBoolean\":true,"
+                + "\"varChar\":\"\\u0001\",\"varString\":\"quote \\\" unicode é€😀\",\"xvalue\":7}"), is(true));
+    }
+
+    @Test
+    public void shouldPassFrameToCallback() {
+        final FrameLoggingCallback callback = new FrameLoggingCallback();
+        logger = new StructLogger<>(callback);
+
+        logger.info("first frame")
+                .varInt(1)
+                .varString("value")
+                .log("binary.FrameEvent");
+        logger.error("second frame")
+                .varInt(2)
+                .varString(null)
+                .log("binary.FrameEvent");
+
+        assertThat(callback.frameSizes, is(equalTo(Arrays.asList(
+                EventFrames.HEADER_SIZE + 4 + EventFrames.stringSize("value"),
+                EventFrames.HEADER_SIZE + 4 + EventFrames.stringSize(null)
+        ))));
+        assertThat(callback.levels, is(equalTo(Arrays.asList(EventFrames.INFO, EventFrames.ERROR))));
+        assertThat(callback.events, hasSize(0));
+
+        final LoggingEvent first = callback.decoded.get(0);
+        final LoggingEvent second = callback.decoded.get(1);
+        assertThat(first.getContext().getMessage(), is(equalTo("first frame")));
+        assertThat(first.getContext().getLogLevel(), is(equalTo("INFO")));
+        assertThat(second.getContext().getMessage(), is(equalTo("second frame")));
+        assertThat(second.getContext().getLogLevel(), is(equalTo("ERROR")));
+        assertThat(second.getContext().getSid(), is(equalTo(first.getContext().getSid() + 1)));
+        assertThat(second.getContext().getLineNumber(), is(equalTo(first.getContext().getLineNumber() + 4)));
+        assertThat(writeJson(first).endsWith("\"varInt\":1,\"varString\":\"value\"}"), is(true));
+        assertThat(writeJson(second).endsWith("\"varInt\":2,\"varString\":null}"), is(true));
+    }
+
+    @Test
+    public void shouldCreateEventWhenVariableCannotBeEncoded() {
+        final FrameLoggingCallback callback = new FrameLoggingCallback();
+        jsonLogger = new StructLogger<>(callback);
+
+        jsonLogger.info("object {}")
+                .varObject("value")
+                .log("binary.ObjectEvent");
+
+        assertThat(callback.frameSizes, hasSize(0));
+        assertThat(callback.events, hasSize(1));
+        assertThat(callback.events.get(0).getContext().getMessage(), is(equalTo("object value")));
+        assertThat(callback.events.get(0).getContext().getLogLevel(), is(equalTo("INFO")));
+        assertThat(callback.events.get(0).getType(), is(equalTo("binary.ObjectEvent")));
+    }
+
+    @Test
+    public void shouldWriteConstantsOfStatementNotMatchingCallSite() throws Exception {
+        final FrameLoggingCallback callback = new FrameLoggingCallback();
+        logger = new StructLogger<>(callback);
+        logger.info("known frame")
+                .varInt(1)
+                .varString("value")
+                .log("binary.FrameEvent");
+
+        //index 0 compiled into statement of another source file, e.g. before incremental compilation regenerated event class
+        final ByteBuffer frame = binary.FrameEvent.encode(0, "moved frame", "p.B", 9, "ERROR", false, 1, 0, 2, "other");
+        try {
+            assertThat(EventFrames.level(frame), is(equalTo(EventFrames.ERROR)));
+            final LoggingEvent event = EventFrames.decode(frame);
+            assertThat(event.getContext().getMessage(), is(equalTo("moved frame")));
+            assertThat(event.getContext().getSourceFile(), is(equalTo("p.B")));
+            assertThat(event.getContext().getLineNumber(), is(equalTo(9L)));
+            assertThat(event.getContext().getLogLevel(), is(equalTo("ERROR")));
+            assertThat(writeJson(event), is(equalTo(MAPPER.writeValueAsString(event))));
+            assertThat(writeJson(event).endsWith("\"varInt\":2,\"varString\":\"other\"}"), is(true));
+        } finally {
+            EventFrames.release(frame);
+        }
+    }
+
+    private static String writeJson(final LoggingEvent event) {
+        final JsonWriter writer = JsonWriter.acquire();
+        try {
+            event.writeJson(writer);
+            return writer.toString();
+        } finally {
+            writer.release();
+        }
+    }
+
+    /**
+     * Callback consuming frames directly, frames are decoded only to check their content
+     */
+    private static class FrameLoggingCallback extends ListLoggingCallback {
+
+        private final List<Integer> frameSizes = new ArrayList<>();
+        private final List<Integer> levels = new ArrayList<>();
+        private final List<LoggingEvent> decoded = new ArrayList<>();
+        private final List<LoggingEvent> events = getLoggingEventList();
+
+        @Override
+        public void frame(final ByteBuffer frame) {
+            frameSizes.add(frame.remaining());
+            levels.add(EventFrames.level(frame));
+            decoded.add(EventFrames.decode(frame));
+        }
+    }
+}
@@ -0,0 +1,129 @@
+/**
+ * Copyright © 2018, Ondrej Benkovsky
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ *
+ * The views and conclusions contained in the software and documentation are those
+ * of the authors and should not be interpreted as representing official policies,
+ * either expressed or implied, of the FreeBSD Project.
+ */
+package com.github.structlogging;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.structlogging.annotation.LoggerContext;
+import com.github.structlogging.kafka.LoggingEventCborSerializer;
+import com.github.structlogging.kafka.LoggingEventSmileSerializer;
+import com.github.structlogging.serializer.BinaryEventSerializer;
+import com.github.structlogging.serializer.CborEventSerializer;
+import com.github.structlogging.serializer.SmileEventSerializer;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Collections;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+
+public class BinaryWireFormatsTest {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private ListLoggingCallback callback;
+
+    @LoggerContext(context = JsonTestContext.class)
+    private StructLogger<JsonTestContext> logger;
+
+    @Before
+    public void setUp() {
+        callback = new ListLoggingCallback();
+        logger = new StructLogger<>(callback);
+    }
+
+    @Test
+    public void shouldEncodeSameStructureAsJsonInCbor() throws Exception {
+        final LoggingEvent event = logAllTypesEvent();
+        final BinaryEventSerializer serializer = new CborEventSerializer();
+        final byte[] cbor = new LoggingEventCborSerializer().serialize("topic", event);
+
+        assertSameStructureAsJson(serializer.getObjectMapper().readTree(cbor), event);
+        assertThat(cbor.length, is(lessThan(MAPPER.writeValueAsBytes(event).length)));
+    }
+
+    @Test
+    public void shouldEncodeSameStructureAsJsonInSmile() throws Exception {
+        final LoggingEvent event = logAllTypesEvent();
+        final BinaryEventSerializer serializer = new SmileEventSerializer();
+        final byte[] smile = new LoggingEventSmileSerializer().serialize("topic", event);
+
+        assertSameStructureAsJson(serializer.getObjectMapper().readTree(smile), event);
+        assertThat(smile.length, is(lessThan(MAPPER.writeValueAsBytes(event).length)));
+    }
+
+    @Test
+    public void shouldWriteSelfDelimitedEventsIntoOutputStream() throws Exception {
+        final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        final BinaryEventSerializer serializer = new CborEventSerializer();
+        final OutputStreamCallback outputStreamCallback = new OutputStreamCallback(outputStream, serializer);
+
+        final LoggingEvent event = logAllTypesEvent();
+        outputStreamCallback.info(event);
+        outputStreamCallback.info(event);
+
+        final MappingIterator<JsonNode> iterator = serializer.getObjectMapper()
+                .readerFor(JsonNode.class)
+                .readValues(outputStream.toByteArray());
+        final List<JsonNode> nodes = iterator.readAll();
+
+        assertThat(nodes, hasSize(2));
+        assertSameStructureAsJson(nodes.get(0), event);
+        assertSameStructureAsJson(nodes.get(1), event);
+    }
+
+    private LoggingEvent logAllTypesEvent() {
+        logger.info("wire format {} {} {} {} {} {} {} {} {}")
+                .varLong(Long.MAX_VALUE)
+                .varDouble(0.1)
+                .varFloat(Float.NaN)
+                .varBoolean(true)
+                .varChar('c')
+                .varString("unicode é€😀")
+                .varBoxed(null)
+                .varObject(Collections.singletonMap("key", 1))
+                .xValue(-42)
+                .log("wire.AllTypesEvent");
+
+        assertThat(callback.getLoggingEventList(), hasSize(1));
+        return callback.getLoggingEventList().get(0);
+    }
+
+    //binary formats keep floats as floats, so structures are compared by their JSON text
+    private static void assertSameStructureAsJson(final JsonNode node, final LoggingEvent event) throws Exception {
+        assertThat(MAPPER.writeValueAsString(node), is(equalTo(MAPPER.writeValueAsString(event))));
+    }
+}
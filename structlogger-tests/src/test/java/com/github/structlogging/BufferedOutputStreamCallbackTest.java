@@ -0,0 +1,203 @@
+/**
+ * Copyright © 2018, Ondrej Benkovsky
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ *
+ * The views and conclusions contained in the software and documentation are those
+ * of the authors and should not be interpreted as representing official policies,
+ * either expressed or implied, of the FreeBSD Project.
+ */
+package com.github.structlogging;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.structlogging.annotation.LoggerContext;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.ref.WeakReference;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class BufferedOutputStreamCallbackTest {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    @LoggerContext(context = TestContext.class)
+    private StructLogger<TestContext> structLogger;
+
+    private ByteArrayOutputStream byteArrayOutputStream;
+
+    private BufferedOutputStreamCallback callback;
+
+    @Before
+    public void setUp() {
+        byteArrayOutputStream = new ByteArrayOutputStream();
+    }
+
+    @After
+    public void tearDown() {
+        if (callback != null) {
+            callback.close();
+        }
+    }
+
+    @Test
+    public void shouldWriteEventsOnFlush() throws Exception {
+        callback = new BufferedOutputStreamCallback(byteArrayOutputStream, 64 * 1024, 0, Collections.emptySet());
+        structLogger = new StructLogger<>(callback);
+
+        logInfo(1);
+        logInfo(2);
+        assertThat(byteArrayOutputStream.size(), is(0));
+
+        callback.flush();
+        final String[] lines = lines();
+        assertThat(lines.length, is(2));
+        assertThat(varInt(lines[0]), is(1));
+        assertThat(varInt(lines[1]), is(2));
+    }
+
+    @Test
+    public void shouldFlushOnSize() throws Exception {
+        callback = new BufferedOutputStreamCallback(byteArrayOutputStream, 1, 0, Collections.emptySet());
+        structLogger = new StructLogger<>(callback);
+
+        logInfo(1);
+        assertThat(lines().length, is(1));
+        logInfo(2);
+        assertThat(lines().length, is(2));
+        assertThat(varInt(lines()[1]), is(2));
+    }
+
+    @Test
+    public void shouldFlushOnLevel() throws Exception {
+        callback = new BufferedOutputStreamCallback(byteArrayOutputStream, 64 * 1024, 0, Arrays.asList("ERROR", "AUDIT"));
+        structLogger = new StructLogger<>(callback);
+
+        logInfo(1);
+        assertThat(byteArrayOutputStream.size(), is(0));
+
+        structLogger.error("error event")
+                .varInt(2)
+                .log("buffered.BufferedEvent");
+
+        final String[] lines = lines();
+        assertThat(lines.length, is(2));
+        assertThat(varInt(lines[0]), is(1));
+        assertThat(MAPPER.readTree(lines[1]).get("context").get("logLevel").asText(), is("ERROR"));
+    }
+
+    @Test
+    public void shouldFlushAfterInterval() throws Exception {
+        callback = new BufferedOutputStreamCallback(byteArrayOutputStream, 64 * 1024, 10, Collections.emptySet());
+        structLogger = new StructLogger<>(callback);
+
+        logInfo(1);
+
+        final long deadline = System.currentTimeMillis() + 5000;
+        while (lines().length == 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(lines().length, is(1));
+        assertThat(varInt(lines()[0]), is(1));
+    }
+
+    @Test
+    public void shouldNotWriteEventsAgainAfterPartialWrite() throws Exception {
+        final OutputStream failingOnce = new OutputStream() {
+            private boolean failed;
+
+            @Override
+            public void write(final int b) {
+                byteArrayOutputStream.write(b);
+            }
+
+            @Override
+            public void write(final byte[] bytes, final int offset, final int length) throws IOException {
+                if (failed) {
+                    byteArrayOutputStream.write(bytes, offset, length);
+                    return;
+                }
+                failed = true;
+                byteArrayOutputStream.write(bytes, offset, length / 2);
+                throw new IOException("disk full");
+            }
+        };
+        callback = new BufferedOutputStreamCallback(failingOnce, 64 * 1024, 0, Collections.emptySet());
+        structLogger = new StructLogger<>(callback);
+
+        logInfo(1);
+        try {
+            callback.flush();
+        } catch (RuntimeException ex) {
+            //expected, stream wrote half of buffer
+        }
+        final int partial = byteArrayOutputStream.size();
+        logInfo(2);
+        callback.flush();
+
+        final String rest = new String(byteArrayOutputStream.toByteArray(), partial, byteArrayOutputStream.size() - partial, StandardCharsets.UTF_8);
+        assertThat(rest.split(System.lineSeparator()).length, is(1));
+        assertThat(varInt(rest), is(2));
+    }
+
+    @Test
+    public void shouldNotKeepUnclosedCallbackReachable() throws Exception {
+        WeakReference<BufferedOutputStreamCallback> reference = new WeakReference<>(
+                new BufferedOutputStreamCallback(byteArrayOutputStream, 64 * 1024, 10, Collections.emptySet())
+        );
+
+        final long deadline = System.currentTimeMillis() + 5000;
+        while (reference.get() != null && System.currentTimeMillis() < deadline) {
+            System.gc();
+            Thread.sleep(10);
+        }
+        assertThat(reference.get() == null, is(true));
+    }
+
+    private void logInfo(final int value) {
+        structLogger.info("buffered event")
+                .varInt(value)
+                .log("buffered.BufferedEvent");
+    }
+
+    private String[] lines() {
+        synchronized (callback) {
+            final String content = new String(byteArrayOutputStream.toByteArray(), StandardCharsets.UTF_8);
+            return content.isEmpty() ? new String[0] : content.split(System.lineSeparator());
+        }
+    }
+
+    private static int varInt(final String line) throws Exception {
+        final JsonNode json = MAPPER.readTree(line);
+        return json.get("varInt").asInt();
+    }
+}
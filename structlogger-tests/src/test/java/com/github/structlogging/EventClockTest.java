@@ -0,0 +1,120 @@
+/**
+ * Copyright © 2018, Ondrej Benkovsky
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ *
+ * The views and conclusions contained in the software and documentation are those
+ * of the authors and should not be interpreted as representing official policies,
+ * either expressed or implied, of the FreeBSD Project.
+ */
+package com.github.structlogging;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.structlogging.annotation.LoggerContext;
+import com.github.structlogging.utils.CachedEventClock;
+import com.github.structlogging.utils.EventClock;
+import com.github.structlogging.utils.EventTimestamps;
+import com.github.structlogging.utils.JsonWriter;
+import com.github.structlogging.utils.NanoTimeEventClock;
+import org.junit.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+
+public class EventClockTest {
+
+    private static final long NANOS_PER_MILLI = 1_000_000;
+
+    @LoggerContext(context = TestContext.class)
+    private StructLogger<TestContext> logger;
+
+    @Test
+    public void shouldTakeTimestampOfEventFromClock() throws Exception {
+        final EventClock defaultClock = EventTimestamps.getClock();
+        EventTimestamps.setClock(() -> 1_500_000_000_123_456_789L);
+        try {
+            final ListLoggingCallback callback = new ListLoggingCallback();
+            logger = new StructLogger<>(callback);
+
+            logger.info("clock event")
+                    .varInt(1)
+                    .log("clock.ClockEvent");
+
+            final LoggingEvent event = callback.getLoggingEventList().get(0);
+            assertThat(event.getTimestampNanos(), is(1_500_000_000_123_456_789L));
+            assertThat(event.getTimestamp(), is(1_500_000_000_123L));
+            final JsonNode json = new ObjectMapper().readTree(new ObjectMapper().writeValueAsString(event));
+            assertThat(json.get("timestamp").asLong(), is(1_500_000_000_123L));
+            assertThat(json.get("timestampNanos").asLong(), is(1_500_000_000_123_456_789L));
+            final JsonWriter writer = JsonWriter.acquire();
+            try {
+                event.writeJson(writer);
+                assertThat(new ObjectMapper().readTree(writer.toString()).get("timestampNanos").asLong(), is(1_500_000_000_123_456_789L));
+            } finally {
+                writer.release();
+            }
+        } finally {
+            EventTimestamps.setClock(defaultClock);
+        }
+    }
+
+    @Test
+    public void shouldCreateEventWithTimestampInNanoseconds() {
+        final LoggingEvent event = LoggingEvent.withTimestampNanos("message", "EventClockTest", 1, "clock.ManualEvent", 1, "INFO", 1_500_000_000_123_456_789L);
+        final LoggingEvent millis = new LoggingEvent("message", "EventClockTest", 1, "clock.ManualEvent", 1, "INFO", 1_500_000_000_123L);
+
+        assertThat(event.getTimestampNanos(), is(1_500_000_000_123_456_789L));
+        assertThat(event.getTimestamp(), is(millis.getTimestamp()));
+        assertThat(millis.getTimestampNanos(), is(1_500_000_000_123_000_000L));
+    }
+
+    @Test
+    public void shouldMeasureTimeWithNanoTimeOffset() throws Exception {
+        final NanoTimeEventClock clock = new NanoTimeEventClock();
+
+        final long first = clock.currentTimeNanos();
+        Thread.sleep(1);
+        final long second = clock.currentTimeNanos();
+
+        assertThat(second - first, is(greaterThan(NANOS_PER_MILLI)));
+        assertThat(Math.abs(second / NANOS_PER_MILLI - System.currentTimeMillis()), is(lessThan(100L)));
+    }
+
+    @Test
+    public void shouldUpdateCachedTime() throws Exception {
+        final CachedEventClock clock = new CachedEventClock(NANOS_PER_MILLI);
+        try {
+            final long first = clock.currentTimeNanos();
+            final long deadline = System.currentTimeMillis() + 5000;
+            while (clock.currentTimeNanos() == first && System.currentTimeMillis() < deadline) {
+                Thread.sleep(1);
+            }
+            assertThat(clock.currentTimeNanos(), is(greaterThan(first)));
+            assertThat(Math.abs(clock.currentTimeNanos() / NANOS_PER_MILLI - System.currentTimeMillis()), is(lessThan(100L)));
+        } finally {
+            clock.close();
+        }
+    }
+}
@@ -0,0 +1,123 @@
+/**
+ * Copyright © 2018, Ondrej Benkovsky
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ *
+ * The views and conclusions contained in the software and documentation are those
+ * of the authors and should not be interpreted as representing official policies,
+ * either expressed or implied, of the FreeBSD Project.
+ */
+package com.github.structlogging;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.structlogging.annotation.LoggerContext;
+import com.github.structlogging.serializer.EventSerializer;
+import com.github.structlogging.serializer.EventSerializers;
+import com.github.structlogging.serializer.GeneratedEventSerializer;
+import com.github.structlogging.serializer.JacksonEventSerializer;
+import com.github.structlogging.utils.JsonWriter;
+import org.junit.After;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.sameInstance;
+
+public class EventSerializersTest {
+
+    @LoggerContext(context = TestContext.class)
+    private StructLogger<TestContext> structLogger;
+
+    @After
+    public void tearDown() {
+        EventSerializers.unregister(ManualEvent.class);
+    }
+
+    @Test
+    public void shouldUseGeneratedSerializerForGeneratedEvents() throws Exception {
+        final ListLoggingCallback callback = new ListLoggingCallback();
+        structLogger = new StructLogger<>(callback);
+
+        structLogger.info("generated event")
+                .varInt(1)
+                .log("serializer.GeneratedEvent");
+
+        final LoggingEvent event = callback.getLoggingEventList().get(0);
+
+        assertThat(EventSerializers.get(event.getClass()), is(sameInstance(GeneratedEventSerializer.INSTANCE)));
+        assertThat(serialize(event), is(equalTo(new ObjectMapper().writeValueAsString(event))));
+    }
+
+    @Test
+    public void shouldUseJacksonSerializerForOtherEvents() throws Exception {
+        final ManualEvent event = new ManualEvent(42);
+
+        assertThat(EventSerializers.get(ManualEvent.class), is(instanceOf(JacksonEventSerializer.class)));
+        assertThat(EventSerializers.get(ManualEvent.class), is(sameInstance(EventSerializers.get(ManualEvent.class))));
+        assertThat(serialize(event), is(equalTo(new ObjectMapper().writeValueAsString(event))));
+    }
+
+    @Test
+    public void shouldUseRegisteredSerializerInCallbacks() throws Exception {
+        final EventSerializer serializer = (event, writer) -> writer.writeRaw("manual".getBytes(StandardCharsets.UTF_8));
+        EventSerializers.get(ManualEvent.class);
+        EventSerializers.register(ManualEvent.class, serializer);
+
+        final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        new OutputStreamCallback(outputStream).info(new ManualEvent(1));
+
+        assertThat(outputStream.toString("UTF-8"), is(equalTo("manual" + System.lineSeparator())));
+
+        EventSerializers.unregister(ManualEvent.class);
+
+        assertThat(EventSerializers.get(ManualEvent.class), is(instanceOf(JacksonEventSerializer.class)));
+    }
+
+    private static String serialize(final LoggingEvent event) {
+        final JsonWriter writer = JsonWriter.acquire();
+        try {
+            EventSerializers.serialize(event, writer);
+            return writer.toString();
+        } finally {
+            writer.release();
+        }
+    }
+
+    public static class ManualEvent extends LoggingEvent {
+
+        private final int value;
+
+        ManualEvent(final int value) {
+            super("manual event", "EventSerializersTest.java", 1, "serializer.ManualEvent", 1, "INFO", 1000);
+            this.value = value;
+        }
+
+        public int getValue() {
+            return value;
+        }
+    }
+}
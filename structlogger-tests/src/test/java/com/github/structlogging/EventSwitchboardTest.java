@@ -0,0 +1,200 @@
+/**
+ * Copyright © 2018, Ondrej Benkovsky
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ *
+ * The views and conclusions contained in the software and documentation are those
+ * of the authors and should not be interpreted as representing official policies,
+ * either expressed or implied, of the FreeBSD Project.
+ */
+package com.github.structlogging;
+
+import com.github.structlogging.annotation.LoggerContext;
+import com.github.structlogging.utils.EventSwitchboard;
+import com.github.structlogging.utils.EventTypes;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.BrokenBarrierException;
+import java.util.concurrent.CyclicBarrier;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.arrayContaining;
+import static org.hamcrest.Matchers.emptyArray;
+import static org.hamcrest.Matchers.hasItemInArray;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+
+public class EventSwitchboardTest {
+
+    @LoggerContext(context = TestContext.class)
+    private StructLogger<TestContext> structLogger;
+
+    private ListLoggingCallback callback;
+
+    private int evaluations;
+
+    @Before
+    public void setUp() {
+        callback = new ListLoggingCallback();
+        structLogger = new StructLogger<>(callback);
+        evaluations = 0;
+    }
+
+    @After
+    public void tearDown() {
+        EventSwitchboard.enableAll();
+    }
+
+    @Test
+    public void shouldNotLogNorEvaluateVariablesOfDisabledType() {
+        EventSwitchboard.disable("switchboard.NoisyEvent");
+
+        logNoisy();
+
+        assertThat(callback.getLoggingEventList(), hasSize(0));
+        assertThat(evaluations, is(0));
+        assertThat(EventSwitchboard.isEnabled("switchboard.NoisyEvent"), is(false));
+        assertThat(EventSwitchboard.getDisabledTypes(), arrayContaining("switchboard.NoisyEvent"));
+
+        EventSwitchboard.enable("switchboard.NoisyEvent");
+
+        logNoisy();
+
+        assertThat(callback.getLoggingEventList(), hasSize(1));
+        assertThat(evaluations, is(1));
+        assertThat(EventSwitchboard.getDisabledTypes(), is(emptyArray()));
+    }
+
+    @Test
+    public void shouldLogOtherTypesWhenTypeIsDisabled() {
+        EventSwitchboard.disable("switchboard.NoisyEvent");
+
+        logNoisy();
+        structLogger.info("quiet event")
+                .varInt(1)
+                .log("switchboard.QuietEvent");
+
+        assertThat(callback.getLoggingEventList(), hasSize(1));
+        assertThat(callback.getLoggingEventList().get(0).getType(), is("switchboard.QuietEvent"));
+    }
+
+    @Test
+    public void shouldDisableTypeThroughJmx() throws Exception {
+        final ObjectName name = EventSwitchboard.registerMBean();
+        assertThat(EventSwitchboard.registerMBean(), is(name));
+        final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+
+        logNoisy();
+        server.invoke(name, "disable", new Object[]{"switchboard.NoisyEvent"}, new String[]{String.class.getName()});
+        logNoisy();
+
+        assertThat(callback.getLoggingEventList(), hasSize(1));
+        assertThat((String[]) server.getAttribute(name, "DisabledTypes"), arrayContaining("switchboard.NoisyEvent"));
+        assertThat((String[]) server.getAttribute(name, "RegisteredTypes"), hasItemInArray("switchboard.NoisyEvent"));
+
+        server.invoke(name, "enableAll", new Object[0], new String[0]);
+        logNoisy();
+
+        assertThat(callback.getLoggingEventList(), hasSize(2));
+    }
+
+    @Test
+    public void shouldNotRegisterUnknownType() {
+        final int count = EventTypes.count();
+
+        EventSwitchboard.disable("switchboard.MistypedEvent");
+
+        assertThat(EventSwitchboard.isEnabled("switchboard.MistypedEvent"), is(false));
+        assertThat(EventSwitchboard.isEnabled("switchboard.OtherMistypedEvent"), is(true));
+        assertThat(EventSwitchboard.getDisabledTypes(), arrayContaining("switchboard.MistypedEvent"));
+        assertThat(EventTypes.find("switchboard.MistypedEvent"), is(EventTypes.UNKNOWN));
+        assertThat(EventTypes.count(), is(count));
+
+        EventSwitchboard.enable("switchboard.MistypedEvent");
+
+        assertThat(EventSwitchboard.isEnabled("switchboard.MistypedEvent"), is(true));
+        assertThat(EventSwitchboard.getDisabledTypes(), is(emptyArray()));
+        assertThat(EventTypes.count(), is(count));
+    }
+
+    @Test
+    public void shouldApplyPendingOverrideWhenTypeIsRegistered() {
+        EventSwitchboard.disable("switchboard.LateEvent");
+
+        structLogger.info("late event")
+                .varInt(evaluate())
+                .log("switchboard.LateEvent");
+
+        assertThat(callback.getLoggingEventList(), hasSize(0));
+        assertThat(evaluations, is(0));
+        assertThat(EventTypes.find("switchboard.LateEvent"), is(not(EventTypes.UNKNOWN)));
+        assertThat(EventSwitchboard.getDisabledTypes(), arrayContaining("switchboard.LateEvent"));
+    }
+
+    @Test
+    public void shouldApplyOverrideDisabledConcurrentlyWithRegistration() throws Exception {
+        final int types = 2000;
+        final CyclicBarrier barrier = new CyclicBarrier(2);
+        final Thread registering = new Thread(() -> {
+            for (int i = 0; i < types; i++) {
+                await(barrier);
+                EventTypes.register("switchboard.race.Event" + i);
+            }
+        });
+        registering.start();
+        for (int i = 0; i < types; i++) {
+            await(barrier);
+            EventSwitchboard.disable("switchboard.race.Event" + i);
+        }
+        registering.join();
+
+        for (int i = 0; i < types; i++) {
+            final int typeId = EventTypes.find("switchboard.race.Event" + i);
+            assertThat(EventSwitchboard.isEnabled(typeId), is(false));
+        }
+        assertThat(EventSwitchboard.getDisabledTypes().length, is(types));
+    }
+
+    private static void await(final CyclicBarrier barrier) {
+        try {
+            barrier.await();
+        } catch (InterruptedException | BrokenBarrierException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private void logNoisy() {
+        structLogger.info("noisy event")
+                .varInt(evaluate())
+                .log("switchboard.NoisyEvent");
+    }
+
+    private int evaluate() {
+        return ++evaluations;
+    }
+}
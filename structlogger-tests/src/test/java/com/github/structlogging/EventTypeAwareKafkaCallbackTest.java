@@ -32,15 +32,31 @@ import com.github.structlogging.LoggingEvent;
 import com.github.structlogging.StructLogger;
 import com.github.structlogging.kafka.LoggingEventJsonSerializer;
 import com.github.structlogging.annotation.LoggerContext;
+import com.github.structlogging.kafka.EventKeyExtractors;
 import com.github.structlogging.kafka.EventTypeAwareKafkaCallback;
+import com.github.structlogging.kafka.KeyedKafkaCallback;
 import org.apache.kafka.clients.producer.MockProducer;
 import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.clients.producer.internals.DefaultPartitioner;
+import org.apache.kafka.common.Cluster;
+import org.apache.kafka.common.Node;
+import org.apache.kafka.common.PartitionInfo;
+import org.apache.kafka.common.serialization.IntegerSerializer;
 import org.apache.kafka.common.serialization.LongSerializer;
+import org.apache.kafka.common.serialization.StringSerializer;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
 
 public class EventTypeAwareKafkaCallbackTest {
 
@@ -116,4 +132,101 @@ public class EventTypeAwareKafkaCallbackTest {
         assertThat(loggingEventE0.getType(), is("KafkaEvent3"));
         assertThat(loggingEventE1.getType(), is("KafkaEvent4"));
     }
+
+    @Test
+    public void testTopicOfEventTypeIsResolvedOnce() {
+        final AtomicInteger mappingCalls = new AtomicInteger();
+        testLogger = new StructLogger<>(new EventTypeAwareKafkaCallback(mockProducer, e -> {
+            mappingCalls.incrementAndGet();
+            return "topic." + e;
+        }));
+
+        for (int i = 0; i < 3; i++) {
+            testLogger.info("Event sent via kafka")
+                    .varInt(i)
+                    .log("KafkaEvent3");
+        }
+
+        assertThat(mockProducer.history().size(), is(3));
+        assertThat(mockProducer.history().get(2).topic(), is("topic.KafkaEvent3"));
+        assertThat(mappingCalls.get(), is(1));
+    }
+
+    @Test
+    public void testEventsOfSameTypeAreSentToSamePartition() {
+        final Node node = new Node(0, "localhost", 9092);
+        final List<PartitionInfo> partitions = new ArrayList<>();
+        for (String topic : new String[]{"KafkaEvent5", "KafkaEvent6"}) {
+            for (int i = 0; i < 8; i++) {
+                partitions.add(new PartitionInfo(topic, i, node, new Node[]{node}, new Node[]{node}));
+            }
+        }
+        final Cluster cluster = new Cluster("cluster", Collections.singletonList(node), partitions, Collections.emptySet(), Collections.emptySet());
+        final DefaultPartitioner partitioner = new DefaultPartitioner();
+        final StringSerializer keySerializer = new StringSerializer();
+        final MockProducer<String, LoggingEvent> producer = new MockProducer<>(
+                cluster,
+                true,
+                partitioner,
+                keySerializer,
+                new LoggingEventJsonSerializer()
+        );
+        testLogger = new StructLogger<>(new KeyedKafkaCallback<>(producer, e -> e, EventKeyExtractors.eventType()));
+
+        for (int i = 0; i < 10; i++) {
+            testLogger.info("Event sent via kafka")
+                    .varInt(i)
+                    .log("KafkaEvent5");
+        }
+
+        final Set<Integer> usedPartitions = new HashSet<>();
+        for (ProducerRecord<String, LoggingEvent> record : producer.history()) {
+            assertThat(record.key(), is("KafkaEvent5"));
+            assertThat(record.timestamp(), is(record.value().getTimestamp()));
+            final byte[] keyBytes = keySerializer.serialize(record.topic(), record.key());
+            usedPartitions.add(partitioner.partition(record.topic(), record.key(), keyBytes, record.value(), null, cluster));
+        }
+        assertThat(producer.history().size(), is(10));
+        assertThat(usedPartitions.size(), is(1));
+    }
+
+    @Test
+    public void testEventsAreKeyedByVariable() {
+        final MockProducer<Integer, LoggingEvent> producer = new MockProducer<>(
+                true,
+                new IntegerSerializer(),
+                new LoggingEventJsonSerializer()
+        );
+        testLogger = new StructLogger<>(new KeyedKafkaCallback<>(producer, e -> e, EventKeyExtractors.<Integer>variable("varInt")));
+
+        testLogger.info("Event sent via kafka")
+                .varInt(42)
+                .log("KafkaEvent3");
+
+        testLogger.info("Event sent via kafka without int")
+                .varString("string value")
+                .log("KafkaEvent7");
+
+        assertThat(producer.history().size(), is(2));
+        assertThat(producer.history().get(0).key(), is(42));
+        assertThat(producer.history().get(1).key(), is(nullValue()));
+    }
+
+    @Test
+    public void testEventsAreKeyedBySid() {
+        final MockProducer<Long, LoggingEvent> producer = new MockProducer<>(
+                true,
+                new LongSerializer(),
+                new LoggingEventJsonSerializer()
+        );
+        testLogger = new StructLogger<>(new KeyedKafkaCallback<>(producer, e -> e, EventKeyExtractors.sid()));
+
+        testLogger.info("Event sent via kafka keyed by sid")
+                .varInt(1)
+                .log("KafkaEvent8");
+
+        final ProducerRecord<Long, LoggingEvent> record = producer.history().get(0);
+        assertThat(record.key(), is(record.value().sid()));
+        assertThat(record.key(), is(record.value().getContext().getSid()));
+    }
 }
@@ -0,0 +1,133 @@
+/**
+ * Copyright © 2018, Ondrej Benkovsky
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ *
+ * The views and conclusions contained in the software and documentation are those
+ * of the authors and should not be interpreted as representing official policies,
+ * either expressed or implied, of the FreeBSD Project.
+ */
+package com.github.structlogging;
+
+import com.github.structlogging.annotation.LoggerContext;
+import com.github.structlogging.utils.EventTypes;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.hasItems;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+import static org.hamcrest.Matchers.not;
+
+public class EventTypesTest {
+
+    @LoggerContext(context = TestContext.class)
+    private StructLogger<TestContext> structLogger;
+
+    private ListLoggingCallback callback;
+
+    @Before
+    public void setUp() {
+        callback = new ListLoggingCallback();
+        structLogger = new StructLogger<>(callback);
+    }
+
+    @Test
+    public void shouldAssignDenseIdsToGeneratedEvents() throws ReflectiveOperationException {
+        structLogger.info("first event type")
+                .varInt(1)
+                .log("types.FirstEvent");
+        structLogger.info("second event type")
+                .varString("second")
+                .log("types.SecondEvent");
+
+        final LoggingEvent first = callback.getLoggingEventList().get(0);
+        final LoggingEvent second = callback.getLoggingEventList().get(1);
+        assertThat(first.typeId(), is(first.getClass().getField("TYPE_ID").getInt(null)));
+        assertThat(second.typeId(), is(second.getClass().getField("TYPE_ID").getInt(null)));
+        assertThat(first.typeId(), is(not(second.typeId())));
+        assertThat(first.typeId(), is(lessThan(EventTypes.count())));
+        assertThat(second.typeId(), is(lessThan(EventTypes.count())));
+        assertThat(EventTypes.type(first.typeId()), is("types.FirstEvent"));
+        assertThat(EventTypes.type(second.typeId()), is("types.SecondEvent"));
+    }
+
+    @Test
+    public void shouldAssignSameIdToSameTypeName() {
+        final int id = EventTypes.register("types.RegisteredEvent");
+
+        assertThat(EventTypes.register("types.RegisteredEvent"), is(id));
+        assertThat(EventTypes.find("types.RegisteredEvent"), is(id));
+        assertThat(EventTypes.type(id), is("types.RegisteredEvent"));
+    }
+
+    @Test
+    public void shouldNotRegisterTypeOfManualEvent() {
+        final int count = EventTypes.count();
+        final LoggingEvent event = new LoggingEvent("message", "EventTypesTest", 1, "types.ManualEvent", 1, "INFO", 0);
+
+        assertThat(event.typeId(), is(EventTypes.UNKNOWN));
+        assertThat(EventTypes.find("types.ManualEvent"), is(EventTypes.UNKNOWN));
+        assertThat(EventTypes.count(), is(count));
+    }
+
+    @Test
+    public void shouldFindTypeOfManualEventWithGeneratedEventOfSameType() {
+        structLogger.info("event type shared with manual event")
+                .varInt(1)
+                .log("types.SharedEvent");
+        final LoggingEvent generated = callback.getLoggingEventList().get(0);
+        final LoggingEvent manual = new LoggingEvent("message", "EventTypesTest", 1, "types.SharedEvent", 1, "INFO", 0);
+
+        assertThat(manual.typeId(), is(generated.typeId()));
+    }
+
+    @Test
+    public void shouldRegisterAllListedEventClasses() throws Exception {
+        final ClassLoader classLoader = getClass().getClassLoader();
+        final List<String> classNames;
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                classLoader.getResourceAsStream(EventTypes.REGISTRY_RESOURCE), StandardCharsets.UTF_8))) {
+            classNames = reader.lines().collect(Collectors.toList());
+        }
+        assertThat(classNames, hasItems("types.FirstEvent", "types.SecondEvent"));
+
+        final int count = EventTypes.registerAll(classLoader);
+
+        final Set<Integer> ids = new HashSet<>();
+        for (String className : classNames) {
+            final int id = Class.forName(className).getField("TYPE_ID").getInt(null);
+            assertThat(id, is(lessThan(count)));
+            ids.add(id);
+        }
+        assertThat(ids.size(), is(classNames.size()));
+    }
+}
@@ -0,0 +1,146 @@
+/**
+ * Copyright © 2018, Ondrej Benkovsky
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ *
+ * The views and conclusions contained in the software and documentation are those
+ * of the authors and should not be interpreted as representing official policies,
+ * either expressed or implied, of the FreeBSD Project.
+ */
+package com.github.structlogging;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.structlogging.annotation.LoggerContext;
+import com.github.structlogging.utils.JsonWriter;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+
+public class JsonWriterTest {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private ListLoggingCallback callback;
+
+    @LoggerContext(context = JsonTestContext.class)
+    private StructLogger<JsonTestContext> logger;
+
+    @Before
+    public void setUp() {
+        callback = new ListLoggingCallback();
+        logger = new StructLogger<>(callback);
+    }
+
+    @Test
+    public void shouldWriteSameJsonAsJackson() throws Exception {
+        logger.info("quote \" backslash \\ control \u0001\t\n unicode é€😀 {} {} {} {} {} {} {} {} {}")
+                .varLong(Long.MIN_VALUE)
+                .varDouble(0.1)
+                .varFloat(Float.NaN)
+                .varBoolean(true)
+                .varChar('"')
+                .varString("line\r\nbreak")
+                .varBoxed(null)
+                .varObject(Collections.singletonMap("key", Arrays.asList(1, 2)))
+                .xValue(-42)
+                .log("json.AllTypesEvent");
+
+        assertSameJsonAsJackson();
+    }
+
+    @Test
+    public void shouldWriteSameJsonAsJacksonForNumbersAndNulls() throws Exception {
+        logger.warn("numbers {} {} {} {} {} {} {} {} {}")
+                .varLong(0)
+                .varDouble(Double.NEGATIVE_INFINITY)
+                .varFloat(1.5e-10f)
+                .varBoolean(false)
+                .varChar('\u0000')
+                .varString(null)
+                .varBoxed(Integer.MAX_VALUE)
+                .varObject(12345678901L)
+                .xValue(0)
+                .log("json.AllTypesEvent");
+
+        assertSameJsonAsJackson();
+    }
+
+    @Test
+    public void shouldReuseWriter() throws Exception {
+        logger.info("event without variables")
+                .log("json.NoVariablesEvent");
+
+        final LoggingEvent event = callback.getLoggingEventList().get(0);
+
+        final JsonWriter writer = JsonWriter.acquire();
+        try {
+            event.writeJson(writer);
+            final String first = writer.toString();
+            writer.reset();
+            event.writeJson(writer);
+            assertThat(writer.toString(), is(equalTo(first)));
+            assertThat(first, is(equalTo(MAPPER.writeValueAsString(event))));
+        } finally {
+            writer.release();
+        }
+    }
+
+    @Test
+    public void shouldNotUseFragmentsOfOtherCallSite() throws Exception {
+        logger.info("event without variables")
+                .log("json.NoVariablesEvent");
+
+        //index 0 compiled into statement of another source file, e.g. before incremental compilation regenerated event class
+        final LoggingEvent event = new json.NoVariablesEvent("from other source", "p.B", 9, "json.NoVariablesEvent", 1, "ERROR", 0, false, 0);
+
+        final JsonWriter writer = JsonWriter.acquire();
+        try {
+            event.writeJson(writer);
+            assertThat(writer.toString(), is(equalTo(MAPPER.writeValueAsString(event))));
+        } finally {
+            writer.release();
+        }
+    }
+
+    private void assertSameJsonAsJackson() throws Exception {
+        assertThat(callback.getLoggingEventList(), hasSize(1));
+        final LoggingEvent event = callback.getLoggingEventList().get(0);
+
+        final JsonWriter writer = JsonWriter.acquire();
+        final String written;
+        try {
+            event.writeJson(writer);
+            written = writer.toString();
+        } finally {
+            writer.release();
+        }
+
+        assertThat(written, is(equalTo(MAPPER.writeValueAsString(event))));
+    }
+}
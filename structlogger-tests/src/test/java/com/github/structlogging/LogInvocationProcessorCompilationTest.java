@@ -35,6 +35,7 @@ import org.junit.Test;
 
 import static com.google.testing.compile.CompilationSubject.assertThat;
 import static com.google.testing.compile.Compiler.javac;
+import static org.junit.Assert.assertFalse;
 
 public class LogInvocationProcessorCompilationTest {
 
@@ -337,4 +338,65 @@ public class LogInvocationProcessorCompilationTest {
 
         assertThat(compilation).hadErrorContaining("ContextWithForbiddenName3 interface cannot have method named type");
     }
+
+    @Test
+    public void shouldNotCompileVarContextHasSidVar() {
+        final Compilation compilation =
+                javac()
+                        .withProcessors(new LogInvocationProcessor())
+                        .compile(JavaFileObjects.forResource("UsageOfContextWithForbiddenName4.java"),
+                                JavaFileObjects.forResource("ContextWithForbiddenName4.java"));
+
+        assertThat(compilation).hadErrorContaining("ContextWithForbiddenName4 interface cannot have method named sid");
+    }
+
+    @Test
+    public void shouldNotCompileVarContextHasTimestampNanosVar() {
+        final Compilation compilation =
+                javac()
+                        .withProcessors(new LogInvocationProcessor())
+                        .compile(JavaFileObjects.forResource("UsageOfContextWithForbiddenName5.java"),
+                                JavaFileObjects.forResource("ContextWithForbiddenName5.java"));
+
+        assertThat(compilation).hadErrorContaining("ContextWithForbiddenName5 interface cannot have method named timestampNanos");
+    }
+
+    @Test
+    public void shouldCompileVarContextWithNamesOfInternalEventFields() {
+        final Compilation compilation =
+                javac()
+                        .withProcessors(new LogInvocationProcessor())
+                        .compile(JavaFileObjects.forResource("UsageOfContextWithInternalNames.java"),
+                                JavaFileObjects.forResource("ContextWithInternalNames.java"));
+
+        assertThat(compilation).succeeded();
+    }
+
+    @Test
+    public void shouldElideStatementsBelowMinimumLevel() {
+        final Compilation compilation =
+                javac()
+                        .withProcessors(new LogInvocationProcessor())
+                        .withOptions("-AminimumLevel=info")
+                        .compile(JavaFileObjects.forResource("MinimumLevelUsage.java"));
+
+        assertThat(compilation).succeeded();
+        assertThat(compilation).generatedSourceFile("kept.InfoEvent");
+        assertThat(compilation).generatedSourceFile("kept.AuditEvent");
+        assertFalse(compilation.generatedSourceFile("elided.DebugEvent").isPresent());
+        assertFalse(compilation.generatedSourceFile("elided.TraceEvent").isPresent());
+    }
+
+    @Test
+    public void shouldNotCompileInvalidMinimumLevel() {
+        final Compilation compilation =
+                javac()
+                        .withProcessors(new LogInvocationProcessor())
+                        .withOptions("-AminimumLevel=VERBOSE")
+                        .compile(JavaFileObjects.forResource("ValidUsage.java"));
+
+        assertThat(compilation).hadErrorContaining(
+                "Provided minimumLevel compiler argument value [VERBOSE] is not valid, expected one of [INFO, DEBUG, ERROR, TRACE, AUDIT, WARN]"
+        );
+    }
 }
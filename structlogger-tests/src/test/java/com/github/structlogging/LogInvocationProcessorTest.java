@@ -139,7 +139,7 @@ public class LogInvocationProcessorTest {
         assertThat(testEvent.getClass().getPackage().getName(), is(equalTo("structlogger.test")));
         assertThat(testEvent.getClass().getSimpleName(), is(equalTo("TestEvent")));
 
-        final List<String> eventFields = Arrays.stream(testEvent.getClass().getDeclaredFields()).map(Field::getName).collect(Collectors.toList());
+        final List<String> eventFields = Arrays.stream(testEvent.getClass().getDeclaredFields()).filter(field -> !java.lang.reflect.Modifier.isStatic(field.getModifiers())).map(Field::getName).collect(Collectors.toList());
         assertThat(eventFields, containsInAnyOrder(equalTo("varInt"), equalTo("varString")));
     }
 
@@ -156,7 +156,7 @@ public class LogInvocationProcessorTest {
 
         final LoggingEvent testEvent = callback.getLoggingEventList().get(0);
 
-        final List<String> eventFields = Arrays.stream(testEvent.getClass().getDeclaredFields()).map(Field::getName).collect(Collectors.toList());
+        final List<String> eventFields = Arrays.stream(testEvent.getClass().getDeclaredFields()).filter(field -> !java.lang.reflect.Modifier.isStatic(field.getModifiers())).map(Field::getName).collect(Collectors.toList());
         assertThat(eventFields, Matchers.containsInAnyOrder(equalTo("varInt"), equalTo("varInt1"), equalTo("varInt2"), equalTo("varInt3")));
     }
 
@@ -264,4 +264,42 @@ public class LogInvocationProcessorTest {
 
         assertThat(callback.getLoggingEventList(), hasSize(1));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void shouldFormatParametrizedMessageLazily() {
+        final int[] toStringCalls = new int[1];
+        final Object variable = new Object() {
+            @Override
+            public String toString() {
+                toStringCalls[0]++;
+                return "lazy";
+            }
+        };
+
+        defaultContextLogger.info("object={}")
+                .varObject(variable)
+                .log("structlogger.test.LazyMessageEvent");
+
+        assertThat(callback.getLoggingEventList(), hasSize(1));
+        assertThat(toStringCalls[0], is(0));
+
+        final LoggingEventContext context = callback.getLoggingEventList().get(0).getContext();
+        assertThat(context.getMessage(), is(equalTo("object=lazy")));
+        assertThat(context.getMessage(), is(equalTo("object=lazy")));
+        assertThat(toStringCalls[0], is(1));
+    }
+
+    @Test
+    public void shouldNotFormatMessageWithoutParametrization() {
+        testLogger.info("not parametrized {}")
+                .varInt(1)
+                .log("structlogger.test.NotParametrizedEvent");
+
+        assertThat(callback.getLoggingEventList(), hasSize(1));
+
+        final StringBuilder builder = new StringBuilder();
+        callback.getLoggingEventList().get(0).getContext().appendMessage(builder);
+
+        assertThat(builder.toString(), is(equalTo("not parametrized {}")));
+    }
+}
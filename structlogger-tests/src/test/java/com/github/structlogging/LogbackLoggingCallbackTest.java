@@ -0,0 +1,173 @@
+/**
+ * Copyright © 2018, Ondrej Benkovsky
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ *
+ * The views and conclusions contained in the software and documentation are those
+ * of the authors and should not be interpreted as representing official policies,
+ * either expressed or implied, of the FreeBSD Project.
+ */
+package com.github.structlogging;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.OutputStreamAppender;
+import ch.qos.logback.core.read.ListAppender;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.structlogging.annotation.LoggerContext;
+import com.github.structlogging.logback.LogbackLoggingCallback;
+import com.github.structlogging.logback.StructuredEventEncoder;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.arrayWithSize;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+
+public class LogbackLoggingCallbackTest {
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    @LoggerContext(context = TestContext.class)
+    private StructLogger<TestContext> structLogger;
+
+    @LoggerContext(context = TestContext.class, reusableEvents = true)
+    private StructLogger<TestContext> reusableLogger;
+
+    private ch.qos.logback.classic.LoggerContext loggerContext;
+    private Logger logger;
+    private ByteArrayOutputStream output;
+
+    @Before
+    public void setUp() {
+        loggerContext = new ch.qos.logback.classic.LoggerContext();
+        logger = loggerContext.getLogger("logback.test");
+        logger.setLevel(Level.INFO);
+        logger.setAdditive(false);
+        output = new ByteArrayOutputStream();
+    }
+
+    @Test
+    public void testEncoderWritesEventAsJson() throws IOException {
+        logger.addAppender(outputStreamAppender());
+        structLogger = new StructLogger<>(new LogbackLoggingCallback(logger));
+
+        structLogger.info("logback event")
+                .varInt(42)
+                .log("logback.LogbackEvent");
+        structLogger.debug("disabled logback event")
+                .varInt(43)
+                .log("logback.LogbackEvent");
+
+        final String[] lines = lines();
+        assertThat(lines, arrayWithSize(1));
+        final JsonNode json = mapper.readTree(lines[0]);
+        assertThat(json.get("varInt").asInt(), is(42));
+        assertThat(json.get("type").asText(), is("logback.LogbackEvent"));
+        assertThat(json.get("context").get("message").asText(), is("logback event"));
+        assertThat(json.get("context").get("logLevel").asText(), is("INFO"));
+    }
+
+    @Test
+    public void testEventIsPassedAsArgument() {
+        final ListAppender<ILoggingEvent> appender = new ListAppender<>();
+        appender.setContext(loggerContext);
+        appender.start();
+        logger.addAppender(appender);
+        structLogger = new StructLogger<>(new LogbackLoggingCallback(logger));
+
+        structLogger.audit("logback audit event")
+                .varInt(1)
+                .log("logback.LogbackEvent");
+        structLogger.warn("logback warn event")
+                .varInt(2)
+                .log("logback.LogbackEvent");
+
+        final ILoggingEvent audit = appender.list.get(0);
+        assertThat(audit.getLevel(), is(Level.INFO));
+        assertThat(audit.getMarker().getName(), is("AUDIT"));
+        assertThat(audit.getFormattedMessage(), is("logback audit event"));
+        assertThat(audit.getArgumentArray()[0], is(instanceOf(LoggingEvent.class)));
+        final ILoggingEvent warn = appender.list.get(1);
+        assertThat(warn.getLevel(), is(Level.WARN));
+        assertThat(warn.getMarker(), is(nullValue()));
+        assertThat(warn.getTimeStamp(), is(((LoggingEvent) warn.getArgumentArray()[0]).getTimestamp()));
+    }
+
+    @Test
+    public void testEncoderComposesWithAsyncAppender() throws IOException {
+        final AsyncAppender asyncAppender = new AsyncAppender();
+        asyncAppender.setContext(loggerContext);
+        asyncAppender.addAppender(outputStreamAppender());
+        asyncAppender.start();
+        logger.addAppender(asyncAppender);
+        reusableLogger = new StructLogger<>(new LogbackLoggingCallback(logger));
+
+        for (int i = 0; i < 100; i++) {
+            reusableLogger.info("reusable logback event")
+                    .varInt(i)
+                    .log("logback.ReusableLogbackEvent");
+        }
+        asyncAppender.stop();
+
+        final String[] lines = lines();
+        assertThat(lines, arrayWithSize(100));
+        for (int i = 0; i < lines.length; i++) {
+            assertThat(mapper.readTree(lines[i]).get("varInt").asInt(), is(i));
+        }
+    }
+
+    @Test
+    public void testEncoderWritesMessageOfOtherEvents() {
+        logger.addAppender(outputStreamAppender());
+
+        logger.info("plain {} message", "logback");
+
+        assertThat(lines(), is(new String[] {"plain logback message"}));
+    }
+
+    private Appender<ILoggingEvent> outputStreamAppender() {
+        final StructuredEventEncoder encoder = new StructuredEventEncoder();
+        encoder.setContext(loggerContext);
+        encoder.start();
+        final OutputStreamAppender<ILoggingEvent> appender = new OutputStreamAppender<>();
+        appender.setContext(loggerContext);
+        appender.setEncoder(encoder);
+        appender.setOutputStream(output);
+        appender.start();
+        return appender;
+    }
+
+    private String[] lines() {
+        return new String(output.toByteArray(), StandardCharsets.UTF_8).split(System.lineSeparator());
+    }
+}
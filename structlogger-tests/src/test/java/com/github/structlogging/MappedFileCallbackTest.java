@@ -0,0 +1,157 @@
+/**
+ * Copyright © 2018, Ondrej Benkovsky
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ *
+ * The views and conclusions contained in the software and documentation are those
+ * of the authors and should not be interpreted as representing official policies,
+ * either expressed or implied, of the FreeBSD Project.
+ */
+package com.github.structlogging;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.structlogging.annotation.LoggerContext;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.junit.Assert.fail;
+
+public class MappedFileCallbackTest {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @LoggerContext(context = TestContext.class)
+    private StructLogger<TestContext> structLogger;
+
+    @Test
+    public void shouldRollSegmentsAndTrimLastSegment() throws Exception {
+        final Path basePath = temporaryFolder.getRoot().toPath().resolve("events.log");
+        final MappedFileCallback callback = new MappedFileCallback(basePath, 1024);
+        structLogger = new StructLogger<>(callback);
+
+        for (int i = 0; i < 50; i++) {
+            structLogger.info("mapped event")
+                    .varInt(i)
+                    .varString("value" + i)
+                    .log("mapped.MappedEvent");
+        }
+        callback.close();
+
+        final int segments = callback.getSegmentIndex() + 1;
+        assertThat(segments, is(greaterThan(1)));
+
+        final List<String> lines = new ArrayList<>();
+        for (int i = 0; i < segments; i++) {
+            final byte[] content = Files.readAllBytes(callback.getSegmentPath(i));
+            assertThat(content.length > 0 && content.length <= 1024, is(true));
+            final String segment = new String(content, StandardCharsets.UTF_8);
+            //segments are truncated to written events, so they end with complete event
+            assertThat(segment.endsWith(System.lineSeparator()), is(true));
+            for (String line : segment.split(System.lineSeparator())) {
+                lines.add(line);
+            }
+        }
+
+        assertThat(lines.size(), is(50));
+        for (int i = 0; i < 50; i++) {
+            assertThat(MAPPER.readTree(lines.get(i)).get("varInt").asInt(), is(i));
+        }
+    }
+
+    @Test
+    public void shouldWriteEventBiggerThanSegment() throws Exception {
+        final Path basePath = temporaryFolder.getRoot().toPath().resolve("big.log");
+        final MappedFileCallback callback = new MappedFileCallback(basePath, 64);
+        structLogger = new StructLogger<>(callback);
+
+        structLogger.info("big mapped event")
+                .varInt(1)
+                .varString("big value")
+                .log("mapped.MappedEvent");
+        callback.close();
+
+        assertThat(Files.size(callback.getSegmentPath(0)), is(0L));
+        final String content = new String(Files.readAllBytes(callback.getSegmentPath(1)), StandardCharsets.UTF_8);
+        assertThat(MAPPER.readTree(content).get("varString").asText(), is("big value"));
+    }
+
+    @Test
+    public void shouldNotOverwriteSegmentsOfPreviousRun() throws Exception {
+        final Path basePath = temporaryFolder.getRoot().toPath().resolve("restart.log");
+        final byte[] previous = "previous run".getBytes(StandardCharsets.UTF_8);
+        Files.write(temporaryFolder.getRoot().toPath().resolve("restart.log.0"), previous);
+        Files.write(temporaryFolder.getRoot().toPath().resolve("restart.log.1"), previous);
+
+        final MappedFileCallback callback = new MappedFileCallback(basePath, 1024);
+        structLogger = new StructLogger<>(callback);
+        structLogger.info("mapped event after restart")
+                .varInt(1)
+                .varString("value")
+                .log("mapped.MappedEvent");
+        callback.close();
+
+        assertThat(callback.getFirstSegmentIndex(), is(2));
+        assertThat(callback.getSegmentIndex(), is(2));
+        assertThat(Files.readAllBytes(callback.getSegmentPath(0)), is(previous));
+        assertThat(Files.readAllBytes(callback.getSegmentPath(1)), is(previous));
+        final String content = new String(Files.readAllBytes(callback.getSegmentPath(2)), StandardCharsets.UTF_8);
+        assertThat(MAPPER.readTree(content).get("varInt").asInt(), is(1));
+    }
+
+    @Test
+    public void shouldRejectEventsWhenSegmentCannotBeCreated() throws Exception {
+        final Path directory = temporaryFolder.newFolder("removed").toPath();
+        final MappedFileCallback callback = new MappedFileCallback(directory.resolve("failing.log"), 64);
+        structLogger = new StructLogger<>(callback);
+
+        //segment file stays open, but next segment cannot be created in removed directory
+        Files.delete(callback.getSegmentPath(0));
+        Files.delete(directory);
+        for (int i = 0; i < 2; i++) {
+            try {
+                structLogger.info("mapped event without segment")
+                        .varInt(i)
+                        .varString("value")
+                        .log("mapped.MappedEvent");
+                fail("event should be rejected");
+            } catch (RuntimeException ex) {
+                assertThat(ex.getCause() instanceof IOException, is(true));
+            }
+        }
+        callback.flush();
+        callback.close();
+    }
+}
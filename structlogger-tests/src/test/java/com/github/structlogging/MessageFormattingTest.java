@@ -0,0 +1,112 @@
+/**
+ * Copyright © 2018, Ondrej Benkovsky
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ *
+ * The views and conclusions contained in the software and documentation are those
+ * of the authors and should not be interpreted as representing official policies,
+ * either expressed or implied, of the FreeBSD Project.
+ */
+package com.github.structlogging;
+
+import com.github.structlogging.annotation.LoggerContext;
+import com.github.structlogging.utils.MessageFormatterUtils;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+
+public class MessageFormattingTest {
+
+    @LoggerContext(context = DefaultContext.class)
+    private StructLogger<DefaultContext> logger;
+
+    private ListLoggingCallback callback;
+
+    @Before
+    public void setUp() {
+        callback = new ListLoggingCallback();
+        logger = new StructLogger<>(callback);
+    }
+
+    @Test
+    public void shouldRenderMessagesSameAsSlf4j() {
+        logger.info("a {} b {} c")
+                .varString("value")
+                .varDouble(1.5)
+                .log("format.FormatEvent");
+        logger.info("escaped \\{} and {}")
+                .varString("value")
+                .varDouble(-0.0)
+                .log("format.FormatEvent");
+        logger.info("double escaped \\\\{} and {}")
+                .varString(null)
+                .varDouble(1e21)
+                .log("format.FormatEvent");
+        logger.info("{}{}")
+                .varString("")
+                .varDouble(Double.NaN)
+                .log("format.FormatEvent");
+        logger.info("{} at start {} and at end \\")
+                .varString("\\{}")
+                .varDouble(3)
+                .log("format.FormatEvent");
+
+        assertMessage(0, "a {} b {} c", "value", 1.5);
+        assertMessage(1, "escaped \\{} and {}", "value", -0.0);
+        assertMessage(2, "double escaped \\\\{} and {}", null, 1e21);
+        assertMessage(3, "{}{}", "", Double.NaN);
+        assertMessage(4, "{} at start {} and at end \\", "\\{}", 3.0);
+    }
+
+    @Test
+    public void shouldRenderExceptionSameAsSlf4j() {
+        final Exception exception = new IllegalStateException("failure");
+        logger.error("failure {}")
+                .varException(exception)
+                .log("format.ExceptionEvent");
+
+        assertMessage(0, "failure {}", exception);
+    }
+
+    @Test
+    public void shouldNotUseFormatterOfOtherCallSite() {
+        logger.info("a {} b {} c")
+                .varString("value")
+                .varDouble(1.5)
+                .log("format.FormatEvent");
+        final LoggingEvent logged = callback.getLoggingEventList().get(0);
+
+        //statement at same location with another message, compiled against previous version of event class
+        final LoggingEvent event = new format.FormatEvent("moved {} to {}", logged.getContext().getSourceFile(), logged.getContext().getLineNumber(),
+                "format.FormatEvent", 1, "INFO", 0, true, logged.callSite(), "value", 2.5);
+
+        assertThat(event.getContext().getMessage(), is(equalTo("moved value to 2.5")));
+    }
+
+    private void assertMessage(final int index, final String pattern, final Object... values) {
+        final LoggingEvent event = callback.getLoggingEventList().get(index);
+        assertThat(event.getContext().getMessage(), is(equalTo(MessageFormatterUtils.format(pattern, values))));
+    }
+}
@@ -0,0 +1,144 @@
+/**
+ * Copyright © 2018, Ondrej Benkovsky
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ *
+ * The views and conclusions contained in the software and documentation are those
+ * of the authors and should not be interpreted as representing official policies,
+ * either expressed or implied, of the FreeBSD Project.
+ */
+package com.github.structlogging;
+
+import com.github.structlogging.annotation.LoggerContext;
+import com.github.structlogging.kafka.LoggingEventJsonSerializer;
+import com.github.structlogging.kafka.NonBlockingKafkaCallback;
+import org.apache.kafka.clients.producer.Callback;
+import org.apache.kafka.clients.producer.MockProducer;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.clients.producer.RecordMetadata;
+import org.apache.kafka.common.errors.TimeoutException;
+import org.apache.kafka.common.serialization.LongSerializer;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.Future;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+public class NonBlockingKafkaCallbackTest {
+
+    private MockProducer<Long, LoggingEvent> mockProducer;
+
+    private NonBlockingKafkaCallback<Long> callback;
+
+    @LoggerContext(context = TestContext.class)
+    private StructLogger<TestContext> testLogger;
+
+    @Before
+    public void setUp() {
+        mockProducer = new MockProducer<>(
+                false,
+                new LongSerializer(),
+                new LoggingEventJsonSerializer()
+        );
+        //initial estimate of record size is 512 bytes, so 4 records fill in-flight bytes
+        callback = NonBlockingKafkaCallback.keyedByTimestamp(mockProducer, 2048);
+        testLogger = new StructLogger<>(callback);
+    }
+
+    @Test
+    public void testEventsAreDroppedByLevel() {
+        for (int i = 0; i < 3; i++) {
+            testLogger.debug("debug event")
+                    .varInt(i)
+                    .log("NonBlockingEvent");
+        }
+
+        assertThat(callback.getSentEvents(), is(2L));
+        assertThat(callback.getDroppedEvents("DEBUG"), is(1L));
+
+        testLogger.info("info event")
+                .varInt(3)
+                .log("NonBlockingEvent");
+        testLogger.warn("warn event")
+                .varInt(4)
+                .log("NonBlockingEvent");
+        testLogger.error("error event")
+                .varInt(5)
+                .log("NonBlockingEvent");
+        testLogger.audit("audit event")
+                .varInt(6)
+                .log("NonBlockingEvent");
+
+        assertThat(callback.getSentEvents(), is(5L));
+        assertThat(callback.getDroppedEvents("WARN"), is(1L));
+        assertThat(callback.getDroppedEvents(), is(2L));
+        assertThat(callback.getInFlightBytes(), is(2560L));
+        assertThat(mockProducer.history().size(), is(5));
+    }
+
+    @Test
+    public void testDeliveryIsAccounted() {
+        for (int i = 0; i < 3; i++) {
+            testLogger.error("error event")
+                    .varInt(i)
+                    .log("NonBlockingEvent");
+        }
+
+        assertThat(mockProducer.completeNext(), is(true));
+        assertThat(mockProducer.errorNext(new TimeoutException("broker is slow")), is(true));
+
+        assertThat(callback.getAckedEvents(), is(1L));
+        assertThat(callback.getFailedEvents(), is(1L));
+        assertThat(callback.getInFlightBytes(), is(512L));
+        assertThat(callback.getSendLatency().getCount(), is(1L));
+
+        assertThat(mockProducer.completeNext(), is(true));
+
+        assertThat(callback.getAckedEvents(), is(2L));
+        assertThat(callback.getInFlightBytes(), is(0L));
+    }
+
+    @Test
+    public void testFailingSendDoesNotLeakInFlightBytes() {
+        callback = NonBlockingKafkaCallback.keyedByTimestamp(failingProducer(), 2048);
+        testLogger = new StructLogger<>(callback);
+
+        testLogger.info("info event")
+                .varInt(1)
+                .log("NonBlockingEvent");
+
+        assertThat(callback.getSentEvents(), is(0L));
+        assertThat(callback.getFailedEvents(), is(1L));
+        assertThat(callback.getInFlightBytes(), is(0L));
+    }
+
+    private static MockProducer<Long, LoggingEvent> failingProducer() {
+        return new MockProducer<Long, LoggingEvent>(true, new LongSerializer(), new LoggingEventJsonSerializer()) {
+            @Override
+            public synchronized Future<RecordMetadata> send(final ProducerRecord<Long, LoggingEvent> record, final Callback callback) {
+                throw new TimeoutException("failed to update metadata");
+            }
+        };
+    }
+}
@@ -0,0 +1,195 @@
+/**
+ * Copyright © 2018, Ondrej Benkovsky
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ *
+ * The views and conclusions contained in the software and documentation are those
+ * of the authors and should not be interpreted as representing official policies,
+ * either expressed or implied, of the FreeBSD Project.
+ */
+package com.github.structlogging;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.structlogging.annotation.LoggerContext;
+import com.github.structlogging.utils.JsonWriter;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+
+public class ReusableEventsTest {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private SnapshotLoggingCallback callback;
+
+    @LoggerContext(context = TestContext.class, reusableEvents = true)
+    private StructLogger<TestContext> logger;
+
+    @Before
+    public void setUp() {
+        callback = new SnapshotLoggingCallback();
+        logger = new StructLogger<>(callback);
+    }
+
+    @Test
+    public void shouldReuseEventInstance() {
+        for (int i = 0; i < 3; i++) {
+            logger.info("reusable event")
+                    .varInt(i)
+                    .varString("value" + i)
+                    .log("reusable.ReusableEvent");
+        }
+
+        assertThat(callback.delivered, hasSize(3));
+        assertThat(callback.delivered.get(1), is(sameInstance(callback.delivered.get(0))));
+        assertThat(callback.delivered.get(2), is(sameInstance(callback.delivered.get(0))));
+
+        for (int i = 0; i < 3; i++) {
+            final LoggingEvent snapshot = callback.snapshots.get(i);
+            assertThat(snapshot, is(not(sameInstance(callback.delivered.get(i)))));
+            assertThat(snapshot.getType(), is(equalTo("reusable.ReusableEvent")));
+            assertThat(snapshot.getContext().getMessage(), is(equalTo("reusable event")));
+            assertThat(callback.json.get(i), is(equalTo(jackson(snapshot))));
+            assertThat(callback.json.get(i).contains("\"varInt\":" + i + ",\"varString\":\"value" + i + "\""), is(true));
+        }
+        assertThat(callback.snapshots.get(0).getContext().getSid(), is(not(callback.snapshots.get(1).getContext().getSid())));
+    }
+
+    @Test
+    public void shouldUseNewInstanceWhenEventIsLoggedDuringDelivery() {
+        callback.onDelivery = this::logNestedEvent;
+
+        logger.info("outer event")
+                .varInt(1)
+                .varString("outer")
+                .log("reusable.ReusableEvent");
+
+        assertThat(callback.delivered, hasSize(2));
+        assertThat(callback.delivered.get(1), is(not(sameInstance(callback.delivered.get(0)))));
+        assertThat(callback.snapshots.get(0).getContext().getMessage(), is(equalTo("outer event")));
+        assertThat(callback.snapshots.get(1).getContext().getMessage(), is(equalTo("nested event")));
+    }
+
+    @Test
+    public void shouldKeepReusingEventAfterVariableThrows() {
+        try {
+            logger.info("event with throwing variable")
+                    .varInt(1)
+                    .varString(throwingValue())
+                    .log("reusable.ThrowingVariableEvent");
+        } catch (IllegalStateException e) {
+            //expected, variable of statement threw
+        }
+
+        for (int i = 0; i < 2; i++) {
+            logger.info("event with throwing variable")
+                    .varInt(i)
+                    .varString("value" + i)
+                    .log("reusable.ThrowingVariableEvent");
+        }
+
+        assertThat(callback.delivered, hasSize(2));
+        assertThat(callback.delivered.get(1), is(sameInstance(callback.delivered.get(0))));
+    }
+
+    private static String throwingValue() {
+        throw new IllegalStateException("variable cannot be evaluated");
+    }
+
+    private void logNestedEvent() {
+        logger.info("nested event")
+                .varInt(2)
+                .varString("nested")
+                .log("reusable.ReusableEvent");
+    }
+
+    private static String jackson(final LoggingEvent event) {
+        try {
+            return MAPPER.writeValueAsString(event);
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Callback keeping delivered instances, their snapshots and their JSON written during delivery
+     */
+    private static class SnapshotLoggingCallback implements LoggingCallback {
+
+        private final List<LoggingEvent> delivered = new ArrayList<>();
+        private final List<LoggingEvent> snapshots = new ArrayList<>();
+        private final List<String> json = new ArrayList<>();
+        private Runnable onDelivery;
+
+        @Override
+        public void info(final LoggingEvent e) {
+            delivered.add(e);
+            snapshots.add(e.snapshot());
+            final JsonWriter writer = JsonWriter.acquire();
+            try {
+                e.writeJson(writer);
+                json.add(writer.toString());
+            } finally {
+                writer.release();
+            }
+            final Runnable runnable = onDelivery;
+            onDelivery = null;
+            if (runnable != null) {
+                runnable.run();
+            }
+        }
+
+        @Override
+        public void warn(final LoggingEvent e) {
+            info(e);
+        }
+
+        @Override
+        public void debug(final LoggingEvent e) {
+            info(e);
+        }
+
+        @Override
+        public void error(final LoggingEvent e) {
+            info(e);
+        }
+
+        @Override
+        public void trace(final LoggingEvent e) {
+            info(e);
+        }
+
+        @Override
+        public void audit(final LoggingEvent e) {
+            info(e);
+        }
+    }
+}
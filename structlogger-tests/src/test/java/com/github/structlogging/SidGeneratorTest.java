@@ -0,0 +1,159 @@
+/**
+ * Copyright © 2018, Ondrej Benkovsky
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ *
+ * The views and conclusions contained in the software and documentation are those
+ * of the authors and should not be interpreted as representing official policies,
+ * either expressed or implied, of the FreeBSD Project.
+ */
+package com.github.structlogging;
+
+import com.github.structlogging.annotation.LoggerContext;
+import com.github.structlogging.utils.BlockSidGenerator;
+import com.github.structlogging.utils.SidCounter;
+import com.github.structlogging.utils.SidGenerator;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.is;
+
+public class SidGeneratorTest {
+
+    private static final int THREADS = 8;
+    private static final int SIDS_PER_THREAD = 10000;
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @LoggerContext(context = TestContext.class)
+    private StructLogger<TestContext> logger;
+
+    @Test
+    public void shouldGenerateUniqueIncreasingSidsInEachThread() throws Exception {
+        final BlockSidGenerator generator = new BlockSidGenerator(100);
+        final Set<Long> sids = ConcurrentHashMap.newKeySet();
+        final AtomicBoolean increasing = new AtomicBoolean(true);
+
+        final List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            final Thread thread = new Thread(() -> {
+                long last = 0;
+                for (int j = 0; j < SIDS_PER_THREAD; j++) {
+                    final long sid = generator.nextSid();
+                    if (sid <= last) {
+                        increasing.set(false);
+                    }
+                    last = sid;
+                    sids.add(sid);
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertThat(sids.size(), is(THREADS * SIDS_PER_THREAD));
+        assertThat(increasing.get(), is(true));
+    }
+
+    @Test
+    public void shouldPutNodeIdIntoHighestBits() {
+        final long epoch = System.currentTimeMillis() - 1000;
+        final long before = System.currentTimeMillis();
+        final long first = BlockSidGenerator.forNode(5, epoch, 10).nextSid();
+        final long after = System.currentTimeMillis();
+        final long otherNode = BlockSidGenerator.forNode(6, epoch, 10).nextSid();
+
+        assertThat(first >>> 53, is(5L));
+        assertThat(otherNode >>> 53, is(6L));
+        //counter part starts at microseconds since epoch
+        final long counter = first & ((1L << 53) - 1);
+        assertThat(counter >= (before - epoch) * 1000 && counter <= (after - epoch) * 1000, is(true));
+    }
+
+    @Test
+    public void shouldContinueAfterHighWaterMarkOfPreviousRun() throws Exception {
+        final Path highWaterMark = temporaryFolder.getRoot().toPath().resolve("node5.sid");
+        final BlockSidGenerator generator = BlockSidGenerator.forNode(5, highWaterMark, 10);
+        long last = 0;
+        //previous run hands out more sids than single reservation
+        for (int i = 0; i < 100_000; i++) {
+            last = Math.max(last, generator.nextSid());
+        }
+
+        //restart immediately, without any clock progress
+        final BlockSidGenerator restarted = BlockSidGenerator.forNode(5, highWaterMark, 10);
+        final long first = restarted.nextSid();
+
+        assertThat(first >>> 53, is(5L));
+        assertThat(first, is(greaterThan(last)));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectHighWaterMarkOfOtherNode() throws Exception {
+        final Path highWaterMark = temporaryFolder.getRoot().toPath().resolve("node6.sid");
+        BlockSidGenerator.forNode(6, highWaterMark, 10).nextSid();
+
+        BlockSidGenerator.forNode(7, highWaterMark, 10);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectTooBigNodeId() {
+        BlockSidGenerator.forNode(1024, 0, 10);
+    }
+
+    @Test
+    public void shouldUseGeneratorForEvents() {
+        final SidGenerator defaultGenerator = SidCounter.getGenerator();
+        SidCounter.setGenerator(new BlockSidGenerator(1000, 10));
+        try {
+            final ListLoggingCallback callback = new ListLoggingCallback();
+            logger = new StructLogger<>(callback);
+
+            final Set<Long> sids = new HashSet<>();
+            for (int i = 0; i < 3; i++) {
+                logger.info("sid event")
+                        .varInt(i)
+                        .log("sid.SidEvent");
+                sids.add(callback.getLoggingEventList().get(i).getContext().getSid());
+            }
+
+            assertThat(sids.contains(1000L) && sids.contains(1001L) && sids.contains(1002L), is(true));
+        } finally {
+            SidCounter.setGenerator(defaultGenerator);
+        }
+    }
+}
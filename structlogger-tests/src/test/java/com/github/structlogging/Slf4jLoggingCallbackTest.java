@@ -32,11 +32,21 @@ import com.github.structlogging.slf4j.Slf4jLoggingCallback;
 import com.github.structlogging.annotation.LoggerContext;
 import org.junit.Before;
 import org.junit.Test;
+import org.mockito.ArgumentCaptor;
 import org.slf4j.Logger;
+import org.slf4j.Marker;
 
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.mock;
-import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
+import static org.mockito.Mockito.when;
 
 public class Slf4jLoggingCallbackTest {
 
@@ -45,9 +55,18 @@ public class Slf4jLoggingCallbackTest {
     @LoggerContext(context = TestContext.class)
     private StructLogger<TestContext> structLogger;
 
+    private int evaluatedVariables;
+
     @Before
     public void setUp() {
         logger = mock(Logger.class);
+        when(logger.isInfoEnabled()).thenReturn(true);
+        when(logger.isWarnEnabled()).thenReturn(true);
+        when(logger.isErrorEnabled()).thenReturn(true);
+        when(logger.isDebugEnabled()).thenReturn(true);
+        when(logger.isTraceEnabled()).thenReturn(true);
+        when(logger.isInfoEnabled(any(Marker.class))).thenReturn(true);
+        evaluatedVariables = 0;
         structLogger = new StructLogger<>(
                 new Slf4jLoggingCallback(logger)
         );
@@ -91,6 +110,71 @@ public class Slf4jLoggingCallbackTest {
                 .varString("ahoj")
                 .log();
 
-        verify(logger, times(6));
+        verify(logger).info(anyString());
+        verify(logger).warn(anyString());
+        verify(logger).error(anyString());
+        verify(logger).debug(anyString());
+        verify(logger).trace(anyString());
+        verify(logger).info(any(Marker.class), anyString());
+    }
+
+    @Test
+    public void testDisabledLevelIsNotEvaluated() {
+        when(logger.isDebugEnabled()).thenReturn(false);
+
+        structLogger
+                .debug("test disabled level is not evaluated")
+                .varInt(evaluateVariable())
+                .varString("ahoj")
+                .log();
+
+        if (evaluatedVariables == 0)
+            structLogger
+                    .info("test statement without block")
+                    .varInt(evaluateVariable())
+                    .log();
+
+        assertThat(evaluatedVariables, is(1));
+        verify(logger, never()).debug(anyString());
+        verify(logger).info(anyString());
+    }
+
+    @Test
+    public void testDisabledLevelIsNotSerialized() {
+        when(logger.isTraceEnabled()).thenReturn(false);
+        when(logger.isInfoEnabled(any(Marker.class))).thenReturn(false);
+        final LoggingEvent event = mock(LoggingEvent.class);
+
+        final Slf4jLoggingCallback callback = new Slf4jLoggingCallback(logger);
+        callback.trace(event);
+        callback.audit(event);
+
+        verifyZeroInteractions(event);
+        verify(logger, never()).trace(anyString());
+        verify(logger, never()).info(any(Marker.class), anyString());
+    }
+
+    @Test
+    public void testLazySerialization() {
+        structLogger = new StructLogger<>(
+                new Slf4jLoggingCallback(logger, true)
+        );
+
+        structLogger
+                .info("test lazy serialization")
+                .varInt(42)
+                .log();
+
+        final ArgumentCaptor<Object> argument = ArgumentCaptor.forClass(Object.class);
+        verify(logger).info(eq("{}"), argument.capture());
+        final String json = argument.getValue().toString();
+        assertThat(json, containsString("\"message\":\"test lazy serialization\""));
+        assertThat(json, containsString("\"varInt\":42"));
+        assertThat(argument.getValue().toString(), is(json));
+        verify(logger, never()).info(anyString());
+    }
+
+    private int evaluateVariable() {
+        return ++evaluatedVariables;
     }
 }
@@ -0,0 +1,11 @@
+import com.github.structlogging.VariableContext;
+import com.github.structlogging.annotation.Var;
+import com.github.structlogging.annotation.VarContextProvider;
+
+@VarContextProvider
+public interface ContextWithForbiddenName5 extends VariableContext {
+
+    @Var
+    ContextWithForbiddenName5 timestampNanos(long timestampNanos);
+
+}
@@ -0,0 +1,20 @@
+import com.github.structlogging.VariableContext;
+import com.github.structlogging.annotation.Var;
+import com.github.structlogging.annotation.VarContextProvider;
+
+@VarContextProvider
+public interface ContextWithInternalNames extends VariableContext {
+
+    @Var
+    ContextWithInternalNames callSite(int callSite);
+
+    @Var
+    ContextWithInternalNames parametrizedMessage(boolean parametrizedMessage);
+
+    @Var
+    ContextWithInternalNames reusable(boolean reusable);
+
+    @Var
+    ContextWithInternalNames renderedMessage(String renderedMessage);
+
+}
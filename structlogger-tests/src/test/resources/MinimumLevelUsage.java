@@ -0,0 +1,36 @@
+import com.github.structlogging.DefaultContext;
+import com.github.structlogging.StructLogger;
+import com.github.structlogging.slf4j.Slf4jLoggingCallback;
+import com.github.structlogging.annotation.LoggerContext;
+import org.slf4j.LoggerFactory;
+
+public class MinimumLevelUsage {
+
+    @LoggerContext(context = DefaultContext.class)
+    private static StructLogger<DefaultContext> defaultLog = new StructLogger<>(
+            new Slf4jLoggingCallback(
+                    LoggerFactory.getLogger("com.github.structlogging.Default")
+            )
+    );
+
+    public static void main(String[] args) {
+        defaultLog.debug("Event with double={} and boolean={}")
+                .varDouble(1.2)
+                .varBoolean(false)
+                .log("elided.DebugEvent");
+
+        if (args.length > 0)
+            defaultLog.trace("Event with double={}")
+                    .varDouble(1.2)
+                    .log("elided.TraceEvent");
+
+        defaultLog.info("Event with double={} and boolean={}")
+                .varDouble(1.2)
+                .varBoolean(false)
+                .log("kept.InfoEvent");
+
+        defaultLog.audit("Event with boolean={}")
+                .varBoolean(true)
+                .log("kept.AuditEvent");
+    }
+}
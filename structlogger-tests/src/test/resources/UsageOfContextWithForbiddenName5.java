@@ -0,0 +1,26 @@
+import com.github.structlogging.DefaultContext;
+import com.github.structlogging.StructLogger;
+import com.github.structlogging.slf4j.Slf4jLoggingCallback;
+import com.github.structlogging.annotation.LoggerContext;
+import org.slf4j.LoggerFactory;
+
+public class UsageOfContextWithForbiddenName5 {
+
+    @LoggerContext(context = ContextWithForbiddenName5.class)
+    private static StructLogger<ContextWithForbiddenName5> defaultLog = new StructLogger<>(
+            new Slf4jLoggingCallback(
+                    LoggerFactory.getLogger("com.github.structlogging.Default")
+            )
+    );
+
+    public static void main(String[] args) {
+
+        defaultLog.info("Event with double and boolean")
+                .timestampNanos(1L)
+                .log("edu.TestEvent");
+    }
+
+    private static int someMethod() {
+        return 0;
+    }
+}
@@ -0,0 +1,52 @@
+import com.github.structlogging.StructLogger;
+import com.github.structlogging.slf4j.Slf4jLoggingCallback;
+import com.github.structlogging.annotation.LoggerContext;
+import org.slf4j.LoggerFactory;
+
+public class UsageOfContextWithInternalNames {
+
+    @LoggerContext(context = ContextWithInternalNames.class)
+    private static StructLogger<ContextWithInternalNames> defaultLog = new StructLogger<>(
+            new Slf4jLoggingCallback(
+                    LoggerFactory.getLogger("com.github.structlogging.Default")
+            )
+    );
+
+    @LoggerContext(context = ContextWithInternalNames.class, reusableEvents = true)
+    private static StructLogger<ContextWithInternalNames> reusableLog = new StructLogger<>(
+            new Slf4jLoggingCallback(
+                    LoggerFactory.getLogger("com.github.structlogging.Default")
+            )
+    );
+
+    @LoggerContext(context = ContextWithInternalNames.class, binaryFrames = true)
+    private static StructLogger<ContextWithInternalNames> binaryLog = new StructLogger<>(
+            new Slf4jLoggingCallback(
+                    LoggerFactory.getLogger("com.github.structlogging.Default")
+            )
+    );
+
+    public static void main(String[] args) {
+
+        defaultLog.info("Event with callSite={} and parametrizedMessage={}")
+                .callSite(1)
+                .parametrizedMessage(true)
+                .reusable(false)
+                .renderedMessage("rendered")
+                .log("edu.InternalNamesEvent");
+
+        reusableLog.info("Reusable event with callSite={} and parametrizedMessage={}")
+                .callSite(2)
+                .parametrizedMessage(true)
+                .reusable(true)
+                .renderedMessage("rendered")
+                .log("edu.ReusableInternalNamesEvent");
+
+        binaryLog.info("Binary event with callSite={} and parametrizedMessage={}")
+                .callSite(3)
+                .parametrizedMessage(false)
+                .reusable(false)
+                .renderedMessage("rendered")
+                .log("edu.BinaryInternalNamesEvent");
+    }
+}
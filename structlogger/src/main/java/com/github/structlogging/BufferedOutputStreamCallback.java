@@ -0,0 +1,238 @@
+/**
+ * Copyright © 2018, Ondrej Benkovsky
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ *
+ * The views and conclusions contained in the software and documentation are those
+ * of the authors and should not be interpreted as representing official policies,
+ * either expressed or implied, of the FreeBSD Project.
+ */
+package com.github.structlogging;
+
+import com.github.structlogging.serializer.EventSerializers;
+import com.github.structlogging.utils.JsonWriter;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.ref.WeakReference;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * LoggingCallback implementation which serializes LoggingEvent instances as JSONs same as {@link OutputStreamCallback},
+ * but collects them in buffer and writes them into provided outputstream in batches.
+ *
+ * Buffer is flushed when its size reaches flush size, when event of one of flush levels is logged (ERROR and AUDIT by default)
+ * and when flush interval elapsed since last flush, so that buffered events are written also when no more events are logged.
+ * Events are serialized on logging thread and only copied into buffer under lock.
+ *
+ * Buffer is discarded when outputstream fails to write it, because stream may have written part of it already and writing
+ * it again would duplicate events. Periodic flushing does not keep callback reachable, callback should be closed
+ * to write events, which are still buffered.
+ */
+public class BufferedOutputStreamCallback implements LoggingCallback, Flushable, Closeable {
+
+    private static final byte[] LINE_SEPARATOR = System.lineSeparator().getBytes(StandardCharsets.UTF_8);
+
+    private static final int DEFAULT_FLUSH_SIZE = 8192;
+    private static final long DEFAULT_FLUSH_INTERVAL_MILLIS = 1000;
+    private static final Set<String> DEFAULT_FLUSH_LEVELS = new HashSet<>(Arrays.asList("ERROR", "AUDIT"));
+
+    private final OutputStream outputStream;
+    private final int flushSize;
+    private final long flushIntervalNanos;
+    private final boolean flushInfo;
+    private final boolean flushWarn;
+    private final boolean flushDebug;
+    private final boolean flushError;
+    private final boolean flushTrace;
+    private final boolean flushAudit;
+
+    private final JsonWriter buffer = new JsonWriter();
+    private long lastFlush = System.nanoTime();
+    private final ScheduledExecutorService flusher;
+
+    /**
+     * Constructs callback with 8KB buffer, which is flushed at least every second and on ERROR and AUDIT events
+     * @param outputStream stream to write events to
+     */
+    public BufferedOutputStreamCallback(final OutputStream outputStream) {
+        this(outputStream, DEFAULT_FLUSH_SIZE, DEFAULT_FLUSH_INTERVAL_MILLIS, DEFAULT_FLUSH_LEVELS);
+    }
+
+    /**
+     * Constructs callback
+     * @param outputStream stream to write events to
+     * @param flushSize buffer is flushed when it contains at least flushSize bytes
+     * @param flushIntervalMillis maximal time events stay in buffer, when not positive, buffer is flushed only on size, level
+     *                            and by {@link #flush()}
+     * @param flushLevels names of levels, whose events are written immediately together with buffered events, e.g. ERROR
+     */
+    public BufferedOutputStreamCallback(final OutputStream outputStream,
+                                        final int flushSize,
+                                        final long flushIntervalMillis,
+                                        final Collection<String> flushLevels) {
+        this.outputStream = outputStream;
+        this.flushSize = flushSize;
+        this.flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(flushIntervalMillis);
+        this.flushInfo = flushLevels.contains("INFO");
+        this.flushWarn = flushLevels.contains("WARN");
+        this.flushDebug = flushLevels.contains("DEBUG");
+        this.flushError = flushLevels.contains("ERROR");
+        this.flushTrace = flushLevels.contains("TRACE");
+        this.flushAudit = flushLevels.contains("AUDIT");
+
+        if (flushIntervalMillis > 0) {
+            flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                final Thread thread = new Thread(runnable, "structlogger-flusher");
+                thread.setDaemon(true);
+                return thread;
+            });
+            flusher.scheduleWithFixedDelay(new PeriodicFlush(this, flusher), flushIntervalMillis, flushIntervalMillis, TimeUnit.MILLISECONDS);
+        }
+        else {
+            flusher = null;
+        }
+    }
+
+    @Override
+    public void info(final LoggingEvent e) {
+        write(e, flushInfo);
+    }
+
+    @Override
+    public void warn(final LoggingEvent e) {
+        write(e, flushWarn);
+    }
+
+    @Override
+    public void debug(final LoggingEvent e) {
+        write(e, flushDebug);
+    }
+
+    @Override
+    public void error(final LoggingEvent e) {
+        write(e, flushError);
+    }
+
+    @Override
+    public void trace(final LoggingEvent e) {
+        write(e, flushTrace);
+    }
+
+    @Override
+    public void audit(final LoggingEvent e) {
+        write(e, flushAudit);
+    }
+
+    /**
+     * writes buffered events into outputstream and flushes it, buffered events are discarded when they cannot be written
+     */
+    @Override
+    public synchronized void flush() {
+        try {
+            try {
+                buffer.writeTo(outputStream);
+            } finally {
+                //part of buffer may be already written, so it is not written again
+                buffer.reset();
+            }
+            outputStream.flush();
+            lastFlush = System.nanoTime();
+        } catch (IOException ex) {
+            throw new RuntimeException("unable to write events", ex);
+        }
+    }
+
+    /**
+     * stops periodic flushing and flushes buffered events, outputstream is not closed
+     */
+    @Override
+    public void close() {
+        if (flusher != null) {
+            flusher.shutdownNow();
+        }
+        flush();
+    }
+
+    private void write(final LoggingEvent e, final boolean flushLevel) {
+        final JsonWriter writer = JsonWriter.acquire();
+        try {
+            EventSerializers.serialize(e, writer);
+            writer.writeRaw(LINE_SEPARATOR);
+            append(writer, flushLevel);
+        } finally {
+            writer.release();
+        }
+    }
+
+    private synchronized void append(final JsonWriter writer, final boolean flushLevel) {
+        writer.writeTo(buffer);
+        if (flushLevel || buffer.size() >= flushSize) {
+            flush();
+        }
+    }
+
+    //called periodically by flusher thread
+    private synchronized void flushIfDue() {
+        if (buffer.size() > 0 && System.nanoTime() - lastFlush >= flushIntervalNanos) {
+            try {
+                flush();
+            } catch (RuntimeException ex) {
+                //there is no caller to report failure to, events of failed write are discarded
+            }
+        }
+    }
+
+    /**
+     * Task of flusher thread, which references callback weakly, so that callback, which was not closed, can be garbage collected
+     * together with its flusher thread
+     */
+    private static final class PeriodicFlush implements Runnable {
+
+        private final WeakReference<BufferedOutputStreamCallback> callback;
+        private final ScheduledExecutorService flusher;
+
+        private PeriodicFlush(final BufferedOutputStreamCallback callback, final ScheduledExecutorService flusher) {
+            this.callback = new WeakReference<>(callback);
+            this.flusher = flusher;
+        }
+
+        @Override
+        public void run() {
+            final BufferedOutputStreamCallback current = callback.get();
+            if (current == null) {
+                flusher.shutdown();
+                return;
+            }
+            current.flushIfDue();
+        }
+    }
+}
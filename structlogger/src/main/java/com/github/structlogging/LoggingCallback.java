@@ -28,8 +28,16 @@
  */
 package com.github.structlogging;
 
+import com.github.structlogging.utils.EventFrames;
+
+import java.nio.ByteBuffer;
+
 /**
  * Logging callback API
+ *
+ * Event passed to callback may be reusable and populated again after callback returns,
+ * so callback, which keeps event after it returns (e.g. asynchronous callback), must keep {@link LoggingEvent#snapshot()} of event
+ * or encode event before it returns
  */
 public interface LoggingCallback {
 
@@ -68,4 +76,82 @@ public interface LoggingCallback {
      * @param e event to log
      */
     void audit(LoggingEvent e);
+
+    /**
+     * whether INFO level of logging is enabled, structured log statements on this level are not evaluated at all when disabled
+     * @return true when events on INFO level should be logged
+     */
+    default boolean isInfoEnabled() {
+        return true;
+    }
+
+    /**
+     * whether WARN level of logging is enabled, structured log statements on this level are not evaluated at all when disabled
+     * @return true when events on WARN level should be logged
+     */
+    default boolean isWarnEnabled() {
+        return true;
+    }
+
+    /**
+     * whether DEBUG level of logging is enabled, structured log statements on this level are not evaluated at all when disabled
+     * @return true when events on DEBUG level should be logged
+     */
+    default boolean isDebugEnabled() {
+        return true;
+    }
+
+    /**
+     * whether ERROR level of logging is enabled, structured log statements on this level are not evaluated at all when disabled
+     * @return true when events on ERROR level should be logged
+     */
+    default boolean isErrorEnabled() {
+        return true;
+    }
+
+    /**
+     * whether TRACE level of logging is enabled, structured log statements on this level are not evaluated at all when disabled
+     * @return true when events on TRACE level should be logged
+     */
+    default boolean isTraceEnabled() {
+        return true;
+    }
+
+    /**
+     * whether logging of audit related events is enabled, structured audit statements are not evaluated at all when disabled
+     * @return true when audit events should be logged
+     */
+    default boolean isAuditEnabled() {
+        return true;
+    }
+
+    /**
+     * receives event encoded as binary frame (see {@link EventFrames}) by statement of logger with binary frames enabled,
+     * frame is valid only until method returns, callbacks can override this method to consume frames without decoding them,
+     * this implementation decodes frame and passes event to method of its level
+     * @param frame frame positioned at its beginning
+     */
+    default void frame(final ByteBuffer frame) {
+        final int level = EventFrames.level(frame);
+        final LoggingEvent e = EventFrames.decode(frame);
+        switch (level) {
+            case EventFrames.INFO:
+                info(e);
+                break;
+            case EventFrames.WARN:
+                warn(e);
+                break;
+            case EventFrames.DEBUG:
+                debug(e);
+                break;
+            case EventFrames.ERROR:
+                error(e);
+                break;
+            case EventFrames.TRACE:
+                trace(e);
+                break;
+            default:
+                audit(e);
+        }
+    }
 }
@@ -28,14 +28,46 @@
  */
 package com.github.structlogging;
 
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import com.github.structlogging.utils.AvroWriter;
+import com.github.structlogging.utils.EventTypes;
+import com.github.structlogging.utils.JsonWriter;
+
+import java.nio.charset.StandardCharsets;
+
 /**
  * All generated logging events should extend this class, this class contains common attributes of all logging events
  * All changes made to this class should be reflected in LogInvocationScanner and POJOService or you risk incorrect behaviour of processor
+ *
+ * Contextual attributes (message, sourceFile, lineNumber, sid, logLevel) are held directly by event, so that logging of event
+ * allocates single object, {@link LoggingEventContext} returned by {@link #getContext()} is only view of these attributes
+ *
+ * Events generated for loggers with {@link com.github.structlogging.annotation.LoggerContext#reusableEvents()} are reusable,
+ * such instance is taken from per-thread pool, populated by statement and given back to pool when callback returns,
+ * see {@link #snapshot()}
+ *
+ * Timestamp is serialized both in milliseconds (timestamp) and in nanoseconds (timestampNanos) since epoch,
+ * precision of nanoseconds depends on {@link com.github.structlogging.utils.EventClock} used when event was logged
  */
-public class LoggingEvent {
-    private final String type;
-    private final long timestamp;
-    private final LoggingEventContext context;
+@JsonPropertyOrder({"type", "timestamp", "timestampNanos", "context"})
+public class LoggingEvent implements Cloneable {
+    private static final long NANOS_PER_MILLI = 1_000_000;
+    private static final byte[] JSON_TIMESTAMP_NANOS = ",\"timestampNanos\":".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] JSON_CONTEXT_MESSAGE = ",\"context\":{\"message\":".getBytes(StandardCharsets.UTF_8);
+
+    private String type;
+    private long timestamp; //nanoseconds since epoch, getTimestamp() exposes milliseconds
+    private LoggingEventContext context; //view created on first getContext() call, field keeps position of context in JSON
+    private int callSite; //index of statement which created event among statements creating same event class, -1 when unknown
+    private String message; //message of event, or message pattern when parametrizedMessage is true
+    private String sourceFile;
+    private long lineNumber;
+    private long sid;
+    private String logLevel;
+    private boolean parametrizedMessage;
+    private String renderedMessage; //rendered lazily from message pattern
+    private final boolean reusable; //instance is populated repeatedly, so it is valid only until it is released
+    private boolean inUse; //reusable instance is being logged
 
     public LoggingEvent(final String message,
                         final String sourceFile,
@@ -44,20 +76,340 @@ public class LoggingEvent {
                         final long sid,
                         final String logLevel,
                         final long timestamp) {
+        this(message, sourceFile, lineNumber, type, sid, logLevel, timestamp, false);
+    }
+
+    /**
+     * @param message message of event, or message pattern with placeholders {} when parametrizedMessage is true
+     * @param parametrizedMessage whether message is pattern, which is rendered lazily by {@link #formatMessage(String, StringBuilder)}
+     *                            when message is requested for the first time
+     */
+    public LoggingEvent(final String message,
+                        final String sourceFile,
+                        final long lineNumber,
+                        final String type,
+                        final long sid,
+                        final String logLevel,
+                        final long timestamp,
+                        final boolean parametrizedMessage) {
+        this(message, sourceFile, lineNumber, type, sid, logLevel, timestamp * NANOS_PER_MILLI, parametrizedMessage, -1);
+    }
+
+    /**
+     * constructor of generated events, use {@link #withTimestampNanos(String, String, long, String, long, String, long)}
+     * to create event with timestamp in nanoseconds
+     * @param timestampNanos timestamp in nanoseconds since epoch, unlike timestamp of public constructors, which is in milliseconds
+     * @param callSite index of statement, which created this event, used by generated events to look up
+     *                 pre-encoded JSON of sourceFile, lineNumber and logLevel, -1 when unknown, generated events pass -1
+     *                 when statement does not match constants of call site with this index
+     */
+    protected LoggingEvent(final String message,
+                           final String sourceFile,
+                           final long lineNumber,
+                           final String type,
+                           final long sid,
+                           final String logLevel,
+                           final long timestampNanos,
+                           final boolean parametrizedMessage,
+                           final int callSite) {
         this.type = type;
-        this.timestamp = timestamp;
-        this.context = new LoggingEventContext(message, sourceFile, lineNumber, sid, logLevel);
+        this.timestamp = timestampNanos;
+        this.callSite = callSite;
+        this.message = message;
+        this.sourceFile = sourceFile;
+        this.lineNumber = lineNumber;
+        this.sid = sid;
+        this.logLevel = logLevel;
+        this.parametrizedMessage = parametrizedMessage;
+        this.reusable = false;
+    }
+
+    /**
+     * creates reusable event, which is populated by {@link #populateHeader(String, String, long, String, long, String, long, boolean, int)}
+     * each time it is logged, used by per-thread pools of generated events
+     */
+    protected LoggingEvent() {
+        this.callSite = -1;
+        this.reusable = true;
+    }
+
+    /**
+     * creates event with timestamp in nanoseconds since epoch, constructors take timestamp in milliseconds
+     * @param timestampNanos timestamp in nanoseconds since epoch
+     * @return event with given attributes
+     */
+    public static LoggingEvent withTimestampNanos(final String message,
+                                                  final String sourceFile,
+                                                  final long lineNumber,
+                                                  final String type,
+                                                  final long sid,
+                                                  final String logLevel,
+                                                  final long timestampNanos) {
+        return new LoggingEvent(message, sourceFile, lineNumber, type, sid, logLevel, timestampNanos, false, -1);
     }
 
     public String getType() {
         return type;
     }
 
+    /**
+     * @return timestamp in milliseconds since epoch
+     */
     public long getTimestamp() {
+        return timestamp / NANOS_PER_MILLI;
+    }
+
+    /**
+     * @return timestamp in nanoseconds since epoch, its precision depends on {@link com.github.structlogging.utils.EventClock}
+     *         used when event was logged
+     */
+    public long getTimestampNanos() {
         return timestamp;
     }
 
+    /**
+     * @return dense id of event type assigned by {@link EventTypes}, generated events return their TYPE_ID constant,
+     *         id of other events is looked up by type name without registering it, so it is {@link EventTypes#UNKNOWN}
+     *         unless generated event of same type is registered
+     */
+    public int typeId() {
+        return EventTypes.find(type);
+    }
+
     public LoggingEventContext getContext() {
-        return context;
+        LoggingEventContext result = context;
+        if (result == null) {
+            result = new LoggingEventContext(this);
+            context = result; //benign race, view has no state of its own
+        }
+        return result;
+    }
+
+    /**
+     * @return event, which stays valid after callback returns, reusable event is copied, other events are returned as they are,
+     *         callbacks keeping events after they return (e.g. asynchronous callbacks) must keep snapshot of event
+     */
+    public LoggingEvent snapshot() {
+        if (!reusable) {
+            return this;
+        }
+        try {
+            final LoggingEvent copy = (LoggingEvent) super.clone();
+            copy.context = null;
+            copy.inUse = false;
+            return copy;
+        } catch (CloneNotSupportedException e) {
+            throw new RuntimeException("unable to copy event", e);
+        }
+    }
+
+    /**
+     * sets common attributes of reusable event, see {@link #LoggingEvent(String, String, long, String, long, String, long, boolean, int)}
+     */
+    protected final void populateHeader(final String message,
+                                        final String sourceFile,
+                                        final long lineNumber,
+                                        final String type,
+                                        final long sid,
+                                        final String logLevel,
+                                        final long timestampNanos,
+                                        final boolean parametrizedMessage,
+                                        final int callSite) {
+        this.type = type;
+        this.timestamp = timestampNanos;
+        this.callSite = callSite;
+        this.message = message;
+        this.sourceFile = sourceFile;
+        this.lineNumber = lineNumber;
+        this.sid = sid;
+        this.logLevel = logLevel;
+        this.parametrizedMessage = parametrizedMessage;
+        this.renderedMessage = null;
+    }
+
+    /**
+     * marks pooled reusable event as being logged
+     * @return false when event is already being logged, e.g. when event of same class is logged by callback on same thread
+     */
+    protected final boolean tryAcquire() {
+        if (inUse) {
+            return false;
+        }
+        inUse = true;
+        return true;
+    }
+
+    /**
+     * gives reusable event back to its pool, called by {@link StructLogger} when callback returns
+     */
+    void release() {
+        if (reusable) {
+            inUse = false;
+        }
+    }
+
+    /**
+     * renders message pattern into builder, generated events with variables override this method
+     * to replace placeholders {} with values of their variables
+     * @param messagePattern pattern with placeholders {}
+     * @param builder to append rendered message to
+     */
+    protected void formatMessage(final String messagePattern, final StringBuilder builder) {
+        builder.append(messagePattern);
+    }
+
+    /**
+     * @return message of event, parametrized message is rendered on first call and cached
+     */
+    String message() {
+        if (!parametrizedMessage) {
+            return message;
+        }
+        String result = renderedMessage;
+        if (result == null) {
+            final StringBuilder builder = new StringBuilder(message.length() + 16);
+            formatMessage(message, builder);
+            result = builder.toString();
+            renderedMessage = result; //benign race, String is immutable and rendering is idempotent
+        }
+        return result;
+    }
+
+    /**
+     * appends message of event to builder, without creating String of message when it was not yet rendered
+     * @param builder to append message to
+     */
+    void appendMessage(final StringBuilder builder) {
+        final String result = renderedMessage;
+        if (parametrizedMessage && result == null) {
+            formatMessage(message, builder);
+        }
+        else {
+            builder.append(parametrizedMessage ? result : message);
+        }
+    }
+
+    /**
+     * @return index of statement, which created this event, -1 when unknown
+     */
+    protected final int callSite() {
+        return callSite;
+    }
+
+    String sourceFile() {
+        return sourceFile;
+    }
+
+    long lineNumber() {
+        return lineNumber;
+    }
+
+    /**
+     * @return sid of event, same as {@link LoggingEventContext#getSid()} without creating context view
+     */
+    public long sid() {
+        return sid;
+    }
+
+    String logLevel() {
+        return logLevel;
+    }
+
+    /**
+     * writes this event as JSON object, generated events override this method to write their variables directly,
+     * this implementation falls back to Jackson bean serialization
+     * @param writer to write JSON to
+     */
+    public void writeJson(final JsonWriter writer) {
+        writer.writeObject(this);
+    }
+
+    /**
+     * writes type, timestamp and context fields of event, should be called by {@link #writeJson(JsonWriter)} overrides
+     * right after start of JSON object
+     * @param writer to write JSON to
+     */
+    protected final void writeJsonHeader(final JsonWriter writer) {
+        writer.writeField("type", type);
+        writer.writeField("timestamp", getTimestamp());
+        writer.writeField("timestampNanos", timestamp);
+        writer.writeFieldName("context");
+        writer.writeStartObject();
+        writer.writeFieldName("message");
+        writeJsonMessage(writer);
+        writer.writeField("sourceFile", sourceFile);
+        writer.writeField("lineNumber", lineNumber);
+        writer.writeField("sid", sid);
+        writer.writeField("logLevel", logLevel);
+        writer.writeEndObject();
+    }
+
+    /**
+     * starts JSON object and writes type, timestamp and context fields of event using pre-encoded constant fragments,
+     * only timestamps, message and sid are encoded, falls back to {@link #writeJsonHeader(JsonWriter)} when call site of event is unknown
+     * @param writer to write JSON to
+     * @param typeFragment <code>{"type":"...","timestamp":</code>
+     * @param locationFragments <code>,"sourceFile":"...","lineNumber":...,"sid":</code> for each call site
+     * @param logLevelFragments <code>,"logLevel":"..."}</code> for each call site
+     */
+    protected final void writeJsonHeader(final JsonWriter writer,
+                                         final byte[] typeFragment,
+                                         final byte[][] locationFragments,
+                                         final byte[][] logLevelFragments) {
+        if (callSite < 0 || callSite >= locationFragments.length) {
+            writer.writeStartObject();
+            writeJsonHeader(writer);
+            return;
+        }
+        writer.writeRaw(typeFragment);
+        writer.writeValue(getTimestamp());
+        writer.writeRaw(JSON_TIMESTAMP_NANOS);
+        writer.writeValue(timestamp);
+        writer.writeRaw(JSON_CONTEXT_MESSAGE);
+        writeJsonMessage(writer);
+        writer.writeRaw(locationFragments[callSite]);
+        writer.writeValue(sid);
+        writer.writeRaw(logLevelFragments[callSite]);
+    }
+
+    /**
+     * writes this event in Avro binary encoding according to its generated Avro schema, generated events override this method
+     * @param writer to write to
+     * @throws UnsupportedOperationException when event is not generated
+     */
+    public void writeAvro(final AvroWriter writer) {
+        throw new UnsupportedOperationException("event " + getClass().getName() + " has no Avro schema");
+    }
+
+    /**
+     * writes type, timestamp and context fields of event in Avro binary encoding, should be called by {@link #writeAvro(AvroWriter)} overrides
+     * before variables of event
+     * @param writer to write to
+     */
+    protected final void writeAvroHeader(final AvroWriter writer) {
+        writer.writeString(type);
+        writer.writeLong(getTimestamp());
+        writer.writeLong(timestamp);
+        if (writer.writeUnionIndex(message != null)) {
+            final StringBuilder builder = writer.charBuffer();
+            appendMessage(builder);
+            writer.writeString(builder);
+        }
+        writer.writeString(sourceFile);
+        writer.writeLong(lineNumber);
+        writer.writeLong(sid);
+        writer.writeString(logLevel);
+    }
+
+    //writes message as JSON string value, message is rendered directly into writer
+    private void writeJsonMessage(final JsonWriter writer) {
+        if (message == null) {
+            writer.writeString(null);
+        }
+        else {
+            final StringBuilder builder = writer.charBuffer();
+            appendMessage(builder);
+            writer.writeString(builder);
+        }
     }
 }
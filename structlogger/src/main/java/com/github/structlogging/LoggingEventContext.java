@@ -28,46 +28,56 @@
  */
 package com.github.structlogging;
 
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+
 /**
- * Contextual information about LoggingEvent
+ * Contextual information about LoggingEvent, view of contextual attributes held by event
  */
+@JsonPropertyOrder({"message", "sourceFile", "lineNumber", "sid", "logLevel"})
 public class LoggingEventContext {
 
-    private final String message;
-    private final String sourceFile;
-    private final long lineNumber;
-    private final long sid;
-    private final String logLevel;
+    private final LoggingEvent event;
 
     public LoggingEventContext(final String message,
                                final String sourceFile,
                                final long lineNumber,
                                final long sid,
                                final String logLevel) {
-        this.message = message;
-        this.sourceFile = sourceFile;
-        this.lineNumber = lineNumber;
-        this.sid = sid;
-        this.logLevel = logLevel;
+        this(new LoggingEvent(message, sourceFile, lineNumber, null, sid, logLevel, 0));
+    }
+
+    LoggingEventContext(final LoggingEvent event) {
+        this.event = event;
     }
 
+    /**
+     * @return message of event, parametrized message is rendered on first call and cached
+     */
     public String getMessage() {
-        return message;
+        return event.message();
+    }
+
+    /**
+     * appends message of event to builder, without creating String of message when it was not yet rendered
+     * @param builder to append message to
+     */
+    public void appendMessage(final StringBuilder builder) {
+        event.appendMessage(builder);
     }
 
     public String getSourceFile() {
-        return sourceFile;
+        return event.sourceFile();
     }
 
     public long getLineNumber() {
-        return lineNumber;
+        return event.lineNumber();
     }
 
     public long getSid() {
-        return sid;
+        return event.sid();
     }
 
     public String getLogLevel() {
-        return logLevel;
+        return event.logLevel();
     }
 }
@@ -0,0 +1,254 @@
+/**
+ * Copyright © 2018, Ondrej Benkovsky
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ *
+ * The views and conclusions contained in the software and documentation are those
+ * of the authors and should not be interpreted as representing official policies,
+ * either expressed or implied, of the FreeBSD Project.
+ */
+package com.github.structlogging;
+
+import com.github.structlogging.serializer.EventSerializers;
+import com.github.structlogging.utils.JsonWriter;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * LoggingCallback implementation which serializes LoggingEvent instances as JSONs same as {@link OutputStreamCallback}
+ * and appends them into memory mapped segment files, so that events are written without system call per event
+ * and operating system writes them to disk from its page cache.
+ *
+ * Segment files are named by base path followed by index of segment, e.g. events.log.0, events.log.1,...
+ * Each segment is preallocated to segment size and mapped, when event does not fit into rest of segment, segment is
+ * unmapped, truncated to its written size and next segment is created. Last segment is truncated when callback is closed.
+ * Segment is unmapped explicitly, because file with live mapping cannot be truncated on Windows and mapped pages would
+ * otherwise stay allocated until buffer is garbage collected. When JVM does not allow unmapping, segment is left
+ * at its preallocated size and its written events are followed by zero bytes.
+ * Existing files are never overwritten, segment index is skipped when its file already exists, so that callback created
+ * after restart continues after segments of previous run.
+ *
+ * When segment cannot be created, callback fails and all following events are rejected by exception.
+ */
+public class MappedFileCallback implements LoggingCallback, Flushable, Closeable {
+
+    private static final byte[] LINE_SEPARATOR = System.lineSeparator().getBytes(StandardCharsets.UTF_8);
+
+    private final String basePath;
+    private final int segmentSize;
+
+    private final int firstSegmentIndex;
+    private int segmentIndex;
+    private FileChannel segmentFile;
+    private MappedByteBuffer segment;
+    private boolean closed;
+    private IOException failure; //cause of failure, when segment could not be created
+
+    /**
+     * Constructs callback and creates its first segment
+     * @param basePath path of segment files without segment index
+     * @param segmentSize size of segment file in bytes
+     * @throws IOException when first segment cannot be created
+     */
+    public MappedFileCallback(final Path basePath, final int segmentSize) throws IOException {
+        this.basePath = basePath.toString();
+        this.segmentSize = segmentSize;
+        openSegment(segmentSize);
+        this.firstSegmentIndex = segmentIndex;
+    }
+
+    @Override
+    public void info(final LoggingEvent e) {
+        write(e);
+    }
+
+    @Override
+    public void warn(final LoggingEvent e) {
+        write(e);
+    }
+
+    @Override
+    public void debug(final LoggingEvent e) {
+        write(e);
+    }
+
+    @Override
+    public void error(final LoggingEvent e) {
+        write(e);
+    }
+
+    @Override
+    public void trace(final LoggingEvent e) {
+        write(e);
+    }
+
+    @Override
+    public void audit(final LoggingEvent e) {
+        write(e);
+    }
+
+    /**
+     * @param index index of segment
+     * @return path of segment file
+     */
+    public Path getSegmentPath(final int index) {
+        return Paths.get(basePath + "." + index);
+    }
+
+    /**
+     * @return index of first segment created by this callback, segments with lower index were already present
+     */
+    public int getFirstSegmentIndex() {
+        return firstSegmentIndex;
+    }
+
+    /**
+     * @return index of segment, into which events are written
+     */
+    public synchronized int getSegmentIndex() {
+        return segmentIndex;
+    }
+
+    /**
+     * forces written events of current segment to disk
+     */
+    @Override
+    public synchronized void flush() {
+        if (segment != null) {
+            segment.force();
+        }
+    }
+
+    /**
+     * truncates current segment to its written size and closes it, events logged after close are ignored
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (!closed) {
+            closed = true;
+            if (segment != null) {
+                closeSegment();
+            }
+        }
+    }
+
+    private void write(final LoggingEvent e) {
+        final JsonWriter writer = JsonWriter.acquire();
+        try {
+            EventSerializers.serialize(e, writer);
+            writer.writeRaw(LINE_SEPARATOR);
+            append(writer);
+        } catch (IOException ex) {
+            throw new RuntimeException("unable to write event", ex);
+        } finally {
+            writer.release();
+        }
+    }
+
+    private synchronized void append(final JsonWriter writer) throws IOException {
+        if (closed) {
+            return;
+        }
+        if (failure != null) {
+            throw new IOException("segment " + segmentIndex + " could not be created", failure);
+        }
+        if (segment.remaining() < writer.size()) {
+            try {
+                closeSegment();
+                segmentIndex++;
+                //event bigger than segment gets segment of its own size
+                openSegment(Math.max(segmentSize, writer.size()));
+            } catch (IOException ex) {
+                failure = ex;
+                throw ex;
+            }
+        }
+        writer.writeTo(segment);
+    }
+
+    //creates segment file with first free index starting from current index, existing files are skipped
+    private void openSegment(final int size) throws IOException {
+        while (true) {
+            try {
+                segmentFile = FileChannel.open(getSegmentPath(segmentIndex), StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+                break;
+            } catch (FileAlreadyExistsException ex) {
+                segmentIndex++;
+            }
+        }
+        try {
+            //mapping extends file to size of segment
+            segment = segmentFile.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        } catch (IOException ex) {
+            segmentFile.close();
+            throw ex;
+        }
+    }
+
+    private void closeSegment() throws IOException {
+        final int written = segment.position();
+        final boolean unmapped = unmap(segment);
+        segment = null;
+        try {
+            if (unmapped) {
+                segmentFile.truncate(written);
+            }
+        } finally {
+            segmentFile.close();
+        }
+    }
+
+    //releases mapping of buffer, buffer must not be used afterwards, returns false when JVM does not allow it
+    private static boolean unmap(final MappedByteBuffer buffer) {
+        try {
+            final Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            try {
+                //Java 9 and later
+                final Method invokeCleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+                final Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+                theUnsafe.setAccessible(true);
+                invokeCleaner.invoke(theUnsafe.get(null), buffer);
+            } catch (NoSuchMethodException e) {
+                //Java 8
+                final Method cleanerMethod = buffer.getClass().getMethod("cleaner");
+                cleanerMethod.setAccessible(true);
+                final Object cleaner = cleanerMethod.invoke(buffer);
+                cleaner.getClass().getMethod("clean").invoke(cleaner);
+            }
+            return true;
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return false;
+        }
+    }
+}
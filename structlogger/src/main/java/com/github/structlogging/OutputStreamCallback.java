@@ -28,23 +28,35 @@
  */
 package com.github.structlogging;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.structlogging.serializer.EventSerializer;
+import com.github.structlogging.serializer.EventSerializers;
+import com.github.structlogging.utils.JsonWriter;
 
 import java.io.IOException;
 import java.io.OutputStream;
 
 /**
  * LoggingCallback implementation which serializes LoggingEvent instances as JSONs and writes them into provided outputstream,
- * each json is ended with newline
+ * each json is encoded in UTF-8 and ended with newline, other formats (e.g. CBOR or Smile) can be written using provided {@link EventSerializer}
  */
 public class OutputStreamCallback implements LoggingCallback {
 
-    private static final ObjectMapper MAPPER = new ObjectMapper();
-
     private final OutputStream outputStream;
+    private final EventSerializer serializer;
+    private final byte[] recordSeparator;
 
     public OutputStreamCallback(final OutputStream outputStream) {
+        this(outputStream, EventSerializers.REGISTERED);
+    }
+
+    /**
+     * @param outputStream to write events into
+     * @param serializer used to encode events, each event is followed by {@link EventSerializer#recordSeparator()}
+     */
+    public OutputStreamCallback(final OutputStream outputStream, final EventSerializer serializer) {
         this.outputStream = outputStream;
+        this.serializer = serializer;
+        this.recordSeparator = serializer.recordSeparator();
     }
 
     @Override
@@ -78,10 +90,15 @@ public class OutputStreamCallback implements LoggingCallback {
     }
 
     private void writeToOutputStream(final LoggingEvent e) {
+        final JsonWriter writer = JsonWriter.acquire();
         try {
-            outputStream.write((MAPPER.writeValueAsString(e) + System.lineSeparator()).getBytes());
+            serializer.serialize(e, writer);
+            writer.writeRaw(recordSeparator);
+            writer.writeTo(outputStream);
         } catch (IOException ex) {
             throw new RuntimeException("unable to serialize event", ex);
+        } finally {
+            writer.release();
         }
     }
 }
@@ -28,8 +28,15 @@
  */
 package com.github.structlogging;
 
+import com.github.structlogging.utils.EventFrames;
+
+import java.nio.ByteBuffer;
+
 /**
  * Main class providing structured logging, parametrized by interface extending {@link VariableContext} class
+ *
+ * Reusable events (see {@link com.github.structlogging.annotation.LoggerContext#reusableEvents()}) are released
+ * when callback returns
  */
 public final class StructLogger<T extends VariableContext> {
 
@@ -105,7 +112,11 @@ public final class StructLogger<T extends VariableContext> {
      * @param e event to log
      */
     public void infoEvent(final LoggingEvent e) {
-        callback.info(e);
+        try {
+            callback.info(e);
+        } finally {
+            e.release();
+        }
     }
 
     /**
@@ -113,7 +124,11 @@ public final class StructLogger<T extends VariableContext> {
      * @param e event to log
      */
     public void debugEvent(final LoggingEvent e) {
-        callback.debug(e);
+        try {
+            callback.debug(e);
+        } finally {
+            e.release();
+        }
     }
 
     /**
@@ -121,7 +136,11 @@ public final class StructLogger<T extends VariableContext> {
      * @param e event to log
      */
     public void errorEvent(final LoggingEvent e) {
-        callback.error(e);
+        try {
+            callback.error(e);
+        } finally {
+            e.release();
+        }
     }
 
     /**
@@ -129,7 +148,11 @@ public final class StructLogger<T extends VariableContext> {
      * @param e event to log
      */
     public void warnEvent(final LoggingEvent e) {
-        callback.warn(e);
+        try {
+            callback.warn(e);
+        } finally {
+            e.release();
+        }
     }
 
     /**
@@ -137,7 +160,11 @@ public final class StructLogger<T extends VariableContext> {
      * @param e event to log
      */
     public void traceEvent(final LoggingEvent e) {
-        callback.trace(e);
+        try {
+            callback.trace(e);
+        } finally {
+            e.release();
+        }
     }
 
     /**
@@ -145,6 +172,64 @@ public final class StructLogger<T extends VariableContext> {
      * @param e event to log
      */
     public void auditEvent(final LoggingEvent e) {
-        callback.audit(e);
+        try {
+            callback.audit(e);
+        } finally {
+            e.release();
+        }
+    }
+
+    /**
+     * log event encoded as binary frame, level of event is part of frame
+     * @param frame frame written by generated event class, buffer of frame is reused when callback returns
+     */
+    public void logFrame(final ByteBuffer frame) {
+        try {
+            callback.frame(frame);
+        } finally {
+            EventFrames.release(frame);
+        }
+    }
+
+    /**
+     * @return whether info level is enabled, structured log statements are guarded by this check
+     */
+    public boolean isInfoEnabled() {
+        return callback.isInfoEnabled();
+    }
+
+    /**
+     * @return whether debug level is enabled, structured log statements are guarded by this check
+     */
+    public boolean isDebugEnabled() {
+        return callback.isDebugEnabled();
+    }
+
+    /**
+     * @return whether error level is enabled, structured log statements are guarded by this check
+     */
+    public boolean isErrorEnabled() {
+        return callback.isErrorEnabled();
+    }
+
+    /**
+     * @return whether warn level is enabled, structured log statements are guarded by this check
+     */
+    public boolean isWarnEnabled() {
+        return callback.isWarnEnabled();
+    }
+
+    /**
+     * @return whether trace level is enabled, structured log statements are guarded by this check
+     */
+    public boolean isTraceEnabled() {
+        return callback.isTraceEnabled();
+    }
+
+    /**
+     * @return whether audit events are enabled, structured audit statements are guarded by this check
+     */
+    public boolean isAuditEnabled() {
+        return callback.isAuditEnabled();
     }
 }
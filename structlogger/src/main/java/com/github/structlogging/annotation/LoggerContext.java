@@ -52,4 +52,12 @@ import java.lang.annotation.Target;
 @Target(value = {ElementType.FIELD})
 public @interface LoggerContext {
     Class context();
+
+    //whether statements of logger take events from per-thread pool and populate them instead of creating new events,
+    //set true for garbage-free logging, events are then valid only until callback returns
+    boolean reusableEvents() default false;
+
+    //whether statements of logger write events as binary frames into per-thread buffer instead of creating events,
+    //used for statements whose variables are primitives or Strings, see LoggingCallback.frame
+    boolean binaryFrames() default false;
 }
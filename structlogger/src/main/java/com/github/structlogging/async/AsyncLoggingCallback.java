@@ -0,0 +1,327 @@
+/**
+ * Copyright © 2018, Ondrej Benkovsky
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ *
+ * The views and conclusions contained in the software and documentation are those
+ * of the authors and should not be interpreted as representing official policies,
+ * either expressed or implied, of the FreeBSD Project.
+ */
+package com.github.structlogging.async;
+
+import com.github.structlogging.LoggingCallback;
+import com.github.structlogging.LoggingEvent;
+import com.github.structlogging.utils.EventFrames;
+
+import java.io.Closeable;
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Callback, which hands events over to consumer thread through preallocated ring buffer, consumer thread passes them to
+ * wrapped callback, so that serialization and I/O of wrapped callback does not happen on logging thread.
+ *
+ * Logging thread claims slot of ring buffer by CAS of producer sequence, stores snapshot of event (or copy of binary frame)
+ * into slot and publishes it, consumer thread delivers events in order of claimed slots. Wrapped callback is called only
+ * by consumer thread, so it does not have to be thread-safe. Errors thrown by wrapped callback are counted as failed events
+ * and do not stop consumer thread.
+ */
+public class AsyncLoggingCallback implements LoggingCallback, Closeable {
+
+    private static final int DEFAULT_BUFFER_SIZE = 8192;
+    private static final int INITIAL_FRAME_CAPACITY = 256;
+    //producer sequence is set to this value when consumer thread stops, so that no slot can be claimed afterwards
+    private static final long CLOSED = Long.MAX_VALUE;
+
+    private final LoggingCallback callback;
+    private final WaitStrategy waitStrategy;
+    private final FullBufferPolicy fullBufferPolicy;
+
+    private final Slot[] slots;
+    private final int mask;
+    //sequence of slot is stored here, when slot is published
+    private final AtomicLongArray published;
+    //count of claimed slots
+    private final AtomicLong producerSequence = new AtomicLong();
+    //count of slots delivered by consumer thread
+    private final AtomicLong consumerSequence = new AtomicLong();
+
+    private final AtomicLong droppedEvents = new AtomicLong();
+    private final AtomicLong failedEvents = new AtomicLong();
+
+    private final Thread consumer;
+    private volatile boolean running = true;
+
+    /**
+     * Constructs callback with ring buffer of 8192 slots, consumer thread parks, when there are no events,
+     * and logging threads wait, when ring buffer is full
+     * @param callback callback to which events are passed by consumer thread
+     */
+    public AsyncLoggingCallback(final LoggingCallback callback) {
+        this(callback, DEFAULT_BUFFER_SIZE, WaitStrategy.PARK, FullBufferPolicy.WAIT);
+    }
+
+    /**
+     * Constructs callback and starts its consumer thread
+     * @param callback callback to which events are passed by consumer thread
+     * @param bufferSize count of slots of ring buffer, must be power of two
+     * @param waitStrategy how consumer thread waits for events and logging threads wait for free slot
+     * @param fullBufferPolicy what is done with event, when ring buffer is full
+     */
+    public AsyncLoggingCallback(final LoggingCallback callback,
+                                final int bufferSize,
+                                final WaitStrategy waitStrategy,
+                                final FullBufferPolicy fullBufferPolicy) {
+        if (bufferSize <= 0 || Integer.bitCount(bufferSize) != 1) {
+            throw new IllegalArgumentException("bufferSize must be power of two");
+        }
+        this.callback = callback;
+        this.waitStrategy = waitStrategy;
+        this.fullBufferPolicy = fullBufferPolicy;
+        this.slots = new Slot[bufferSize];
+        for (int i = 0; i < bufferSize; i++) {
+            slots[i] = new Slot();
+        }
+        this.mask = bufferSize - 1;
+        this.published = new AtomicLongArray(bufferSize);
+        for (int i = 0; i < bufferSize; i++) {
+            published.set(i, -1);
+        }
+
+        this.consumer = new Thread(this::consume, "structlogger-async");
+        consumer.setDaemon(true);
+        consumer.start();
+    }
+
+    @Override
+    public void info(final LoggingEvent e) {
+        enqueue(EventFrames.INFO, e);
+    }
+
+    @Override
+    public void warn(final LoggingEvent e) {
+        enqueue(EventFrames.WARN, e);
+    }
+
+    @Override
+    public void debug(final LoggingEvent e) {
+        enqueue(EventFrames.DEBUG, e);
+    }
+
+    @Override
+    public void error(final LoggingEvent e) {
+        enqueue(EventFrames.ERROR, e);
+    }
+
+    @Override
+    public void trace(final LoggingEvent e) {
+        enqueue(EventFrames.TRACE, e);
+    }
+
+    @Override
+    public void audit(final LoggingEvent e) {
+        enqueue(EventFrames.AUDIT, e);
+    }
+
+    /**
+     * copies frame into slot, so that frames are handed over without creating events
+     */
+    @Override
+    public void frame(final ByteBuffer frame) {
+        final long sequence = claim();
+        if (sequence < 0) {
+            return;
+        }
+        final Slot slot = slots[(int) (sequence & mask)];
+        if (slot.frame.capacity() < frame.remaining()) {
+            slot.frame = ByteBuffer.allocate(frame.remaining());
+        }
+        slot.frame.clear();
+        slot.frame.order(frame.order());
+        slot.frame.put(frame);
+        slot.frame.flip();
+        slot.event = null;
+        published.lazySet((int) (sequence & mask), sequence);
+    }
+
+    @Override
+    public boolean isInfoEnabled() {
+        return callback.isInfoEnabled();
+    }
+
+    @Override
+    public boolean isWarnEnabled() {
+        return callback.isWarnEnabled();
+    }
+
+    @Override
+    public boolean isDebugEnabled() {
+        return callback.isDebugEnabled();
+    }
+
+    @Override
+    public boolean isErrorEnabled() {
+        return callback.isErrorEnabled();
+    }
+
+    @Override
+    public boolean isTraceEnabled() {
+        return callback.isTraceEnabled();
+    }
+
+    @Override
+    public boolean isAuditEnabled() {
+        return callback.isAuditEnabled();
+    }
+
+    /**
+     * @return count of events dropped, because ring buffer was full, callback was already closed or consumer thread has died
+     */
+    public long getDroppedEvents() {
+        return droppedEvents.get();
+    }
+
+    /**
+     * @return count of events, for which wrapped callback has thrown exception or error
+     */
+    public long getFailedEvents() {
+        return failedEvents.get();
+    }
+
+    /**
+     * stops consumer thread after it delivers all published events, events logged after close are dropped
+     */
+    @Override
+    public void close() {
+        running = false;
+        try {
+            consumer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void enqueue(final int level, final LoggingEvent e) {
+        final long sequence = claim();
+        if (sequence < 0) {
+            return;
+        }
+        final Slot slot = slots[(int) (sequence & mask)];
+        //reusable events are valid only until this method returns
+        slot.event = e.snapshot();
+        slot.level = level;
+        published.lazySet((int) (sequence & mask), sequence);
+    }
+
+    /**
+     * @return sequence of claimed slot or -1, when event is dropped
+     */
+    private long claim() {
+        while (running) {
+            final long sequence = producerSequence.get();
+            if (sequence == CLOSED) {
+                break;
+            }
+            if (sequence - consumerSequence.get() >= slots.length) {
+                if (fullBufferPolicy == FullBufferPolicy.DROP) {
+                    break;
+                }
+                waitStrategy.idle();
+            }
+            else if (producerSequence.compareAndSet(sequence, sequence + 1)) {
+                return sequence;
+            }
+        }
+        droppedEvents.incrementAndGet();
+        return -1;
+    }
+
+    private void consume() {
+        long sequence = 0;
+        try {
+            while (true) {
+                final int index = (int) (sequence & mask);
+                if (published.get(index) == sequence) {
+                    deliver(slots[index]);
+                    sequence++;
+                    consumerSequence.lazySet(sequence);
+                }
+                //producer which passed running check claims slot only before producer sequence is closed, so its event is delivered
+                else if (!running && producerSequence.compareAndSet(sequence, CLOSED)) {
+                    return;
+                }
+                else {
+                    waitStrategy.idle();
+                }
+            }
+        } finally {
+            if (producerSequence.get() != CLOSED) {
+                //consumer thread died, producers must not wait for it and undelivered events are dropped
+                running = false;
+                droppedEvents.addAndGet(producerSequence.getAndSet(CLOSED) - sequence);
+            }
+        }
+    }
+
+    private void deliver(final Slot slot) {
+        final LoggingEvent e = slot.event;
+        slot.event = null;
+        try {
+            if (e == null) {
+                callback.frame(slot.frame);
+                return;
+            }
+            switch (slot.level) {
+                case EventFrames.INFO:
+                    callback.info(e);
+                    break;
+                case EventFrames.WARN:
+                    callback.warn(e);
+                    break;
+                case EventFrames.DEBUG:
+                    callback.debug(e);
+                    break;
+                case EventFrames.ERROR:
+                    callback.error(e);
+                    break;
+                case EventFrames.TRACE:
+                    callback.trace(e);
+                    break;
+                default:
+                    callback.audit(e);
+            }
+        } catch (Throwable ex) {
+            //consumer thread must survive errors of wrapped callback, otherwise waiting producers would block forever
+            failedEvents.incrementAndGet();
+        }
+    }
+
+    /**
+     * Slot of ring buffer, holds either event or binary frame
+     */
+    private static final class Slot {
+        private LoggingEvent event;
+        private int level;
+        private ByteBuffer frame = ByteBuffer.allocate(INITIAL_FRAME_CAPACITY);
+    }
+}
@@ -0,0 +1,113 @@
+/**
+ * Copyright © 2018, Ondrej Benkovsky
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ *
+ * The views and conclusions contained in the software and documentation are those
+ * of the authors and should not be interpreted as representing official policies,
+ * either expressed or implied, of the FreeBSD Project.
+ */
+package com.github.structlogging.kafka;
+
+import com.github.structlogging.LoggingEvent;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+
+/**
+ * Common key extractors of {@link KeyedKafkaCallback}
+ */
+public final class EventKeyExtractors {
+
+    private static final EventKeyExtractor<Long> TIMESTAMP = LoggingEvent::getTimestamp;
+    private static final EventKeyExtractor<Long> TIMESTAMP_NANOS = LoggingEvent::getTimestampNanos;
+    private static final EventKeyExtractor<Long> SID = LoggingEvent::sid;
+    private static final EventKeyExtractor<String> EVENT_TYPE = LoggingEvent::getType;
+
+    private EventKeyExtractors() {
+    }
+
+    /**
+     * @return extractor of event timestamp in milliseconds, records are spread over partitions
+     */
+    public static EventKeyExtractor<Long> timestamp() {
+        return TIMESTAMP;
+    }
+
+    /**
+     * @return extractor of event timestamp in nanoseconds, records are spread over partitions
+     */
+    public static EventKeyExtractor<Long> timestampNanos() {
+        return TIMESTAMP_NANOS;
+    }
+
+    /**
+     * @return extractor of sid of event, records are spread over partitions
+     */
+    public static EventKeyExtractor<Long> sid() {
+        return SID;
+    }
+
+    /**
+     * @return extractor of event type, all events of same type are sent to same partition, so they are batched together
+     */
+    public static EventKeyExtractor<String> eventType() {
+        return EVENT_TYPE;
+    }
+
+    /**
+     * extractor of value of event variable, e.g. variable blockId keeps all events of same block in same partition,
+     * getter of variable is resolved only once for each event class
+     * @param name of variable
+     * @param <K> type of variable, boxed for primitive variables
+     * @return extractor, which returns null for events without given variable
+     */
+    public static <K> EventKeyExtractor<K> variable(final String name) {
+        final String getterName = "get" + name.substring(0, 1).toUpperCase() + name.substring(1);
+        final ClassValue<MethodHandle> getters = new ClassValue<MethodHandle>() {
+            @Override
+            protected MethodHandle computeValue(final Class<?> type) {
+                try {
+                    return MethodHandles.publicLookup()
+                            .findVirtual(type, getterName, MethodType.methodType(type.getMethod(getterName).getReturnType()))
+                            .asType(MethodType.methodType(Object.class, LoggingEvent.class));
+                } catch (ReflectiveOperationException e) {
+                    return null;
+                }
+            }
+        };
+        return event -> {
+            final MethodHandle getter = getters.get(event.getClass());
+            if (getter == null) {
+                return null;
+            }
+            try {
+                @SuppressWarnings("unchecked")
+                final K key = (K) getter.invokeExact(event);
+                return key;
+            } catch (Throwable t) {
+                throw new RuntimeException("unable to read variable " + name + " of event " + event.getType(), t);
+            }
+        };
+    }
+}
@@ -29,25 +29,22 @@
 package com.github.structlogging.kafka;
 
 import com.github.structlogging.LoggingEvent;
-import com.github.structlogging.LoggingCallback;
 import org.apache.kafka.clients.producer.Producer;
-import org.apache.kafka.clients.producer.ProducerRecord;
 
 import java.util.function.Function;
 
 /**
- * Callback, which sends logging events to topics based on event types
+ * Callback, which sends logging events to topics based on event types, records are keyed by event timestamp in milliseconds,
+ * use {@link KeyedKafkaCallback} to choose keys of records
  */
-public class EventTypeAwareKafkaCallback implements LoggingCallback {
-
-    private final Producer<Long, LoggingEvent> producer;
-
-    private final Function<String, String> eventTypeToTopicMapping;
+public class EventTypeAwareKafkaCallback extends KeyedKafkaCallback<Long> {
 
     /**
      * Constructors kafka logging callback, which sends events to topics same as event types
      * @param producer producer used to send events
+     * @deprecated use {@link KeyedKafkaCallback} with {@link EventKeyExtractors#timestamp()}, which states key of records explicitly
      */
+    @Deprecated
     public EventTypeAwareKafkaCallback(final Producer<Long, LoggingEvent> producer) {
         this(producer, e -> e);
     }
@@ -56,49 +53,11 @@ public class EventTypeAwareKafkaCallback implements LoggingCallback {
      * Constructs kafka logging callback, which sends events to topics according to eventTypeToTopicMapping
      * @param producer producer used to send events
      * @param eventTypeToTopicMapping function which takes event type and returns topic, where should it be sent
+     * @deprecated use {@link KeyedKafkaCallback} with {@link EventKeyExtractors#timestamp()}, which states key of records explicitly
      */
+    @Deprecated
     public EventTypeAwareKafkaCallback(final Producer<Long, LoggingEvent> producer,
                                        final Function<String, String> eventTypeToTopicMapping) {
-        this.producer = producer;
-        this.eventTypeToTopicMapping = eventTypeToTopicMapping;
-    }
-
-    @Override
-    public void info(final LoggingEvent e) {
-        sendEvent(e);
-    }
-
-    @Override
-    public void warn(final LoggingEvent e) {
-        sendEvent(e);
-    }
-
-    @Override
-    public void debug(final LoggingEvent e) {
-        sendEvent(e);
-    }
-
-    @Override
-    public void error(final LoggingEvent e) {
-        sendEvent(e);
-    }
-
-    @Override
-    public void trace(final LoggingEvent e) {
-        sendEvent(e);
-    }
-
-    @Override
-    public void audit(final LoggingEvent e) {
-        sendEvent(e);
-    }
-
-    private void sendEvent(LoggingEvent e) {
-        long time = System.currentTimeMillis();
-
-        final ProducerRecord<Long, LoggingEvent> record =
-                new ProducerRecord<>(eventTypeToTopicMapping.apply(e.getType()), time, e);
-
-        producer.send(record);
+        super(producer, eventTypeToTopicMapping, EventKeyExtractors.timestamp());
     }
 }
@@ -0,0 +1,90 @@
+/**
+ * Copyright © 2018, Ondrej Benkovsky
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ *
+ * The views and conclusions contained in the software and documentation are those
+ * of the authors and should not be interpreted as representing official policies,
+ * either expressed or implied, of the FreeBSD Project.
+ */
+package com.github.structlogging.kafka;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Policy of {@link NonBlockingKafkaCallback}, which decides events of which levels are dropped, when in-flight bytes grow.
+ * Events of level are dropped, when sending them would make in-flight bytes exceed threshold of level, which is fraction
+ * of maximum in-flight bytes. Levels without threshold have threshold 1.
+ */
+public final class KafkaShedPolicy {
+
+    /**
+     * threshold of levels, whose events are never dropped, they are sent even when maximum in-flight bytes are exceeded
+     */
+    public static final double NEVER = Double.POSITIVE_INFINITY;
+
+    private static final KafkaShedPolicy DEFAULT;
+
+    static {
+        final Map<String, Double> thresholds = new HashMap<>();
+        thresholds.put("TRACE", 0.5);
+        thresholds.put("DEBUG", 0.5);
+        thresholds.put("INFO", 0.75);
+        thresholds.put("WARN", 0.9);
+        thresholds.put("ERROR", 1.0);
+        thresholds.put("AUDIT", NEVER);
+        DEFAULT = new KafkaShedPolicy(thresholds);
+    }
+
+    private final Map<String, Double> thresholds;
+
+    /**
+     * @param thresholds fractions of maximum in-flight bytes keyed by level names, e.g. DEBUG 0.5 drops debug events
+     *                   when producer has more than half of maximum in-flight bytes, {@link #NEVER} never drops events of level
+     */
+    public KafkaShedPolicy(final Map<String, Double> thresholds) {
+        for (Map.Entry<String, Double> entry : thresholds.entrySet()) {
+            if (entry.getValue() == null || entry.getValue() < 0) {
+                throw new IllegalArgumentException("threshold of level " + entry.getKey() + " must be non-negative");
+            }
+        }
+        this.thresholds = new HashMap<>(thresholds);
+    }
+
+    /**
+     * @return policy dropping TRACE and DEBUG events at half of maximum in-flight bytes, INFO at 75%, WARN at 90%,
+     *         ERROR at maximum and never dropping AUDIT events
+     */
+    public static KafkaShedPolicy defaultPolicy() {
+        return DEFAULT;
+    }
+
+    /**
+     * @param level name of level
+     * @return fraction of maximum in-flight bytes, which events of level can not exceed
+     */
+    public double getThreshold(final String level) {
+        final Double threshold = thresholds.get(level);
+        return threshold == null ? 1.0 : threshold;
+    }
+}
@@ -0,0 +1,146 @@
+/**
+ * Copyright © 2018, Ondrej Benkovsky
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ *
+ * The views and conclusions contained in the software and documentation are those
+ * of the authors and should not be interpreted as representing official policies,
+ * either expressed or implied, of the FreeBSD Project.
+ */
+package com.github.structlogging.kafka;
+
+import com.github.structlogging.LoggingEvent;
+import com.github.structlogging.LoggingCallback;
+import com.github.structlogging.utils.EventTypes;
+import org.apache.kafka.clients.producer.Producer;
+import org.apache.kafka.clients.producer.ProducerRecord;
+
+import java.util.Arrays;
+import java.util.function.Function;
+
+/**
+ * Callback, which sends logging events to topics based on event types, topic of each event type is resolved only once
+ * and kept in array indexed by {@link LoggingEvent#typeId()}, topic of events of unregistered types is resolved for each event.
+ * Records are keyed by {@link EventKeyExtractor} and timestamped by timestamp of event,
+ * {@link EventTypeAwareKafkaCallback} is variant of this callback keying records by timestamp of event
+ * @param <K> type of record keys
+ */
+public class KeyedKafkaCallback<K> implements LoggingCallback {
+
+    private final Producer<K, LoggingEvent> producer;
+
+    private final Function<String, String> eventTypeToTopicMapping;
+
+    private final EventKeyExtractor<? extends K> keyExtractor;
+
+    private volatile String[] topics = new String[0]; //copied on write, so that topics of resolved types are read without locking
+
+    /**
+     * Constructs kafka logging callback, which sends events to topics according to eventTypeToTopicMapping with keys
+     * extracted by keyExtractor, e.g. {@link EventKeyExtractors#eventType()} keeps events of same type in same partition
+     * @param producer producer used to send events
+     * @param eventTypeToTopicMapping function which takes event type and returns topic, where should it be sent,
+     *                                it is called only once for each event type
+     * @param keyExtractor extracts key of record from event
+     */
+    public KeyedKafkaCallback(final Producer<K, LoggingEvent> producer,
+                              final Function<String, String> eventTypeToTopicMapping,
+                              final EventKeyExtractor<? extends K> keyExtractor) {
+        this.producer = producer;
+        this.eventTypeToTopicMapping = eventTypeToTopicMapping;
+        this.keyExtractor = keyExtractor;
+    }
+
+    @Override
+    public void info(final LoggingEvent e) {
+        sendEvent(e, "INFO");
+    }
+
+    @Override
+    public void warn(final LoggingEvent e) {
+        sendEvent(e, "WARN");
+    }
+
+    @Override
+    public void debug(final LoggingEvent e) {
+        sendEvent(e, "DEBUG");
+    }
+
+    @Override
+    public void error(final LoggingEvent e) {
+        sendEvent(e, "ERROR");
+    }
+
+    @Override
+    public void trace(final LoggingEvent e) {
+        sendEvent(e, "TRACE");
+    }
+
+    @Override
+    public void audit(final LoggingEvent e) {
+        sendEvent(e, "AUDIT");
+    }
+
+    /**
+     * sends event by producer, this implementation blocks when producer blocks
+     * @param e event to be sent
+     * @param level name of level of event
+     */
+    protected void sendEvent(final LoggingEvent e, final String level) {
+        producer.send(createRecord(e));
+    }
+
+    /**
+     * @param e event to be sent
+     * @return record with event sent to topic of event type, keyed by key extractor and timestamped by event timestamp
+     */
+    protected final ProducerRecord<K, LoggingEvent> createRecord(final LoggingEvent e) {
+        return new ProducerRecord<>(topic(e), null, e.getTimestamp(), keyExtractor.keyOf(e), e);
+    }
+
+    protected final Producer<K, LoggingEvent> getProducer() {
+        return producer;
+    }
+
+    private String topic(final LoggingEvent e) {
+        final int typeId = e.typeId();
+        if (typeId == EventTypes.UNKNOWN) {
+            return eventTypeToTopicMapping.apply(e.getType());
+        }
+        final String[] current = topics;
+        if (typeId < current.length && current[typeId] != null) {
+            return current[typeId];
+        }
+        return resolveTopic(typeId, e.getType());
+    }
+
+    private synchronized String resolveTopic(final int typeId, final String eventType) {
+        final String[] current = topics;
+        if (typeId < current.length && current[typeId] != null) {
+            return current[typeId];
+        }
+        final String[] updated = Arrays.copyOf(current, Math.max(current.length, typeId + 1));
+        updated[typeId] = eventTypeToTopicMapping.apply(eventType);
+        topics = updated;
+        return updated[typeId];
+    }
+}
@@ -28,9 +28,9 @@
  */
 package com.github.structlogging.kafka;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.github.structlogging.LoggingEvent;
+import com.github.structlogging.serializer.EventSerializers;
+import com.github.structlogging.utils.JsonWriter;
 import org.apache.kafka.common.serialization.Serializer;
 
 import java.util.Map;
@@ -40,8 +40,6 @@ import java.util.Map;
  */
 public class LoggingEventJsonSerializer implements Serializer<LoggingEvent> {
 
-    private final ObjectMapper MAPPER = new ObjectMapper();
-
     @Override
     public void configure(Map<String, ?> map, boolean b) {
 
@@ -49,10 +47,12 @@ public class LoggingEventJsonSerializer implements Serializer<LoggingEvent> {
 
     @Override
     public byte[] serialize(String s, LoggingEvent loggingEvent) {
+        final JsonWriter writer = JsonWriter.acquire();
         try {
-            return MAPPER.writeValueAsBytes(loggingEvent);
-        } catch (JsonProcessingException e) {
-            throw new RuntimeException("unable to serialize event", e);
+            EventSerializers.serialize(loggingEvent, writer);
+            return writer.toByteArray();
+        } finally {
+            writer.release();
         }
     }
 
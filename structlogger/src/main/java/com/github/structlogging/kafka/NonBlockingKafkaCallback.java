@@ -0,0 +1,190 @@
+/**
+ * Copyright © 2018, Ondrej Benkovsky
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ *
+ * The views and conclusions contained in the software and documentation are those
+ * of the authors and should not be interpreted as representing official policies,
+ * either expressed or implied, of the FreeBSD Project.
+ */
+package com.github.structlogging.kafka;
+
+import com.github.structlogging.LoggingEvent;
+import com.github.structlogging.utils.LatencyHistogram;
+import org.apache.kafka.clients.producer.Producer;
+import org.apache.kafka.clients.producer.RecordMetadata;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Kafka callback, which does not let slow broker block logging threads. It accounts bytes of records, which were sent
+ * and not yet acknowledged by broker, and drops events according to {@link KafkaShedPolicy} instead of waiting
+ * for space in producer buffer. Sent, acknowledged, failed and dropped events and latency between send and acknowledgement are counted.
+ *
+ * Size of record is not known until broker acknowledges it, so in-flight bytes are estimated by average size of acknowledged records.
+ * Maximum in-flight bytes should be lower than buffer.memory of producer and producer should have low max.block.ms,
+ * because fetching of metadata of new topic still blocks send, events of levels never dropped are sent even when producer blocks.
+ * @param <K> type of record keys
+ */
+public class NonBlockingKafkaCallback<K> extends KeyedKafkaCallback<K> {
+
+    private static final long INITIAL_RECORD_SIZE_ESTIMATE = 512;
+    private static final String[] LEVELS = {"INFO", "WARN", "DEBUG", "ERROR", "TRACE", "AUDIT"};
+
+    private final long maxInFlightBytes;
+    private final KafkaShedPolicy shedPolicy;
+
+    private final AtomicLong inFlightBytes = new AtomicLong();
+    private volatile long recordSizeEstimate = INITIAL_RECORD_SIZE_ESTIMATE;
+
+    private final LongAdder sentEvents = new LongAdder();
+    private final LongAdder ackedEvents = new LongAdder();
+    private final LongAdder failedEvents = new LongAdder();
+    private final Map<String, LongAdder> droppedEvents = new HashMap<>();
+    private final LatencyHistogram sendLatency = new LatencyHistogram();
+
+    /**
+     * @param producer producer used to send events
+     * @param eventTypeToTopicMapping function which takes event type and returns topic, where should it be sent
+     * @param keyExtractor extracts key of record from event
+     * @param maxInFlightBytes bytes of not acknowledged records, which are fraction 1 of thresholds of shedPolicy
+     * @param shedPolicy decides events of which levels are dropped
+     */
+    public NonBlockingKafkaCallback(final Producer<K, LoggingEvent> producer,
+                                    final Function<String, String> eventTypeToTopicMapping,
+                                    final EventKeyExtractor<? extends K> keyExtractor,
+                                    final long maxInFlightBytes,
+                                    final KafkaShedPolicy shedPolicy) {
+        super(producer, eventTypeToTopicMapping, keyExtractor);
+        if (maxInFlightBytes <= 0) {
+            throw new IllegalArgumentException("maxInFlightBytes must be positive");
+        }
+        this.maxInFlightBytes = maxInFlightBytes;
+        this.shedPolicy = shedPolicy;
+        for (String level : LEVELS) {
+            droppedEvents.put(level, new LongAdder());
+        }
+    }
+
+    /**
+     * Creates callback, which sends events to topics same as event types, keyed by event timestamp and shed by default policy
+     * @param producer producer used to send events
+     * @param maxInFlightBytes bytes of not acknowledged records, when reached only events of levels, which are never dropped, are sent
+     * @return callback sending records with Long keys
+     */
+    public static NonBlockingKafkaCallback<Long> keyedByTimestamp(final Producer<Long, LoggingEvent> producer, final long maxInFlightBytes) {
+        return new NonBlockingKafkaCallback<>(producer, e -> e, EventKeyExtractors.timestamp(), maxInFlightBytes, KafkaShedPolicy.defaultPolicy());
+    }
+
+    @Override
+    protected void sendEvent(final LoggingEvent e, final String level) {
+        final long estimate = recordSizeEstimate;
+        final double limit = shedPolicy.getThreshold(level) * maxInFlightBytes;
+        if (inFlightBytes.get() + estimate > limit) {
+            droppedEvents.get(level).increment();
+            return;
+        }
+
+        inFlightBytes.addAndGet(estimate);
+        final long sendTime = System.nanoTime();
+        try {
+            getProducer().send(createRecord(e), (metadata, exception) -> onCompletion(metadata, exception, estimate, sendTime));
+            sentEvents.increment();
+        } catch (RuntimeException ex) {
+            inFlightBytes.addAndGet(-estimate);
+            failedEvents.increment();
+        }
+    }
+
+    private void onCompletion(final RecordMetadata metadata, final Exception exception, final long estimate, final long sendTime) {
+        inFlightBytes.addAndGet(-estimate);
+        if (exception != null) {
+            failedEvents.increment();
+            return;
+        }
+        ackedEvents.increment();
+        sendLatency.record(System.nanoTime() - sendTime);
+        final long size = Math.max(0, metadata.serializedKeySize()) + Math.max(0, metadata.serializedValueSize());
+        if (size > 0) {
+            recordSizeEstimate += (size - recordSizeEstimate) / 8; //benign race, estimate is only approximate
+        }
+    }
+
+    /**
+     * @return estimated bytes of records, which were sent and not yet acknowledged
+     */
+    public long getInFlightBytes() {
+        return inFlightBytes.get();
+    }
+
+    /**
+     * @return count of events passed to producer
+     */
+    public long getSentEvents() {
+        return sentEvents.sum();
+    }
+
+    /**
+     * @return count of events acknowledged by broker
+     */
+    public long getAckedEvents() {
+        return ackedEvents.sum();
+    }
+
+    /**
+     * @return count of events, which producer failed to send
+     */
+    public long getFailedEvents() {
+        return failedEvents.sum();
+    }
+
+    /**
+     * @return count of events dropped by shed policy
+     */
+    public long getDroppedEvents() {
+        long dropped = 0;
+        for (LongAdder adder : droppedEvents.values()) {
+            dropped += adder.sum();
+        }
+        return dropped;
+    }
+
+    /**
+     * @param level name of level
+     * @return count of events of level dropped by shed policy
+     */
+    public long getDroppedEvents(final String level) {
+        final LongAdder dropped = droppedEvents.get(level);
+        return dropped == null ? 0 : dropped.sum();
+    }
+
+    /**
+     * @return histogram of latencies between send and acknowledgement of events
+     */
+    public LatencyHistogram getSendLatency() {
+        return sendLatency;
+    }
+}
@@ -0,0 +1,140 @@
+/**
+ * Copyright © 2018, Ondrej Benkovsky
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ *
+ * The views and conclusions contained in the software and documentation are those
+ * of the authors and should not be interpreted as representing official policies,
+ * either expressed or implied, of the FreeBSD Project.
+ */
+package com.github.structlogging.logback;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import com.github.structlogging.LoggingCallback;
+import com.github.structlogging.LoggingEvent;
+import org.slf4j.Marker;
+import org.slf4j.MarkerFactory;
+
+/**
+ * Logging callback which passes events to appenders of Logback logger without serializing them, event travels
+ * as only argument of Logback event, so it can be encoded by {@link StructuredEventEncoder} directly into bytes
+ * written by appender, appenders with other encoders see message of event.
+ *
+ * Events are passed as snapshots (see {@link LoggingEvent#snapshot()}), so callback can be used with asynchronous appenders,
+ * e.g. Logback's AsyncAppender, which encode events after callback returns.
+ */
+public class LogbackLoggingCallback implements LoggingCallback {
+
+    private static final String AUDIT = "AUDIT";
+    private static final Marker AUDIT_MARKER = MarkerFactory.getMarker(AUDIT);
+    private static final String FQCN = LogbackLoggingCallback.class.getName();
+    private final Logger logger;
+
+    public LogbackLoggingCallback(final Logger logger) {
+        this.logger = logger;
+    }
+
+    @Override
+    public void info(final LoggingEvent e) {
+        if (logger.isInfoEnabled()) {
+            callAppenders(e, Level.INFO, null);
+        }
+    }
+
+    @Override
+    public void warn(final LoggingEvent e) {
+        if (logger.isWarnEnabled()) {
+            callAppenders(e, Level.WARN, null);
+        }
+    }
+
+    @Override
+    public void debug(final LoggingEvent e) {
+        if (logger.isDebugEnabled()) {
+            callAppenders(e, Level.DEBUG, null);
+        }
+    }
+
+    @Override
+    public void error(final LoggingEvent e) {
+        if (logger.isErrorEnabled()) {
+            callAppenders(e, Level.ERROR, null);
+        }
+    }
+
+    @Override
+    public void trace(final LoggingEvent e) {
+        if (logger.isTraceEnabled()) {
+            callAppenders(e, Level.TRACE, null);
+        }
+    }
+
+    /**
+     * This implementation uses INFO level of Logback and marks these logged events with AUDIT marker
+     */
+    @Override
+    public void audit(final LoggingEvent e) {
+        if (logger.isInfoEnabled(AUDIT_MARKER)) {
+            callAppenders(e, Level.INFO, AUDIT_MARKER);
+        }
+    }
+
+    @Override
+    public boolean isInfoEnabled() {
+        return logger.isInfoEnabled();
+    }
+
+    @Override
+    public boolean isWarnEnabled() {
+        return logger.isWarnEnabled();
+    }
+
+    @Override
+    public boolean isDebugEnabled() {
+        return logger.isDebugEnabled();
+    }
+
+    @Override
+    public boolean isErrorEnabled() {
+        return logger.isErrorEnabled();
+    }
+
+    @Override
+    public boolean isTraceEnabled() {
+        return logger.isTraceEnabled();
+    }
+
+    /**
+     * audit events are enabled when INFO level of Logback is enabled for AUDIT marker
+     */
+    @Override
+    public boolean isAuditEnabled() {
+        return logger.isInfoEnabled(AUDIT_MARKER);
+    }
+
+    private void callAppenders(final LoggingEvent e, final Level level, final Marker marker) {
+        final StructuredLoggingEvent event = new StructuredLoggingEvent(FQCN, logger, level, e.snapshot());
+        event.setMarker(marker);
+        logger.callAppenders(event);
+    }
+}
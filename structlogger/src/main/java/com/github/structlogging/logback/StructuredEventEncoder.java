@@ -0,0 +1,108 @@
+/**
+ * Copyright © 2018, Ondrej Benkovsky
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ *
+ * The views and conclusions contained in the software and documentation are those
+ * of the authors and should not be interpreted as representing official policies,
+ * either expressed or implied, of the FreeBSD Project.
+ */
+package com.github.structlogging.logback;
+
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.encoder.EncoderBase;
+import com.github.structlogging.LoggingEvent;
+import com.github.structlogging.serializer.EventSerializer;
+import com.github.structlogging.serializer.EventSerializers;
+import com.github.structlogging.utils.JsonWriter;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Logback encoder, which serializes structured events passed to Logback by {@link LogbackLoggingCallback} straight into bytes
+ * written by appender, without creating String of event or going through Logback layout. Each event is followed by
+ * {@link EventSerializer#recordSeparator()}, Logback events without structured event are encoded as their formatted message
+ * followed by line separator.
+ *
+ * Example of Logback configuration:
+ * <pre>{@code
+ * <appender name="FILE" class="ch.qos.logback.core.FileAppender">
+ *     <file>events.log</file>
+ *     <encoder class="com.github.structlogging.logback.StructuredEventEncoder"/>
+ * </appender>
+ * }</pre>
+ */
+public class StructuredEventEncoder extends EncoderBase<ILoggingEvent> {
+
+    private static final byte[] LINE_SEPARATOR = System.lineSeparator().getBytes(StandardCharsets.UTF_8);
+    private final EventSerializer serializer;
+    private final byte[] recordSeparator;
+
+    public StructuredEventEncoder() {
+        this(EventSerializers.REGISTERED);
+    }
+
+    /**
+     * @param serializer used to encode structured events
+     */
+    public StructuredEventEncoder(final EventSerializer serializer) {
+        this.serializer = serializer;
+        this.recordSeparator = serializer.recordSeparator();
+    }
+
+    @Override
+    public byte[] headerBytes() {
+        return null;
+    }
+
+    @Override
+    public byte[] encode(final ILoggingEvent event) {
+        final LoggingEvent structuredEvent = structuredEvent(event);
+        final JsonWriter writer = JsonWriter.acquire();
+        try {
+            if (structuredEvent != null) {
+                serializer.serialize(structuredEvent, writer);
+                writer.writeRaw(recordSeparator);
+            }
+            else {
+                writer.writeRaw(event.getFormattedMessage().getBytes(StandardCharsets.UTF_8));
+                writer.writeRaw(LINE_SEPARATOR);
+            }
+            return writer.toByteArray();
+        } finally {
+            writer.release();
+        }
+    }
+
+    @Override
+    public byte[] footerBytes() {
+        return null;
+    }
+
+    private static LoggingEvent structuredEvent(final ILoggingEvent event) {
+        final Object[] arguments = event.getArgumentArray();
+        if (arguments != null && arguments.length == 1 && arguments[0] instanceof LoggingEvent) {
+            return (LoggingEvent) arguments[0];
+        }
+        return null;
+    }
+}
@@ -46,6 +46,7 @@ import com.github.structlogging.processor.utils.GeneratedClassInfo;
 import com.github.structlogging.processor.utils.ScannerParams;
 import com.github.structlogging.processor.utils.Variable;
 import com.github.structlogging.processor.utils.VariableContextProvider;
+import com.github.structlogging.utils.EventTypes;
 
 import javax.annotation.processing.AbstractProcessor;
 import javax.annotation.processing.Messager;
@@ -65,7 +66,10 @@ import javax.lang.model.type.TypeMirror;
 import javax.lang.model.util.Elements;
 import javax.lang.model.util.Types;
 import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
 import java.io.IOException;
+import java.io.Writer;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.*;
@@ -81,6 +85,13 @@ import java.util.stream.Collectors;
 @SupportedAnnotationTypes("*")
 public class LogInvocationProcessor extends AbstractProcessor {
 
+    /**
+     * properties of header of every {@link LoggingEvent}, variables cannot have same names, because they would clash with
+     * properties in serialized events and with parameters of generated event classes
+     */
+    private static final List<String> LOGGING_EVENT_PROPERTY_NAMES = Collections.unmodifiableList(Arrays.asList(
+            "message", "sourceFile", "lineNumber", "type", "sid", "logLevel", "timestamp", "timestampNanos", "getTimestampNanos", "context"
+    ));
 
     /**
      * Set of all classes annotated with {@link VarContextProvider}, set of all classes which can provide variable logging context
@@ -114,9 +125,28 @@ public class LogInvocationProcessor extends AbstractProcessor {
         types = processingEnv.getTypeUtils();
         elements = processingEnv.getElementUtils();
 
+        final String minimumLevelName = processingEnv.getOptions().get("minimumLevel");
+        LogLevel minimumLevel = null;
+
+        if (minimumLevelName != null) {
+            minimumLevel = LogLevel.forName(minimumLevelName);
+            if (minimumLevel == null) {
+                initFailed = true;
+                messager.printMessage(
+                        Diagnostic.Kind.ERROR,
+                        format(
+                                "Provided minimumLevel compiler argument value [%s] is not valid, expected one of %s",
+                                minimumLevelName,
+                                Arrays.toString(LogLevel.values())
+                        )
+                );
+            }
+        }
+
         try {
             logInvocationScanner = new LogInvocationScanner(
-                    processingEnv
+                    processingEnv,
+                    minimumLevel
             );
         } catch (IOException e) {
             messager.printMessage(
@@ -166,11 +196,43 @@ public class LogInvocationProcessor extends AbstractProcessor {
         // process every class to be compiled, locate all StructLogger fields annotated with LoggerContext annotation, find all usages in given file and replace
         // it with generated event class
         processStructLogExpressions(roundEnv);
+        // event classes are generated once all statements of this round are known
+        logInvocationScanner.writeGeneratedEvents(generatedClassesInfo);
+        if (roundEnv.processingOver()) {
+            writeEventRegistry();
+        }
 
         // do not claim ownership of any annotation
         return false;
     }
 
+    /**
+     * lists all event classes generated by this compilation in {@link EventTypes#REGISTRY_RESOURCE},
+     * so that their type ids can be registered by {@link EventTypes#registerAll(ClassLoader)} in stable order
+     */
+    private void writeEventRegistry() {
+        if (generatedClassesInfo.isEmpty()) {
+            return;
+        }
+        final Set<String> classNames = generatedClassesInfo.stream()
+                .map(GeneratedClassInfo::getQualifiedName)
+                .collect(Collectors.toCollection(TreeSet::new));
+        try {
+            final FileObject resource = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "", EventTypes.REGISTRY_RESOURCE);
+            try (Writer writer = resource.openWriter()) {
+                for (String className : classNames) {
+                    writer.write(className);
+                    writer.write("\n");
+                }
+            }
+        } catch (IOException e) {
+            messager.printMessage(
+                    Diagnostic.Kind.ERROR,
+                    format("unable to write %s: %s", EventTypes.REGISTRY_RESOURCE, e.getMessage())
+            );
+        }
+    }
+
     /**
      * checks VarContextProvider, whether it is interface, extends VariableContext, is properly annotated, contains proper logging variable methods
      * @param typeMirror of VarContextProvider
@@ -254,13 +316,24 @@ public class LogInvocationProcessor extends AbstractProcessor {
                                 Collectors.toList()
                         );
 
-                List<String> loggingEventFieldNames =
-                        Arrays.stream(LoggingEvent.class.getDeclaredFields()).map(e -> e.getName()).collect(Collectors.toList());
+                //should not have method with names isInfoEnabled, isDebugEnabled, isErrorEnabled,...
+                final List<String> enabledMethodNames = Arrays.stream(
+                        LogLevel.values()
+                )
+                        .map(
+                                LogLevel::getEnabledMethodName
+                        )
+                        .collect(
+                                Collectors.toList()
+                        );
+
                 if (
                         simpleName.contentEquals("log") || //should not have method with name log
+                        simpleName.contentEquals("logFrame") || //should not have method with name logFrame
                         logLevelsMethodNames.stream().anyMatch(simpleName::contentEquals) ||
                         logEventMethodNames.stream().anyMatch(simpleName::contentEquals) ||
-                        loggingEventFieldNames.stream().anyMatch(simpleName::contentEquals)
+                        enabledMethodNames.stream().anyMatch(simpleName::contentEquals) ||
+                        LOGGING_EVENT_PROPERTY_NAMES.stream().anyMatch(simpleName::contentEquals) //should not have method named as property of every event
                    )
                 {
                     messager.printMessage(
@@ -395,7 +468,7 @@ public class LogInvocationProcessor extends AbstractProcessor {
                                 if (!checkVarContextProvider(contextProviderTypeMirror)) {
                                     return;
                                 }
-                                fields.put(enclosed.getSimpleName(), new StructLoggerFieldContext(contextProviderTypeMirror));
+                                fields.put(enclosed.getSimpleName(), new StructLoggerFieldContext(contextProviderTypeMirror, annotation.reusableEvents(), annotation.binaryFrames()));
                             }
                         }
 
@@ -31,6 +31,7 @@ package com.github.structlogging.processor;
 import com.github.structlogging.StructLogger;
 import com.github.structlogging.processor.exception.PackageNameException;
 import com.github.structlogging.processor.service.POJOService;
+import com.github.structlogging.processor.utils.CallSite;
 import com.github.structlogging.processor.utils.GeneratedClassInfo;
 import com.github.structlogging.processor.utils.MethodAndParameter;
 import com.github.structlogging.processor.utils.ScannerParams;
@@ -39,7 +40,8 @@ import com.github.structlogging.processor.utils.StructLoggerFieldContext;
 import com.github.structlogging.processor.utils.Variable;
 import com.github.structlogging.processor.utils.VariableAndValue;
 import com.github.structlogging.processor.utils.VariableContextProvider;
-import com.github.structlogging.utils.MessageFormatterUtils;
+import com.github.structlogging.utils.EventSwitchboard;
+import com.github.structlogging.utils.EventTimestamps;
 import com.github.structlogging.utils.SidCounter;
 import com.squareup.javapoet.JavaFile;
 import com.sun.source.tree.ExpressionStatementTree;
@@ -80,13 +82,19 @@ public class LogInvocationScanner extends TreePathScanner<Object, ScannerParams>
     private final Names names;
     private final POJOService pojoService;
     private final Messager messager;
+    private final LogLevel minimumLevel;
 
-    public LogInvocationScanner(final ProcessingEnvironment processingEnvironment) throws IOException, PackageNameException {
+    /**
+     * @param processingEnvironment of annotation processor
+     * @param minimumLevel statements of less severe levels are removed from code, null when no statements are removed
+     */
+    public LogInvocationScanner(final ProcessingEnvironment processingEnvironment, final LogLevel minimumLevel) throws IOException, PackageNameException {
         final Context context = ((JavacProcessingEnvironment) processingEnvironment).getContext();
 
         this.treeMaker = TreeMaker.instance(context);
         this.elementUtils = (JavacElements) processingEnvironment.getElementUtils();
         this.messager = processingEnvironment.getMessager();
+        this.minimumLevel = minimumLevel;
 
         final String generatedEventsPackage = processingEnvironment.getOptions().get("generatedEventsPackage");
         this.pojoService = new POJOService(processingEnvironment.getFiler(), generatedEventsPackage);
@@ -106,7 +114,8 @@ public class LogInvocationScanner extends TreePathScanner<Object, ScannerParams>
         final StatementInfo statementInfo = new StatementInfo(
                 scannerParams.getCompilationUnitTree().getLineMap().getLineNumber(statement.pos),
                 scannerParams.getTypeElement().getQualifiedName().toString(),
-                statement
+                statement,
+                (JCTree) getCurrentPath().getParentPath().getLeaf()
         );
 
         //inner scanner to go through statement methods
@@ -190,7 +199,7 @@ public class LogInvocationScanner extends TreePathScanner<Object, ScannerParams>
                                            final ScannerParams scannerParams) {
         final java.util.List<VariableAndValue> usedVariables = new ArrayList<>();
         JCTree.JCLiteral literal = null;
-        String level = null;
+        LogLevel level = null;
         String eventName = null;
 
         //statement check
@@ -221,11 +230,13 @@ public class LogInvocationScanner extends TreePathScanner<Object, ScannerParams>
                                 return;
                             }
                             literal = (JCTree.JCLiteral) node.getArguments().get(0);
-                            level = logLevel.getLevelName();
+                            level = logLevel;
                             matched = true;
                             break;
                         }
-                        else if (topMethodName.contentEquals(logLevel.getLogEventMethodName())) {
+                        else if (topMethodName.contentEquals(logLevel.getLogEventMethodName())
+                                || topMethodName.contentEquals(logLevel.getEnabledMethodName())
+                                || topMethodName.contentEquals("logFrame")) {
                             return; // nothing to do here, no code replacement needed
                         }
                     }
@@ -299,6 +310,13 @@ public class LogInvocationScanner extends TreePathScanner<Object, ScannerParams>
             }
         }
 
+        //statement below minimum level is replaced with empty statement, so neither event class nor schema is generated for it,
+        //statement, which cannot be replaced in its parent, is kept
+        if (minimumLevel != null && level.isBelow(minimumLevel)
+                && replaceStatement(statementInfo.getParent(), statementInfo.getStatement(), treeMaker.at(statementInfo.getStatement().pos).Skip())) {
+            return;
+        }
+
         //event class generation
         JavaFile javaFile;
         try {
@@ -317,8 +335,12 @@ public class LogInvocationScanner extends TreePathScanner<Object, ScannerParams>
         }
         final String className = javaFile.typeSpec.name;
         final String qualifiedName = StringUtils.isBlank(javaFile.packageName) ? className : javaFile.packageName + "." + className;
-        final GeneratedClassInfo generatedClassInfo = new GeneratedClassInfo(qualifiedName, className, (String) literal.getValue(), usedVariables, javaFile.packageName);
+        GeneratedClassInfo generatedClassInfo = new GeneratedClassInfo(qualifiedName, className, (String) literal.getValue(), usedVariables, javaFile.packageName);
+        GeneratedClassInfo existingClassInfo = null;
         for (GeneratedClassInfo info : scannerParams.getGeneratedClassesInfo()) {
+            if (info.getQualifiedName().equals(generatedClassInfo.getQualifiedName())) {
+                existingClassInfo = info;
+            }
             if (info.getQualifiedName().equals(generatedClassInfo.getQualifiedName())
                     && !info.getUsedVariables().equals(generatedClassInfo.getUsedVariables())
                     ) {
@@ -333,12 +355,61 @@ public class LogInvocationScanner extends TreePathScanner<Object, ScannerParams>
                 return;
             }
         }
-        scannerParams.getGeneratedClassesInfo().add(generatedClassInfo);
+        if (existingClassInfo != null) {
+            generatedClassInfo = existingClassInfo;
+        }
+        else {
+            scannerParams.getGeneratedClassesInfo().add(generatedClassInfo);
+        }
+
+        //event class is written after all statements are scanned, see writeGeneratedEvents
+        final int callSite = generatedClassInfo.addCallSite(
+                new CallSite(
+                        statementInfo.getSourceFileName(),
+                        statementInfo.getLineNumber(),
+                        level,
+                        (String) literal.getValue(),
+                        variableContextProvider.shouldParametrize()
+                )
+        );
 
-        pojoService.writeJavaFile(javaFile);
+        //statement writes binary frame when all its variables can be encoded, unless event class was already generated
+        //in previous round without encoder
+        final boolean binary = structLoggerFieldContext.isBinaryFrames()
+                && usedVariables.stream().allMatch(variableAndValue -> POJOService.isEncodable(variableAndValue.getVariable().getType()))
+                && (generatedClassInfo.isBinary() || !generatedClassInfo.isWritten());
+        if (binary) {
+            generatedClassInfo.setBinary(true);
+        }
+
+        //statement uses reusable event, unless event class was already generated in previous round without pool
+        final boolean reusable = !binary && structLoggerFieldContext.isReusableEvents()
+                && (generatedClassInfo.isReusable() || !generatedClassInfo.isWritten());
+        if (reusable) {
+            generatedClassInfo.setReusable(true);
+        }
 
         //replace statement
-        replaceInCode(name.toString(), generatedClassInfo, statementInfo, usedVariables, literal, level, variableContextProvider);
+        if (binary) {
+            replaceWithFrameInCode(name.toString(), generatedClassInfo, statementInfo, usedVariables, literal, level, variableContextProvider, callSite);
+        }
+        else {
+            replaceInCode(name.toString(), generatedClassInfo, statementInfo, usedVariables, literal, level, variableContextProvider, callSite, reusable);
+        }
+    }
+
+    /**
+     * generates classes of events, which were not generated yet, generated class knows all call sites
+     * of structured log statements creating it, which were scanned so far
+     * @param generatedClassesInfo info about all events
+     */
+    public void writeGeneratedEvents(final Set<GeneratedClassInfo> generatedClassesInfo) {
+        for (GeneratedClassInfo generatedClassInfo : generatedClassesInfo) {
+            if (!generatedClassInfo.isWritten()) {
+                pojoService.writeJavaFile(pojoService.createPojo(generatedClassInfo));
+                generatedClassInfo.setWritten(true);
+            }
+        }
     }
 
     private void printStatementMustHaveStringLiteralError(final StatementInfo statementInfo, final Name topMethodName) {
@@ -381,116 +452,229 @@ public class LogInvocationScanner extends TreePathScanner<Object, ScannerParams>
     }
 
     /**
-     * replaces statement with our improved call to {@link StructLogger}
+     * replaces statement with our improved call to {@link StructLogger}, guarded by check whether level of statement is enabled,
+     * so that neither event nor its variables are evaluated when level is disabled
      */
-    private void replaceInCode(final String loggerName, final GeneratedClassInfo generatedClassInfo, final StatementInfo statementInfo, java.util.List<VariableAndValue> usedVariables, JCTree.JCLiteral literal, String level, VariableContextProvider variableContextProvider) {
+    private void replaceInCode(final String loggerName, final GeneratedClassInfo generatedClassInfo, final StatementInfo statementInfo, java.util.List<VariableAndValue> usedVariables, JCTree.JCLiteral literal, LogLevel level, VariableContextProvider variableContextProvider, int callSite, boolean reusable) {
+        treeMaker.at(statementInfo.getStatement().pos);
+
         final ListBuffer listBuffer = new ListBuffer();
-        final Class<SidCounter> sidCounterClass = SidCounter.class;
 
-        if(variableContextProvider.shouldParametrize()) {
-            listBuffer.add(createFormatCall(usedVariables, literal));
+        listBuffer.add(literal);
+        listBuffer.add(treeMaker.Literal(statementInfo.getSourceFileName()));
+        listBuffer.add(treeMaker.Literal(statementInfo.getLineNumber()));
+        listBuffer.add(treeMaker.Literal(generatedClassInfo.getQualifiedName()));
+        listBuffer.add(invokeStatic(SidCounter.class, "incrementAndGet"));
+        listBuffer.add(treeMaker.Literal(level.getLevelName()));
+        listBuffer.add(invokeStatic(EventTimestamps.class, "currentTimeNanos"));
+        //message is formatted lazily by generated event, when message is parametrized
+        listBuffer.add(treeMaker.Literal(variableContextProvider.shouldParametrize()));
+        listBuffer.add(treeMaker.Literal(callSite));
+        addVariablesToBuffer(usedVariables, listBuffer);
+
+        final JCTree.JCFieldAccess eventClass = eventClass(generatedClassInfo);
+
+        //reusable event is taken from pool of event class and populated, otherwise new event is created
+        final JCTree.JCExpression event;
+        if (reusable) {
+            //variables are evaluated before instance is taken from pool, so exception thrown by them does not keep it in use
+            event = treeMaker.Apply(
+                    com.sun.tools.javac.util.List.nil(),
+                    treeMaker.Select(eventClass, names.fromString("acquireAndPopulate")),
+                    listBuffer.toList()
+            );
         }
         else {
-            listBuffer.add(literal);
+            event = treeMaker.NewClass(
+                    null,
+                    com.sun.tools.javac.util.List.nil(),
+                    eventClass,
+                    listBuffer.toList(),
+                    null);
         }
 
-        listBuffer.add(treeMaker.Literal(statementInfo.getSourceFileName()));
-        listBuffer.add(treeMaker.Literal(statementInfo.getLineNumber()));
-        listBuffer.add(treeMaker.Literal(generatedClassInfo.getQualifiedName()));
-        listBuffer.add(treeMaker.Apply(
+        final JCTree.JCMethodInvocation apply = treeMaker.Apply(
                 com.sun.tools.javac.util.List.nil(),
                 treeMaker.Select(
-                        treeMaker.Select(
-                                treeMaker.Ident(
-                                        names.fromString(
-                                                sidCounterClass.getPackage().getName()
-                                        )
-                                ),
-                                names.fromString(
-                                        sidCounterClass.getSimpleName()
-                                )
+                        treeMaker.Ident(
+                                elementUtils.getName(loggerName)
                         ),
-                        names.fromString("incrementAndGet")
+                        elementUtils.getName(level.getLogEventMethodName())
                 ),
-                List.nil())
+                com.sun.tools.javac.util.List.of(
+                        event
+                )
+        );
+        statementInfo.getStatement().expr = apply;
+
+        guardStatement(loggerName, generatedClassInfo, statementInfo, level);
+    }
+
+    /**
+     * replaces statement with encoding of its variables into binary frame, which is passed to logger, the rest of event
+     * is resolved from call site when frame is decoded, constants of statement are passed as well, so that encoder
+     * can verify that call site belongs to this statement
+     */
+    private void replaceWithFrameInCode(final String loggerName, final GeneratedClassInfo generatedClassInfo, final StatementInfo statementInfo, java.util.List<VariableAndValue> usedVariables, JCTree.JCLiteral literal, LogLevel level, VariableContextProvider variableContextProvider, int callSite) {
+        treeMaker.at(statementInfo.getStatement().pos);
+
+        final ListBuffer listBuffer = new ListBuffer();
+        listBuffer.add(treeMaker.Literal(callSite));
+        listBuffer.add(literal);
+        listBuffer.add(treeMaker.Literal(statementInfo.getSourceFileName()));
+        listBuffer.add(treeMaker.Literal(statementInfo.getLineNumber()));
+        listBuffer.add(treeMaker.Literal(level.getLevelName()));
+        listBuffer.add(treeMaker.Literal(variableContextProvider.shouldParametrize()));
+        listBuffer.add(invokeStatic(SidCounter.class, "incrementAndGet"));
+        listBuffer.add(invokeStatic(EventTimestamps.class, "currentTimeNanos"));
+        addVariablesToBuffer(usedVariables, listBuffer);
+
+        final JCTree.JCMethodInvocation frame = treeMaker.Apply(
+                com.sun.tools.javac.util.List.nil(),
+                treeMaker.Select(eventClass(generatedClassInfo), names.fromString("encode")),
+                listBuffer.toList()
         );
-        listBuffer.add(treeMaker.Literal(level));
-        listBuffer.add(treeMaker.Apply(
+
+        final JCTree.JCMethodInvocation apply = treeMaker.Apply(
                 com.sun.tools.javac.util.List.nil(),
                 treeMaker.Select(
-                        treeMaker.Select(
-                                treeMaker.Ident(
-                                        names.fromString(
-                                                System.class.getPackage().getName()
-                                        )
-                                ),
-                                names.fromString(
-                                        System.class.getSimpleName()
-                                )
+                        treeMaker.Ident(
+                                elementUtils.getName(loggerName)
                         ),
-                        names.fromString("currentTimeMillis")
+                        elementUtils.getName("logFrame")
                 ),
-                List.nil())
+                com.sun.tools.javac.util.List.of(
+                        frame
+                )
         );
-        addVariablesToBuffer(usedVariables, listBuffer);
+        statementInfo.getStatement().expr = apply;
+
+        guardStatement(loggerName, generatedClassInfo, statementInfo, level);
+    }
 
-        final JCTree.JCNewClass jcNewClass = treeMaker.NewClass(
-                null,
+    // wraps statement into check, whether level is enabled on logger and event type is enabled in EventSwitchboard
+    private void guardStatement(final String loggerName, final GeneratedClassInfo generatedClassInfo, final StatementInfo statementInfo, final LogLevel level) {
+        final JCTree.JCMethodInvocation enabledCheck = treeMaker.Apply(
                 com.sun.tools.javac.util.List.nil(),
                 treeMaker.Select(
                         treeMaker.Ident(
-                                names.fromString(generatedClassInfo.getPackageName())
+                                elementUtils.getName(loggerName)
                         ),
-                        names.fromString(generatedClassInfo.getSimpleName())
+                        elementUtils.getName(level.getEnabledMethodName())
                 ),
-                listBuffer.toList(),
-                null);
-
-        final JCTree.JCMethodInvocation apply = treeMaker.Apply(
+                com.sun.tools.javac.util.List.nil()
+        );
+        final JCTree.JCMethodInvocation typeEnabledCheck = treeMaker.Apply(
                 com.sun.tools.javac.util.List.nil(),
                 treeMaker.Select(
-                        treeMaker.Ident(
-                                elementUtils.getName(loggerName)
+                        treeMaker.Select(
+                                treeMaker.Ident(
+                                        names.fromString(EventSwitchboard.class.getPackage().getName())
+                                ),
+                                names.fromString(EventSwitchboard.class.getSimpleName())
                         ),
-                        elementUtils.getName(level.toLowerCase() + "Event")
+                        names.fromString("isEnabled")
                 ),
                 com.sun.tools.javac.util.List.of(
-                        jcNewClass
+                        treeMaker.Select(eventClass(generatedClassInfo), names.fromString("TYPE_ID"))
                 )
         );
-        statementInfo.getStatement().expr = apply;
+        //when statement cannot be replaced in its parent, it is left unguarded
+        replaceStatement(
+                statementInfo.getParent(),
+                statementInfo.getStatement(),
+                treeMaker.If(treeMaker.Binary(JCTree.Tag.AND, enabledCheck, typeEnabledCheck), statementInfo.getStatement(), null)
+        );
     }
 
-    /**
-     *
-     * @param usedVariables used variables list
-     * @param literal string literal to be used as format pattern
-     * @return proper call to MessageFormatterUtils.format with arguments
-     */
-    private JCTree.JCMethodInvocation createFormatCall(final java.util.List<VariableAndValue> usedVariables, final JCTree.JCLiteral literal) {
-        final ListBuffer lb = new ListBuffer();
-        lb.add(literal);
-        addVariablesToBuffer(usedVariables, lb);
-
-        final Class<MessageFormatterUtils> messageFormatterUtilsClass = MessageFormatterUtils.class;
+    // fully qualified reference to generated event class
+    private JCTree.JCFieldAccess eventClass(final GeneratedClassInfo generatedClassInfo) {
+        return treeMaker.Select(
+                treeMaker.Ident(
+                        names.fromString(generatedClassInfo.getPackageName())
+                ),
+                names.fromString(generatedClassInfo.getSimpleName())
+        );
+    }
 
+    // invocation of static no-arg method of class
+    private JCTree.JCMethodInvocation invokeStatic(final Class<?> clazz, final String methodName) {
         return treeMaker.Apply(
-                List.nil(),
+                com.sun.tools.javac.util.List.nil(),
                 treeMaker.Select(
                         treeMaker.Select(
                                 treeMaker.Ident(
                                         names.fromString(
-                                                messageFormatterUtilsClass.getPackage().getName()
+                                                clazz.getPackage().getName()
                                         )
                                 ),
-                                names.fromString(messageFormatterUtilsClass.getSimpleName())
+                                names.fromString(
+                                        clazz.getSimpleName()
+                                )
                         ),
-                        names.fromString("format")
+                        names.fromString(methodName)
                 ),
-                lb.toList()
+                List.nil()
         );
     }
 
+    /**
+     * replaces statement in node enclosing it (block, if statement, loop,...) with replacement
+     * @param parent node enclosing statement
+     * @param statement to be replaced
+     * @param replacement to be put in place of statement
+     * @return false when statement was not replaced, because its parent is not supported
+     */
+    private boolean replaceStatement(final JCTree parent, final JCTree.JCStatement statement, final JCTree.JCStatement replacement) {
+        if (parent instanceof JCTree.JCBlock) {
+            final JCTree.JCBlock block = (JCTree.JCBlock) parent;
+            block.stats = replaceInList(block.stats, statement, replacement);
+        }
+        else if (parent instanceof JCTree.JCCase) {
+            final JCTree.JCCase jcCase = (JCTree.JCCase) parent;
+            jcCase.stats = replaceInList(jcCase.stats, statement, replacement);
+        }
+        else if (parent instanceof JCTree.JCIf) {
+            final JCTree.JCIf jcIf = (JCTree.JCIf) parent;
+            if (jcIf.thenpart == statement) {
+                jcIf.thenpart = replacement;
+            }
+            else {
+                jcIf.elsepart = replacement;
+            }
+        }
+        else if (parent instanceof JCTree.JCWhileLoop) {
+            ((JCTree.JCWhileLoop) parent).body = replacement;
+        }
+        else if (parent instanceof JCTree.JCDoWhileLoop) {
+            ((JCTree.JCDoWhileLoop) parent).body = replacement;
+        }
+        else if (parent instanceof JCTree.JCForLoop && ((JCTree.JCForLoop) parent).body == statement) {
+            ((JCTree.JCForLoop) parent).body = replacement;
+        }
+        else if (parent instanceof JCTree.JCEnhancedForLoop) {
+            ((JCTree.JCEnhancedForLoop) parent).body = replacement;
+        }
+        else if (parent instanceof JCTree.JCLabeledStatement) {
+            ((JCTree.JCLabeledStatement) parent).body = replacement;
+        }
+        else {
+            return false;
+        }
+        return true;
+    }
+
+    // returns copy of statements list, where statement is replaced with replacement
+    private List<JCTree.JCStatement> replaceInList(final List<JCTree.JCStatement> statements,
+                                                   final JCTree.JCStatement statement,
+                                                   final JCTree.JCStatement replacement) {
+        final ListBuffer<JCTree.JCStatement> listBuffer = new ListBuffer<>();
+        for (JCTree.JCStatement stat : statements) {
+            listBuffer.add(stat == statement ? replacement : stat);
+        }
+        return listBuffer.toList();
+    }
+
     // all used variables are added to listbuffer
     private void addVariablesToBuffer(final java.util.List<VariableAndValue> usedVariables, final ListBuffer listBuffer) {
         for (VariableAndValue variableAndValue : usedVariables) {
@@ -32,21 +32,25 @@ package com.github.structlogging.processor;
  * supported log levels and their corresponding names and method names
  */
 public enum LogLevel {
-    INFO("INFO", "info", "infoEvent"),
-    DEBUG("DEBUG", "debug", "debugEvent"),
-    ERROR("ERROR", "error", "errorEvent"),
-    TRACE("TRACE", "trace", "traceEvent"),
-    AUDIT("AUDIT", "audit", "auditEvent"),
-    WARN("WARN", "warn", "warnEvent");
+    INFO("INFO", "info", "infoEvent", "isInfoEnabled", 2),
+    DEBUG("DEBUG", "debug", "debugEvent", "isDebugEnabled", 1),
+    ERROR("ERROR", "error", "errorEvent", "isErrorEnabled", 4),
+    TRACE("TRACE", "trace", "traceEvent", "isTraceEnabled", 0),
+    AUDIT("AUDIT", "audit", "auditEvent", "isAuditEnabled", 5),
+    WARN("WARN", "warn", "warnEvent", "isWarnEnabled", 3);
 
     private final String levelName;
     private final String levelMethodName;
     private final String logEventMethodName;
+    private final String enabledMethodName;
+    private final int severity;
 
-    LogLevel(final String levelName, final String levelMethodName, final String logEventMethodName) {
+    LogLevel(final String levelName, final String levelMethodName, final String logEventMethodName, final String enabledMethodName, final int severity) {
         this.levelName = levelName;
         this.levelMethodName = levelMethodName;
         this.logEventMethodName = logEventMethodName;
+        this.enabledMethodName = enabledMethodName;
+        this.severity = severity;
     }
 
     public String getLevelName() {
@@ -60,4 +64,30 @@ public enum LogLevel {
     public String getLogEventMethodName() {
         return logEventMethodName;
     }
+
+    public String getEnabledMethodName() {
+        return enabledMethodName;
+    }
+
+    /**
+     * levels are ordered by severity TRACE, DEBUG, INFO, WARN, ERROR and AUDIT
+     * @param level to compare with
+     * @return true when this level is less severe than given level
+     */
+    public boolean isBelow(final LogLevel level) {
+        return severity < level.severity;
+    }
+
+    /**
+     * @param levelName name of level, case insensitive
+     * @return level with given name or null, when there is no such level
+     */
+    public static LogLevel forName(final String levelName) {
+        for (LogLevel level : values()) {
+            if (level.levelName.equalsIgnoreCase(levelName)) {
+                return level;
+            }
+        }
+        return null;
+    }
 }
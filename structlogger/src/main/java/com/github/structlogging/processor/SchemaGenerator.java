@@ -45,12 +45,14 @@ import java.util.Iterator;
 import java.util.Set;
 
 /**
- * TaskListener, which takes care of generating json schemas for logging events, after GENERATE phase of compilation
+ * TaskListener, which takes care of generating json schemas and Avro schemas for logging events, after GENERATE phase of compilation
  */
 public class SchemaGenerator implements TaskListener {
 
     private static final String SCHEMA_04 = "http://json-schema.org/draft-04/schema#";
     private static final String JSON_SUFFIX = ".json";
+    private static final String AVRO_SUFFIX = ".avsc";
+    private static final String AVRO_SCHEMA_FIELD = "AVRO_SCHEMA";
     private final ObjectMapper objectMapper = new ObjectMapper();
     private final JsonSchemaGenerator schemaGen = new JsonSchemaGenerator(objectMapper);
 
@@ -88,6 +90,7 @@ public class SchemaGenerator implements TaskListener {
                 schema.asObjectSchema().setTitle(generatedGeneratedClassInfo.getQualifiedName());
                 iterator.remove();
                 createSchemaFile(generatedGeneratedClassInfo.getPackageName(), generatedGeneratedClassInfo.getSimpleName(), schema);
+                createAvroSchemaFile(generatedGeneratedClassInfo.getPackageName(), generatedGeneratedClassInfo.getSimpleName(), clazz);
             } catch (Exception ex) {
                 //IGNORE class is not accessible via reflection API
             }
@@ -96,7 +99,7 @@ public class SchemaGenerator implements TaskListener {
 
     private void createSchemaFile(String namespace, String signature, JsonSchema schema) {
         try {
-            final String dir = getDir(namespace);
+            final String dir = getDir("events", namespace);
             Files.createDirectories(Paths.get(dir));
             FileOutputStream out = new FileOutputStream(dir + signature + JSON_SUFFIX);
             out.write(this.objectMapper.writerWithDefaultPrettyPrinter().writeValueAsBytes(schema));
@@ -106,12 +109,25 @@ public class SchemaGenerator implements TaskListener {
         }
     }
 
-    private String getDir(final String namespace) {
+    private void createAvroSchemaFile(String namespace, String signature, Class<?> clazz) {
+        try {
+            final String avroSchema = (String) clazz.getField(AVRO_SCHEMA_FIELD).get(null);
+            final String dir = getDir("avro", namespace);
+            Files.createDirectories(Paths.get(dir));
+            FileOutputStream out = new FileOutputStream(dir + signature + AVRO_SUFFIX);
+            out.write(this.objectMapper.writerWithDefaultPrettyPrinter().writeValueAsBytes(this.objectMapper.readTree(avroSchema)));
+            out.close();
+        } catch (IOException | ReflectiveOperationException e) {
+            e.printStackTrace();
+        }
+    }
+
+    private String getDir(final String kind, final String namespace) {
         final String pathWithoutNamespace = schemasRoot +
                 File.separator +
                 "schemas" +
                 File.separator +
-                "events" +
+                kind +
                 File.separator;
         if (!StringUtils.isBlank(namespace)) {
             return pathWithoutNamespace +
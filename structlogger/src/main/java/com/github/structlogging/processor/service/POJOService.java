@@ -28,10 +28,26 @@
  */
 package com.github.structlogging.processor.service;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.github.structlogging.LoggingEvent;
+import com.github.structlogging.processor.utils.CallSite;
+import com.github.structlogging.processor.utils.GeneratedClassInfo;
 import com.github.structlogging.processor.utils.VariableAndValue;
+import com.github.structlogging.utils.AvroWriter;
+import com.github.structlogging.utils.EventFrames;
+import com.github.structlogging.utils.EventTypes;
+import com.github.structlogging.utils.JsonWriter;
+import com.github.structlogging.utils.MessageFormatterUtils;
+import com.squareup.javapoet.ClassName;
+import com.squareup.javapoet.FieldSpec;
 import com.squareup.javapoet.JavaFile;
 import com.squareup.javapoet.MethodSpec;
+import com.squareup.javapoet.ParameterSpec;
+import com.squareup.javapoet.ParameterizedTypeName;
 import com.squareup.javapoet.TypeName;
 import com.squareup.javapoet.TypeSpec;
 import com.sun.tools.javac.tree.JCTree;
@@ -41,12 +57,18 @@ import org.apache.commons.lang3.StringUtils;
 
 import javax.annotation.processing.Filer;
 import javax.lang.model.element.Modifier;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
 import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Objects;
 import java.util.stream.Collectors;
 
 /**
@@ -112,16 +134,61 @@ public class POJOService {
             packageName = generatedEventsPackage;
         }
 
+        return buildPojo(packageName, eventName, usedVariables, Collections.emptyList(), false, false);
+    }
+
+    /**
+     * Create JavaFile representing POJO of already named event, which contains pre-encoded JSON fragments for all its call sites
+     *
+     * @param generatedClassInfo info about event class collected from all structured log statements creating it
+     * @return JavaFile representing Structured log Event (this JavaFile is not yet written, @see POJOService.writeJavaFile)
+     */
+    public JavaFile createPojo(final GeneratedClassInfo generatedClassInfo) {
+        return buildPojo(
+                generatedClassInfo.getPackageName(),
+                generatedClassInfo.getSimpleName(),
+                generatedClassInfo.getUsedVariables(),
+                generatedClassInfo.getCallSites(),
+                generatedClassInfo.isReusable(),
+                generatedClassInfo.isBinary()
+        );
+    }
+
+    private JavaFile buildPojo(final String packageName,
+                               final String eventName,
+                               final List<VariableAndValue> usedVariables,
+                               final List<CallSite> callSites,
+                               final boolean reusable,
+                               final boolean binary) {
         final TypeSpec.Builder classBuilder = TypeSpec.classBuilder(eventName)
                 .addModifiers(Modifier.PUBLIC)
                 .superclass(TypeName.get(LoggingEvent.class));
 
         final MethodSpec.Builder constructorBuilder = MethodSpec.constructorBuilder().addModifiers(Modifier.PUBLIC);
 
-        addCommonLoggingEventFieldsToConstructor(constructorBuilder);
+        final String type = StringUtils.isBlank(packageName) ? eventName : packageName + "." + eventName;
+        addTypeId(classBuilder, packageName, eventName, type, binary);
+
+        addCallSiteCheck(classBuilder, callSites);
+        addCommonLoggingEventFieldsToConstructor(constructorBuilder, usedVariables);
 
         for (VariableAndValue variableAndValue : usedVariables) {
-            addPojoField(classBuilder, constructorBuilder, variableAndValue.getVariable().getName().toString(), TypeName.get(variableAndValue.getVariable().getType()));
+            addPojoField(classBuilder, constructorBuilder, variableAndValue.getVariable().getName().toString(), TypeName.get(variableAndValue.getVariable().getType()), reusable);
+        }
+
+        if (reusable) {
+            addPoolMethods(classBuilder, packageName, eventName, usedVariables);
+        }
+
+        if (!usedVariables.isEmpty()) {
+            addFormatMessageMethod(classBuilder, usedVariables, callSites);
+        }
+
+        addWriteJsonMethod(classBuilder, type, usedVariables, callSites);
+        addAvroMethods(classBuilder, packageName, eventName, usedVariables);
+
+        if (binary) {
+            addFrameMethods(classBuilder, packageName, eventName, type, usedVariables, callSites);
         }
 
         final TypeSpec build = classBuilder.addMethod(constructorBuilder.build()).build();
@@ -129,6 +196,85 @@ public class POJOService {
         return JavaFile.builder(packageName, build).build();
     }
 
+    /**
+     * adds public constant TYPE_ID holding id of event type registered in {@link EventTypes} when class is initialized
+     * and override of {@link LoggingEvent#typeId()} returning it, decoder of binary event is registered in {@link EventFrames}
+     * under same id
+     * @param classBuilder class to modify
+     * @param packageName package of event
+     * @param eventName simple name of event
+     * @param type type of event
+     * @param binary whether event is written in binary frames
+     */
+    private void addTypeId(final TypeSpec.Builder classBuilder,
+                           final String packageName,
+                           final String eventName,
+                           final String type,
+                           final boolean binary) {
+        final FieldSpec.Builder typeId = FieldSpec.builder(TypeName.INT, "TYPE_ID", Modifier.PUBLIC, Modifier.STATIC, Modifier.FINAL);
+        if (binary) {
+            typeId.initializer("$T.register($T.register($S), $T::decode)", EventFrames.class, EventTypes.class, type, ClassName.get(packageName, eventName));
+        }
+        else {
+            typeId.initializer("$T.register($S)", EventTypes.class, type);
+        }
+        classBuilder.addField(typeId.build());
+        classBuilder.addMethod(
+                MethodSpec.methodBuilder("typeId")
+                        .addAnnotation(Override.class)
+                        .addModifiers(Modifier.PUBLIC)
+                        .returns(TypeName.INT)
+                        .addStatement("return TYPE_ID")
+                        .build()
+        );
+    }
+
+    /**
+     * adds constants of call sites and static checkCallSite method, which is used by constructor and populate method to verify,
+     * that statement passing call site index is the statement, which had this index when event class was generated,
+     * message is compared as well, because message formatter of call site is selected by index (see addFormatMessageMethod).
+     * Index is compiled into statement, while constants of call sites belong to event class, so statement compiled against
+     * another version of event class (e.g. when incremental compilation regenerates event class from some of statements creating it)
+     * can pass index of another statement, such event gets unknown call site -1 and is written without pre-encoded fragments
+     * @param classBuilder class to modify
+     * @param callSites statements creating event
+     */
+    private void addCallSiteCheck(final TypeSpec.Builder classBuilder, final List<CallSite> callSites) {
+        addCallSitesField(classBuilder, String[].class, "CALL_SITE_MESSAGES", "$S",
+                callSites.stream().map(CallSite::getMessage).collect(Collectors.toList()));
+        addCallSitesField(classBuilder, boolean[].class, "CALL_SITE_PARAMETRIZED", "$L",
+                callSites.stream().map(CallSite::isParametrizedMessage).collect(Collectors.toList()));
+        addCallSitesField(classBuilder, String[].class, "CALL_SITE_SOURCE_FILES", "$S",
+                callSites.stream().map(CallSite::getSourceFileName).collect(Collectors.toList()));
+        addCallSitesField(classBuilder, long[].class, "CALL_SITE_LINE_NUMBERS", "$LL",
+                callSites.stream().map(CallSite::getLineNumber).collect(Collectors.toList()));
+        addCallSitesField(classBuilder, String[].class, "CALL_SITE_LOG_LEVELS", "$S",
+                callSites.stream().map(callSite -> callSite.getLogLevel().getLevelName()).collect(Collectors.toList()));
+
+        classBuilder.addMethod(
+                MethodSpec.methodBuilder("checkCallSite")
+                        .addModifiers(Modifier.PRIVATE, Modifier.STATIC)
+                        .returns(TypeName.INT)
+                        .addParameter(TypeName.INT, "callSite", Modifier.FINAL)
+                        .addParameter(TypeName.get(String.class), "message", Modifier.FINAL)
+                        .addParameter(TypeName.get(String.class), "sourceFile", Modifier.FINAL)
+                        .addParameter(TypeName.LONG, "lineNumber", Modifier.FINAL)
+                        .addParameter(TypeName.get(String.class), "logLevel", Modifier.FINAL)
+                        .addParameter(TypeName.BOOLEAN, "parametrizedMessage", Modifier.FINAL)
+                        .beginControlFlow("if (callSite < 0 || callSite >= CALL_SITE_SOURCE_FILES.length)")
+                        .addStatement("return -1")
+                        .endControlFlow()
+                        .addCode("//constants are String literals, so they are usually compared by identity\n")
+                        .addStatement("final boolean matches = CALL_SITE_LINE_NUMBERS[callSite] == lineNumber\n"
+                                + "&& CALL_SITE_PARAMETRIZED[callSite] == parametrizedMessage\n"
+                                + "&& $T.equals(CALL_SITE_SOURCE_FILES[callSite], sourceFile)\n"
+                                + "&& $T.equals(CALL_SITE_LOG_LEVELS[callSite], logLevel)\n"
+                                + "&& $T.equals(CALL_SITE_MESSAGES[callSite], message)", Objects.class, Objects.class, Objects.class)
+                        .addStatement("return matches ? callSite : -1")
+                        .build()
+        );
+    }
+
     /**
      * Checks that string is not java keyword and is qualified java name
      * @param s to be checked
@@ -144,16 +290,693 @@ public class POJOService {
     /**
      * add common attributes to constructor
      * @param constructorBuilder to be modified
+     * @param usedVariables variables of event, which are parameters of constructor too
+     */
+    private void addCommonLoggingEventFieldsToConstructor(final MethodSpec.Builder constructorBuilder, final List<VariableAndValue> usedVariables) {
+        addCommonLoggingEventParameters(constructorBuilder, usedVariables);
+        constructorBuilder.addCode("super(" + commonLoggingEventArguments(usedVariables) + ");");
+    }
+
+    /**
+     * add parameters of common attributes to constructor or populate method, timestamp is in nanoseconds since epoch,
+     * names of parametrizedMessage and callSite parameters are suffixed when variable has same name
+     * @param methodBuilder to be modified
+     * @param usedVariables variables of event
+     */
+    private void addCommonLoggingEventParameters(final MethodSpec.Builder methodBuilder, final List<VariableAndValue> usedVariables) {
+        methodBuilder.addParameter(TypeName.get(String.class), "message", Modifier.FINAL);
+        methodBuilder.addParameter(TypeName.get(String.class), "sourceFile", Modifier.FINAL);
+        methodBuilder.addParameter(TypeName.LONG, "lineNumber", Modifier.FINAL);
+        methodBuilder.addParameter(TypeName.get(String.class), "type", Modifier.FINAL);
+        methodBuilder.addParameter(TypeName.LONG, "sid", Modifier.FINAL);
+        methodBuilder.addParameter(TypeName.get(String.class), "logLevel", Modifier.FINAL);
+        methodBuilder.addParameter(TypeName.LONG, "timestamp", Modifier.FINAL);
+        methodBuilder.addParameter(TypeName.BOOLEAN, freeName("parametrizedMessage", usedVariables), Modifier.FINAL);
+        methodBuilder.addParameter(TypeName.INT, freeName("callSite", usedVariables), Modifier.FINAL);
+    }
+
+    //arguments of LoggingEvent constructor and populateHeader method passed from parameters of common attributes
+    private static String commonLoggingEventArguments(final List<VariableAndValue> usedVariables) {
+        final String parametrizedMessage = freeName("parametrizedMessage", usedVariables);
+        final String callSite = freeName("callSite", usedVariables);
+        return "message,sourceFile,lineNumber,type,sid,logLevel,timestamp," + parametrizedMessage
+                + ",checkCallSite(" + callSite + ",message,sourceFile,lineNumber,logLevel," + parametrizedMessage + ")";
+    }
+
+    /**
+     * adds per-thread pool of event instances, populate method, which sets all attributes of instance, and static
+     * acquireAndPopulate method taking instance from pool and populating it, both have same parameters as constructor
+     * @param classBuilder class to modify
+     * @param packageName package of event
+     * @param eventName simple name of event
+     * @param usedVariables variables of event
+     */
+    private void addPoolMethods(final TypeSpec.Builder classBuilder,
+                                final String packageName,
+                                final String eventName,
+                                final List<VariableAndValue> usedVariables) {
+        final ClassName eventClass = ClassName.get(packageName, eventName);
+
+        classBuilder.addField(
+                FieldSpec.builder(ParameterizedTypeName.get(ClassName.get(ThreadLocal.class), eventClass), "POOL", Modifier.PRIVATE, Modifier.STATIC, Modifier.FINAL)
+                        .initializer("$T.withInitial($T::new)", ThreadLocal.class, eventClass)
+                        .build()
+        );
+
+        //constructor of reusable instance
+        classBuilder.addMethod(MethodSpec.constructorBuilder().addModifiers(Modifier.PRIVATE).build());
+
+        final MethodSpec.Builder populateBuilder = MethodSpec.methodBuilder("populate")
+                .addModifiers(Modifier.PUBLIC)
+                .returns(eventClass);
+        addCommonLoggingEventParameters(populateBuilder, usedVariables);
+        populateBuilder.addStatement("populateHeader(" + commonLoggingEventArguments(usedVariables) + ")");
+        for (VariableAndValue variableAndValue : usedVariables) {
+            final String fieldName = variableAndValue.getVariable().getName().toString();
+            populateBuilder.addParameter(TypeName.get(variableAndValue.getVariable().getType()), fieldName, Modifier.FINAL);
+            populateBuilder.addStatement("this." + fieldName + "=" + fieldName);
+        }
+        populateBuilder.addStatement("return this");
+        final MethodSpec populate = populateBuilder.build();
+        classBuilder.addMethod(populate);
+
+        //arguments are evaluated by caller before instance is acquired, so throwing argument cannot leave instance in use
+        final MethodSpec.Builder acquireAndPopulate = MethodSpec.methodBuilder("acquireAndPopulate")
+                .addModifiers(Modifier.PUBLIC, Modifier.STATIC)
+                .returns(eventClass);
+        for (ParameterSpec parameter : populate.parameters) {
+            acquireAndPopulate.addParameter(parameter);
+        }
+        final String event = freeName("event", usedVariables);
+        final String arguments = populate.parameters.stream().map(parameter -> parameter.name).collect(Collectors.joining(","));
+        acquireAndPopulate.addStatement("final $T $L = POOL.get()", eventClass, event)
+                .addCode("//instance of pool is already being logged on this thread, so new instance is used\n")
+                .addStatement("return ($L.tryAcquire() ? $L : new $T()).populate(" + arguments + ")", event, event, eventClass);
+        classBuilder.addMethod(acquireAndPopulate.build());
+    }
+
+    /**
+     * @param type type of variable
+     * @return whether variable of given type can be written into binary frame, which is true for primitives and Strings
+     */
+    public static boolean isEncodable(final TypeMirror type) {
+        return type.getKind().isPrimitive() || (type.getKind() == TypeKind.DECLARED && type.toString().equals(String.class.getName()));
+    }
+
+    /**
+     * adds static encode method, which writes variables and header of event into binary frame, and decoder of frames,
+     * which is registered in {@link EventFrames} under TYPE_ID when class is initialized (see addTypeId). Message, sourceFile, lineNumber and level
+     * are not part of frame, they are resolved by decoder from call site, whose index is written in frame header. Encoder receives constants
+     * of statement too, when they do not match constants of call site (see addCallSiteCheck), call site -1 is written followed by these constants
+     * @param classBuilder class to modify
+     * @param packageName package of event
+     * @param eventName simple name of event
+     * @param type type of event
+     * @param usedVariables variables of event, all of them must be encodable
+     * @param callSites statements creating event
+     */
+    private void addFrameMethods(final TypeSpec.Builder classBuilder,
+                                 final String packageName,
+                                 final String eventName,
+                                 final String type,
+                                 final List<VariableAndValue> usedVariables,
+                                 final List<CallSite> callSites) {
+        final ClassName eventClass = ClassName.get(packageName, eventName);
+
+        addCallSitesField(classBuilder, byte[].class, "CALL_SITE_LEVELS", "$L",
+                callSites.stream().map(callSite -> EventFrames.levelCode(callSite.getLogLevel().getLevelName())).collect(Collectors.toList()));
+
+        //variables are parameters of encode method, so local variables must not clash with them
+        final String frame = freeName("frame", usedVariables);
+        final String site = freeName("knownCallSite", usedVariables);
+        final String callSite = freeName("callSite", usedVariables);
+        final String parametrizedMessage = freeName("parametrizedMessage", usedVariables);
+
+        //constants of unknown call site are written after header
+        final StringBuilder size = new StringBuilder("$T.HEADER_SIZE + ($L < 0 ? $T.stringSize(message) + $T.stringSize(sourceFile) + 9 : 0)");
+        final List<Object> sizeArgs = new ArrayList<>();
+        sizeArgs.add(ByteBuffer.class);
+        sizeArgs.add(frame);
+        sizeArgs.add(EventFrames.class);
+        sizeArgs.add(EventFrames.class);
+        sizeArgs.add(site);
+        sizeArgs.add(EventFrames.class);
+        sizeArgs.add(EventFrames.class);
+        for (VariableAndValue variableAndValue : usedVariables) {
+            final TypeMirror variableType = variableAndValue.getVariable().getType();
+            if (variableType.getKind().isPrimitive()) {
+                size.append(" + ").append(primitiveSize(variableType.getKind()));
+            }
+            else {
+                size.append(" + $T.stringSize(").append(variableAndValue.getVariable().getName()).append(")");
+                sizeArgs.add(EventFrames.class);
+            }
+        }
+
+        final MethodSpec.Builder encode = MethodSpec.methodBuilder("encode")
+                .addModifiers(Modifier.PUBLIC, Modifier.STATIC)
+                .returns(ByteBuffer.class)
+                .addParameter(TypeName.INT, callSite, Modifier.FINAL)
+                .addParameter(TypeName.get(String.class), "message", Modifier.FINAL)
+                .addParameter(TypeName.get(String.class), "sourceFile", Modifier.FINAL)
+                .addParameter(TypeName.LONG, "lineNumber", Modifier.FINAL)
+                .addParameter(TypeName.get(String.class), "logLevel", Modifier.FINAL)
+                .addParameter(TypeName.BOOLEAN, parametrizedMessage, Modifier.FINAL)
+                .addParameter(TypeName.LONG, "sid", Modifier.FINAL)
+                .addParameter(TypeName.LONG, "timestamp", Modifier.FINAL);
+        for (VariableAndValue variableAndValue : usedVariables) {
+            encode.addParameter(TypeName.get(variableAndValue.getVariable().getType()), variableAndValue.getVariable().getName().toString(), Modifier.FINAL);
+        }
+        encode.addStatement("final int $L = checkCallSite($L, message, sourceFile, lineNumber, logLevel, $L)", site, callSite, parametrizedMessage)
+                .addStatement("final $T $L = $T.acquire(" + size + ")", sizeArgs.toArray())
+                .addStatement("$L.putInt($T.TYPE_ID)", frame, eventClass)
+                .addStatement("$L.put($L < 0 ? $T.levelCode(logLevel) : $T.CALL_SITE_LEVELS[$L])", frame, site, EventFrames.class, eventClass, site)
+                .addStatement("$L.putLong(sid)", frame)
+                .addStatement("$L.putLong(timestamp)", frame)
+                .addStatement("$L.putInt($L)", frame, site)
+                .beginControlFlow("if ($L < 0)", site)
+                .addStatement("$T.putString($L, message)", EventFrames.class, frame)
+                .addStatement("$T.putString($L, sourceFile)", EventFrames.class, frame)
+                .addStatement("$L.putLong(lineNumber)", frame)
+                .addStatement("$T.putBoolean($L, $L)", EventFrames.class, frame, parametrizedMessage)
+                .endControlFlow();
+        for (VariableAndValue variableAndValue : usedVariables) {
+            final TypeKind kind = variableAndValue.getVariable().getType().getKind();
+            final String name = variableAndValue.getVariable().getName().toString();
+            if (kind == TypeKind.BOOLEAN) {
+                encode.addStatement("$T.putBoolean($L, $L)", EventFrames.class, frame, name);
+            }
+            else if (kind.isPrimitive()) {
+                encode.addStatement("$L.$L($L)", frame, "put" + bufferMethodSuffix(kind), name);
+            }
+            else {
+                encode.addStatement("$T.putString($L, $L)", EventFrames.class, frame, name);
+            }
+        }
+        encode.addStatement("$L.flip()", frame)
+                .addStatement("return $L", frame);
+        classBuilder.addMethod(encode.build());
+
+        final StringBuilder decodedVariables = new StringBuilder();
+        final List<Object> decodeArgs = new ArrayList<>();
+        decodeArgs.add(eventClass);
+        decodeArgs.add(type);
+        decodeArgs.add(EventFrames.class);
+        for (VariableAndValue variableAndValue : usedVariables) {
+            final TypeKind kind = variableAndValue.getVariable().getType().getKind();
+            if (kind == TypeKind.BOOLEAN) {
+                decodedVariables.append(", $T.getBoolean(frame)");
+                decodeArgs.add(EventFrames.class);
+            }
+            else if (kind.isPrimitive()) {
+                decodedVariables.append(", frame.get").append(bufferMethodSuffix(kind)).append("()");
+            }
+            else {
+                decodedVariables.append(", $T.getString(frame)");
+                decodeArgs.add(EventFrames.class);
+            }
+        }
+
+        classBuilder.addMethod(
+                MethodSpec.methodBuilder("decode")
+                        .addModifiers(Modifier.PRIVATE, Modifier.STATIC)
+                        .returns(LoggingEvent.class)
+                        .addParameter(ByteBuffer.class, "frame", Modifier.FINAL)
+                        .addStatement("frame.getInt()")
+                        .addStatement("final byte level = frame.get()")
+                        .addStatement("final long sid = frame.getLong()")
+                        .addStatement("final long timestamp = frame.getLong()")
+                        .addStatement("final int callSite = frame.getInt()")
+                        .addStatement("final $T message", String.class)
+                        .addStatement("final $T sourceFile", String.class)
+                        .addStatement("final long lineNumber")
+                        .addStatement("final boolean parametrizedMessage")
+                        .beginControlFlow("if (callSite < 0)")
+                        .addStatement("message = $T.getString(frame)", EventFrames.class)
+                        .addStatement("sourceFile = $T.getString(frame)", EventFrames.class)
+                        .addStatement("lineNumber = frame.getLong()")
+                        .addStatement("parametrizedMessage = $T.getBoolean(frame)", EventFrames.class)
+                        .nextControlFlow("else")
+                        .addStatement("message = CALL_SITE_MESSAGES[callSite]")
+                        .addStatement("sourceFile = CALL_SITE_SOURCE_FILES[callSite]")
+                        .addStatement("lineNumber = CALL_SITE_LINE_NUMBERS[callSite]")
+                        .addStatement("parametrizedMessage = CALL_SITE_PARAMETRIZED[callSite]")
+                        .endControlFlow()
+                        .addCode("//variables are read in order of constructor arguments\n")
+                        .addStatement("return new $T(message, sourceFile, lineNumber, $S, sid, "
+                                + "$T.levelName(level), timestamp, parametrizedMessage, callSite" + decodedVariables + ")", decodeArgs.toArray())
+                        .build()
+        );
+    }
+
+    //adds static array field holding value of each call site, elementFormat is JavaPoet format of single value
+    private void addCallSitesField(final TypeSpec.Builder classBuilder,
+                                   final Class<?> arrayType,
+                                   final String name,
+                                   final String elementFormat,
+                                   final List<?> values) {
+        final String format = values.stream().map(value -> elementFormat).collect(Collectors.joining(",", "{", "}"));
+        classBuilder.addField(
+                FieldSpec.builder(TypeName.get(arrayType), name, Modifier.PRIVATE, Modifier.STATIC, Modifier.FINAL)
+                        .initializer(format, values.toArray())
+                        .build()
+        );
+    }
+
+    private static boolean isVariableName(final String name, final List<VariableAndValue> usedVariables) {
+        return usedVariables.stream().anyMatch(variableAndValue -> variableAndValue.getVariable().getName().contentEquals(name));
+    }
+
+    //name of generated parameter or local variable, which does not clash with variables of event
+    private static String freeName(final String name, final List<VariableAndValue> usedVariables) {
+        String result = name;
+        while (isVariableName(result, usedVariables)) {
+            result += "_";
+        }
+        return result;
+    }
+
+    //suffix of ByteBuffer get and put methods of primitive type, byte is written by put and get methods without suffix
+    private static String bufferMethodSuffix(final TypeKind kind) {
+        switch (kind) {
+            case BYTE:
+                return "";
+            case SHORT:
+                return "Short";
+            case CHAR:
+                return "Char";
+            case INT:
+                return "Int";
+            case LONG:
+                return "Long";
+            case FLOAT:
+                return "Float";
+            case DOUBLE:
+                return "Double";
+            default:
+                throw new IllegalArgumentException("type " + kind + " cannot be written into frame");
+        }
+    }
+
+    //count of bytes written into frame for value of primitive type
+    private static int primitiveSize(final TypeKind kind) {
+        switch (kind) {
+            case BOOLEAN:
+            case BYTE:
+                return 1;
+            case SHORT:
+            case CHAR:
+                return 2;
+            case INT:
+            case FLOAT:
+                return 4;
+            default:
+                return 8;
+        }
+    }
+
+    /**
+     * adds override of {@link LoggingEvent} formatMessage method, which replaces placeholders in message pattern with event variables,
+     * so that message is rendered lazily and only when it is needed.
+     * Message pattern of each call site is split into constant segments during compilation, so that message is rendered
+     * by appending segments and variables into builder without scanning pattern and boxing variables, rendered message
+     * is same as message rendered by slf4j MessageFormatter. Events having variable, which is not primitive, boxed primitive
+     * or String, and events of unknown call site are rendered by {@link MessageFormatterUtils}, event has known call site
+     * only when its message is pattern of that call site (see addCallSiteCheck)
+     * @param classBuilder class to modify
+     * @param usedVariables variables of event in order of placeholders
+     * @param callSites statements creating event
      */
-    private void addCommonLoggingEventFieldsToConstructor(final MethodSpec.Builder constructorBuilder) {
-        constructorBuilder.addParameter(TypeName.get(String.class), "message", Modifier.FINAL);
-        constructorBuilder.addParameter(TypeName.get(String.class), "sourceFile", Modifier.FINAL);
-        constructorBuilder.addParameter(TypeName.LONG, "lineNumber", Modifier.FINAL);
-        constructorBuilder.addParameter(TypeName.get(String.class), "type", Modifier.FINAL);
-        constructorBuilder.addParameter(TypeName.LONG, "sid", Modifier.FINAL);
-        constructorBuilder.addParameter(TypeName.get(String.class), "logLevel", Modifier.FINAL);
-        constructorBuilder.addParameter(TypeName.LONG, "timestamp", Modifier.FINAL);
-        constructorBuilder.addCode("super(message,sourceFile,lineNumber,type,sid,logLevel,timestamp);");
+    private void addFormatMessageMethod(final TypeSpec.Builder classBuilder,
+                                        final List<VariableAndValue> usedVariables,
+                                        final List<CallSite> callSites) {
+        final String arguments = usedVariables.stream()
+                .map(variableAndValue -> "this." + variableAndValue.getVariable().getName())
+                .collect(Collectors.joining(","));
+
+        final MethodSpec.Builder formatMessage = MethodSpec.methodBuilder("formatMessage")
+                .addAnnotation(Override.class)
+                .addModifiers(Modifier.PROTECTED)
+                .addParameter(TypeName.get(String.class), "messagePattern", Modifier.FINAL)
+                .addParameter(TypeName.get(StringBuilder.class), "builder", Modifier.FINAL);
+
+        final boolean specializable = usedVariables.stream().allMatch(variableAndValue -> isAppendable(variableAndValue.getVariable().getType()));
+        final boolean parametrized = callSites.stream().anyMatch(CallSite::isParametrizedMessage);
+        if (specializable && parametrized) {
+            formatMessage.beginControlFlow("switch (callSite())");
+            for (int i = 0; i < callSites.size(); i++) {
+                final CallSite callSite = callSites.get(i);
+                if (!callSite.isParametrizedMessage()) {
+                    continue;
+                }
+                final StringBuilder statement = new StringBuilder("builder");
+                final List<Object> args = new ArrayList<>();
+                for (Object segment : splitMessagePattern(callSite.getMessage(), usedVariables.size())) {
+                    if (segment instanceof String) {
+                        statement.append(".append($S)");
+                        args.add(segment);
+                    }
+                    else {
+                        statement.append(".append(this.$L)");
+                        args.add(usedVariables.get((Integer) segment).getVariable().getName());
+                    }
+                }
+                formatMessage.addCode("case $L:\n$>", i)
+                        .addStatement(statement.toString(), args.toArray())
+                        .addStatement("break")
+                        .addCode("$<");
+            }
+            formatMessage.addCode("default:\n$>")
+                    .addStatement("builder.append($T.format(messagePattern," + arguments + "))", MessageFormatterUtils.class)
+                    .addCode("$<")
+                    .endControlFlow();
+        }
+        else {
+            formatMessage.addStatement("builder.append($T.format(messagePattern," + arguments + "))", MessageFormatterUtils.class);
+        }
+
+        classBuilder.addMethod(formatMessage.build());
+    }
+
+    /**
+     * splits message pattern into constant segments and placeholders the same way as slf4j MessageFormatter does:
+     * placeholders are replaced by arguments in order, <code>\{}</code> is rendered as <code>{}</code>,
+     * <code>\\{}</code> is rendered as backslash followed by argument and rest of pattern after last argument
+     * (or whole pattern, when there are no arguments) is rendered as it is
+     * @param pattern message pattern with placeholders {}
+     * @param argumentCount count of arguments
+     * @return list of String segments and Integer indexes of arguments
+     */
+    static List<Object> splitMessagePattern(final String pattern, final int argumentCount) {
+        final List<Object> segments = new ArrayList<>();
+        final StringBuilder segment = new StringBuilder();
+        int i = 0;
+        for (int argument = 0; argument < argumentCount; argument++) {
+            final int j = pattern.indexOf("{}", i);
+            if (j == -1) {
+                break;
+            }
+            final boolean escaped = j >= 1 && pattern.charAt(j - 1) == '\\';
+            final boolean doubleEscaped = escaped && j >= 2 && pattern.charAt(j - 2) == '\\';
+            if (escaped && !doubleEscaped) {
+                //escaped placeholder does not consume argument
+                argument--;
+                segment.append(pattern, i, j - 1).append('{');
+                i = j + 1;
+            }
+            else {
+                segment.append(pattern, i, escaped ? j - 1 : j);
+                if (segment.length() > 0) {
+                    segments.add(segment.toString());
+                    segment.setLength(0);
+                }
+                segments.add(argument);
+                i = j + 2;
+            }
+        }
+        segment.append(pattern, i, pattern.length());
+        if (segment.length() > 0) {
+            segments.add(segment.toString());
+        }
+        return segments;
+    }
+
+    //whether value of type is appended to message same as slf4j MessageFormatter renders it, it can not be array or Throwable
+    private static boolean isAppendable(final TypeMirror type) {
+        if (type.getKind().isPrimitive()) {
+            return true;
+        }
+        if (type.getKind() != TypeKind.DECLARED) {
+            return false;
+        }
+        final String name = type.toString();
+        return name.equals(String.class.getName())
+                || name.equals(Boolean.class.getName())
+                || name.equals(Character.class.getName())
+                || name.equals(Byte.class.getName())
+                || name.equals(Short.class.getName())
+                || name.equals(Integer.class.getName())
+                || name.equals(Long.class.getName())
+                || name.equals(Float.class.getName())
+                || name.equals(Double.class.getName());
+    }
+
+    /**
+     * adds override of {@link LoggingEvent} writeJson method, which writes event using {@link JsonWriter},
+     * written JSON has same shape as JSON produced by Jackson bean serialization of event.
+     * All constant parts of JSON (field names, type and sourceFile, lineNumber and logLevel of each call site) are escaped
+     * and stored in static byte arrays, so that only timestamp, sid, message and variables are encoded at runtime
+     * @param classBuilder class to modify
+     * @param type type of event
+     * @param usedVariables variables of event
+     * @param callSites statements creating event, index of call site is passed to event constructor
+     */
+    private void addWriteJsonMethod(final TypeSpec.Builder classBuilder,
+                                    final String type,
+                                    final List<VariableAndValue> usedVariables,
+                                    final List<CallSite> callSites) {
+        final JsonWriter typeWriter = new JsonWriter();
+        typeWriter.writeStartObject();
+        typeWriter.writeField("type", type);
+        typeWriter.writeFieldName("timestamp");
+        addJsonFragmentField(classBuilder, "JSON_TYPE", typeWriter.toString());
+
+        final List<String> locations = new ArrayList<>();
+        final List<String> logLevels = new ArrayList<>();
+        for (CallSite callSite : callSites) {
+            final JsonWriter locationWriter = new JsonWriter();
+            locationWriter.writeField("sourceFile", callSite.getSourceFileName());
+            locationWriter.writeField("lineNumber", callSite.getLineNumber());
+            locationWriter.writeFieldName("sid");
+            locations.add("," + locationWriter);
+
+            final JsonWriter logLevelWriter = new JsonWriter();
+            logLevelWriter.writeField("logLevel", callSite.getLogLevel().getLevelName());
+            logLevelWriter.writeEndObject();
+            logLevels.add("," + logLevelWriter);
+        }
+        addJsonFragmentsField(classBuilder, "JSON_LOCATIONS", locations);
+        addJsonFragmentsField(classBuilder, "JSON_LOG_LEVELS", logLevels);
+
+        final List<String> fieldNames = jsonOrder(usedVariables).stream()
+                .map(variableAndValue -> variableAndValue.getVariable().getName().toString())
+                .collect(Collectors.toList());
+
+        final List<String> fields = new ArrayList<>();
+        for (String fieldName : fieldNames) {
+            final JsonWriter fieldWriter = new JsonWriter();
+            fieldWriter.writeFieldName(jsonPropertyName(fieldName));
+            fields.add("," + fieldWriter);
+        }
+        if (!fields.isEmpty()) {
+            addJsonFragmentsField(classBuilder, "JSON_FIELDS", fields);
+        }
+
+        final MethodSpec.Builder writeJson = MethodSpec.methodBuilder("writeJson")
+                .addAnnotation(Override.class)
+                .addModifiers(Modifier.PUBLIC)
+                .addParameter(TypeName.get(JsonWriter.class), "writer", Modifier.FINAL)
+                .addStatement("writeJsonHeader(writer, JSON_TYPE, JSON_LOCATIONS, JSON_LOG_LEVELS)");
+        for (int i = 0; i < fieldNames.size(); i++) {
+            writeJson.addStatement("writer.writeRaw(JSON_FIELDS[" + i + "])");
+            writeJson.addStatement("writer.writeValue(this." + fieldNames.get(i) + ")");
+        }
+        writeJson.addStatement("writer.writeEndObject()");
+        classBuilder.addMethod(writeJson.build());
+    }
+
+    //Jackson puts properties backed by field first and properties with renamed getter after them
+    private static List<VariableAndValue> jsonOrder(final List<VariableAndValue> usedVariables) {
+        final List<VariableAndValue> ordered = new ArrayList<>();
+        final List<VariableAndValue> renamed = new ArrayList<>();
+        for (VariableAndValue variableAndValue : usedVariables) {
+            final String fieldName = variableAndValue.getVariable().getName().toString();
+            if (jsonPropertyName(fieldName).equals(fieldName)) {
+                ordered.add(variableAndValue);
+            }
+            else {
+                renamed.add(variableAndValue);
+            }
+        }
+        ordered.addAll(renamed);
+        return ordered;
+    }
+
+    /**
+     * adds public static AVRO_SCHEMA field with Avro schema of event and override of {@link LoggingEvent} writeAvro method,
+     * which writes event in Avro binary encoding using {@link AvroWriter}. Schema has same structure and field names as JSON of event,
+     * context of event is nested record com.github.structlogging.LoggingEventContext
+     * @param classBuilder class to modify
+     * @param packageName package of event, used as namespace of record
+     * @param eventName simple name of event, used as name of record
+     * @param usedVariables variables of event
+     */
+    private void addAvroMethods(final TypeSpec.Builder classBuilder,
+                                final String packageName,
+                                final String eventName,
+                                final List<VariableAndValue> usedVariables) {
+        final JsonNodeFactory nodes = JsonNodeFactory.instance;
+
+        final ArrayNode contextFields = nodes.arrayNode();
+        addAvroField(contextFields, "message", nodes.arrayNode().add("null").add("string"));
+        addAvroField(contextFields, "sourceFile", nodes.textNode("string"));
+        addAvroField(contextFields, "lineNumber", nodes.textNode("long"));
+        addAvroField(contextFields, "sid", nodes.textNode("long"));
+        addAvroField(contextFields, "logLevel", nodes.textNode("string"));
+        final ObjectNode context = nodes.objectNode()
+                .put("type", "record")
+                .put("name", "LoggingEventContext")
+                .put("namespace", LoggingEvent.class.getPackage().getName());
+        context.set("fields", contextFields);
+
+        final ArrayNode fields = nodes.arrayNode();
+        addAvroField(fields, "type", nodes.textNode("string"));
+        addAvroField(fields, "timestamp", nodes.textNode("long"));
+        addAvroField(fields, "timestampNanos", nodes.textNode("long"));
+        addAvroField(fields, "context", context);
+
+        final MethodSpec.Builder writeAvro = MethodSpec.methodBuilder("writeAvro")
+                .addAnnotation(Override.class)
+                .addModifiers(Modifier.PUBLIC)
+                .addParameter(TypeName.get(AvroWriter.class), "writer", Modifier.FINAL)
+                .addStatement("writeAvroHeader(writer)");
+        for (VariableAndValue variableAndValue : jsonOrder(usedVariables)) {
+            final String fieldName = variableAndValue.getVariable().getName().toString();
+            final String writeMethod = avroWriteMethod(variableAndValue.getVariable().getType());
+            final String avroType = avroType(writeMethod);
+            addAvroField(
+                    fields,
+                    jsonPropertyName(fieldName),
+                    writeMethod.startsWith("writeNullable") ? nodes.arrayNode().add("null").add(avroType) : nodes.textNode(avroType)
+            );
+            writeAvro.addStatement("writer." + writeMethod + "(this." + fieldName + ")");
+        }
+
+        final ObjectNode schema = nodes.objectNode()
+                .put("type", "record")
+                .put("name", eventName);
+        if (!StringUtils.isBlank(packageName)) {
+            schema.put("namespace", packageName);
+        }
+        schema.set("fields", fields);
+
+        final String schemaJson;
+        try {
+            schemaJson = new ObjectMapper().writeValueAsString(schema);
+        } catch (IOException e) {
+            throw new IllegalStateException("unable to write Avro schema of event " + eventName, e);
+        }
+        classBuilder.addField(
+                FieldSpec.builder(TypeName.get(String.class), "AVRO_SCHEMA", Modifier.PUBLIC, Modifier.STATIC, Modifier.FINAL)
+                        .initializer("$S", schemaJson)
+                        .build()
+        );
+        classBuilder.addMethod(writeAvro.build());
+    }
+
+    private static void addAvroField(final ArrayNode fields, final String name, final JsonNode type) {
+        fields.addObject().put("name", name).set("type", type);
+    }
+
+    //name of AvroWriter method writing variable of given type, boxed types, Strings and other objects are written as nullable unions
+    private static String avroWriteMethod(final TypeMirror type) {
+        switch (type.getKind()) {
+            case BOOLEAN:
+                return "writeBoolean";
+            case BYTE:
+            case SHORT:
+            case INT:
+                return "writeInt";
+            case LONG:
+                return "writeLong";
+            case FLOAT:
+                return "writeFloat";
+            case DOUBLE:
+                return "writeDouble";
+            case CHAR:
+                return "writeChar";
+            default:
+        }
+        final String name = type.getKind() == TypeKind.DECLARED ? type.toString() : "";
+        if (name.equals(String.class.getName())) {
+            return "writeNullableString";
+        }
+        if (name.equals(Boolean.class.getName())) {
+            return "writeNullableBoolean";
+        }
+        if (name.equals(Byte.class.getName()) || name.equals(Short.class.getName()) || name.equals(Integer.class.getName())) {
+            return "writeNullableInt";
+        }
+        if (name.equals(Long.class.getName())) {
+            return "writeNullableLong";
+        }
+        if (name.equals(Float.class.getName())) {
+            return "writeNullableFloat";
+        }
+        if (name.equals(Double.class.getName())) {
+            return "writeNullableDouble";
+        }
+        if (name.equals(Character.class.getName())) {
+            return "writeNullableChar";
+        }
+        return "writeNullableJson";
+    }
+
+    //Avro primitive type written by AvroWriter method, characters and JSON of other objects are strings
+    private static String avroType(final String writeMethod) {
+        final String typeName = writeMethod.replace("writeNullable", "").replace("write", "");
+        switch (typeName) {
+            case "Char":
+            case "Json":
+                return "string";
+            default:
+                return typeName.toLowerCase();
+        }
+    }
+
+    //adds static field holding UTF-8 bytes of JSON fragment
+    private void addJsonFragmentField(final TypeSpec.Builder classBuilder, final String name, final String fragment) {
+        classBuilder.addField(
+                FieldSpec.builder(TypeName.get(byte[].class), name, Modifier.PRIVATE, Modifier.STATIC, Modifier.FINAL)
+                        .initializer("$S.getBytes($T.UTF_8)", fragment, StandardCharsets.class)
+                        .build()
+        );
+    }
+
+    //adds static field holding UTF-8 bytes of each JSON fragment
+    private void addJsonFragmentsField(final TypeSpec.Builder classBuilder, final String name, final List<String> fragments) {
+        final List<Object> args = new ArrayList<>();
+        for (String fragment : fragments) {
+            args.add(fragment);
+            args.add(StandardCharsets.class);
+        }
+        final String format = fragments.stream().map(fragment -> "$S.getBytes($T.UTF_8)").collect(Collectors.joining(",", "{", "}"));
+        classBuilder.addField(
+                FieldSpec.builder(TypeName.get(byte[][].class), name, Modifier.PRIVATE, Modifier.STATIC, Modifier.FINAL)
+                        .initializer(format, args.toArray())
+                        .build()
+        );
+    }
+
+    /**
+     * name of JSON property derived by Jackson from generated getter, leading upper case characters of getter name
+     * are lower cased, so e.g. getter getXValue of field xValue is serialized as property xvalue
+     * @param fieldName name of event field
+     * @return name of JSON property
+     */
+    static String jsonPropertyName(final String fieldName) {
+        final String getterSuffix = fieldName.substring(0, 1).toUpperCase() + fieldName.substring(1);
+        final StringBuilder builder = new StringBuilder(getterSuffix.length());
+        int i = 0;
+        for (; i < getterSuffix.length(); i++) {
+            final char c = getterSuffix.charAt(i);
+            final char lowerCase = Character.toLowerCase(c);
+            if (c == lowerCase) {
+                break;
+            }
+            builder.append(lowerCase);
+        }
+        return builder.append(getterSuffix, i, getterSuffix.length()).toString();
     }
 
     /**
@@ -173,12 +996,19 @@ public class POJOService {
      * @param constructorBuilder constructor to modify
      * @param fieldName field name to add
      * @param fieldClass class of field to be added
+     * @param reusable whether field is set repeatedly by populate method
      */
     private void addPojoField(final TypeSpec.Builder classBuilder,
                               final MethodSpec.Builder constructorBuilder,
                               final String fieldName,
-                              final TypeName fieldClass) {
-        classBuilder.addField(fieldClass, fieldName, Modifier.PRIVATE, Modifier.FINAL);
+                              final TypeName fieldClass,
+                              final boolean reusable) {
+        if (reusable) {
+            classBuilder.addField(fieldClass, fieldName, Modifier.PRIVATE);
+        }
+        else {
+            classBuilder.addField(fieldClass, fieldName, Modifier.PRIVATE, Modifier.FINAL);
+        }
         addGetter(classBuilder, fieldName, fieldClass);
         addConstructorParameter(constructorBuilder, fieldName, fieldClass);
     }
@@ -28,6 +28,7 @@
  */
 package com.github.structlogging.processor.utils;
 
+import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -40,6 +41,10 @@ public class GeneratedClassInfo {
     private final String description;
     private final List<VariableAndValue> usedVariables;
     private final String packageName;
+    private final List<CallSite> callSites = new ArrayList<>();
+    private boolean reusable; //whether some statement uses reusable instances of event
+    private boolean binary; //whether some statement writes event as binary frame
+    private boolean written; //whether class was already written by filer, so call sites added later are not known by generated class
 
     public GeneratedClassInfo(final String qualifiedName,
                               final String simpleName,
@@ -73,6 +78,43 @@ public class GeneratedClassInfo {
         return packageName;
     }
 
+    /**
+     * @param callSite statement creating this event
+     * @return index of call site, which is passed to generated event
+     */
+    public int addCallSite(final CallSite callSite) {
+        callSites.add(callSite);
+        return callSites.size() - 1;
+    }
+
+    public List<CallSite> getCallSites() {
+        return callSites;
+    }
+
+    public boolean isReusable() {
+        return reusable;
+    }
+
+    public void setReusable(final boolean reusable) {
+        this.reusable = reusable;
+    }
+
+    public boolean isBinary() {
+        return binary;
+    }
+
+    public void setBinary(final boolean binary) {
+        this.binary = binary;
+    }
+
+    public boolean isWritten() {
+        return written;
+    }
+
+    public void setWritten(final boolean written) {
+        this.written = written;
+    }
+
     @Override
     public boolean equals(final Object o) {
         if (this == o)
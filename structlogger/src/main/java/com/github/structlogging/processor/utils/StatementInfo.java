@@ -38,13 +38,16 @@ public class StatementInfo {
     private long lineNumber;
     private String sourceFileName;
     private JCTree.JCExpressionStatement statement;
+    private JCTree parent; //node enclosing statement, e.g. block or if statement
 
     public StatementInfo(final long lineNumber,
                          final String sourceFileName,
-                         final JCTree.JCExpressionStatement statement) {
+                         final JCTree.JCExpressionStatement statement,
+                         final JCTree parent) {
         this.lineNumber = lineNumber;
         this.sourceFileName = sourceFileName;
         this.statement = statement;
+        this.parent = parent;
     }
 
     public long getLineNumber() {
@@ -58,4 +61,8 @@ public class StatementInfo {
     public JCTree.JCExpressionStatement getStatement() {
         return statement;
     }
+
+    public JCTree getParent() {
+        return parent;
+    }
 }
@@ -34,17 +34,35 @@ import com.github.structlogging.annotation.LoggerContext;
 import javax.lang.model.type.TypeMirror;
 
 /**
- * Holder for context provider type specified by {@link LoggerContext} annotation on {@link StructLogger} field
+ * Holder for context provider type and reusableEvents and binaryFrames flags specified by {@link LoggerContext} annotation on {@link StructLogger} field
  */
 public class StructLoggerFieldContext {
 
     private final TypeMirror contextProvider;
+    private final boolean reusableEvents;
+    private final boolean binaryFrames;
 
-    public StructLoggerFieldContext(final TypeMirror contextProvider) {
+    public StructLoggerFieldContext(final TypeMirror contextProvider, final boolean reusableEvents, final boolean binaryFrames) {
         this.contextProvider = contextProvider;
+        this.reusableEvents = reusableEvents;
+        this.binaryFrames = binaryFrames;
     }
 
     public TypeMirror getContextProvider() {
         return contextProvider;
     }
+
+    /**
+     * @return whether statements of logger use reusable events
+     */
+    public boolean isReusableEvents() {
+        return reusableEvents;
+    }
+
+    /**
+     * @return whether statements of logger write binary frames
+     */
+    public boolean isBinaryFrames() {
+        return binaryFrames;
+    }
 }
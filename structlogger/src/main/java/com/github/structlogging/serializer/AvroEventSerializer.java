@@ -0,0 +1,67 @@
+/**
+ * Copyright © 2018, Ondrej Benkovsky
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ *
+ * The views and conclusions contained in the software and documentation are those
+ * of the authors and should not be interpreted as representing official policies,
+ * either expressed or implied, of the FreeBSD Project.
+ */
+package com.github.structlogging.serializer;
+
+import com.github.structlogging.LoggingEvent;
+import com.github.structlogging.utils.AvroWriter;
+import com.github.structlogging.utils.JsonWriter;
+
+/**
+ * Serializer of generated events into Avro binary encoding, events are written by their generated
+ * {@link LoggingEvent#writeAvro(AvroWriter)} method according to Avro schema in their AVRO_SCHEMA field,
+ * which is also written into schemas/avro directory when schemasRoot compiler argument is set
+ */
+public class AvroEventSerializer implements EventSerializer {
+
+    public static final AvroEventSerializer INSTANCE = new AvroEventSerializer();
+
+    private static final byte[] NO_SEPARATOR = new byte[0];
+
+    private AvroEventSerializer() {
+    }
+
+    @Override
+    public void serialize(final LoggingEvent event, final JsonWriter writer) {
+        final AvroWriter avroWriter = AvroWriter.acquire();
+        try {
+            event.writeAvro(avroWriter);
+            avroWriter.writeTo(writer);
+        } finally {
+            avroWriter.release();
+        }
+    }
+
+    /**
+     * @return empty array, values are delimited by schema of event
+     */
+    @Override
+    public byte[] recordSeparator() {
+        return NO_SEPARATOR;
+    }
+}
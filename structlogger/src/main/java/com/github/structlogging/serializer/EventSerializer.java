@@ -0,0 +1,57 @@
+/**
+ * Copyright © 2018, Ondrej Benkovsky
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ *
+ * The views and conclusions contained in the software and documentation are those
+ * of the authors and should not be interpreted as representing official policies,
+ * either expressed or implied, of the FreeBSD Project.
+ */
+package com.github.structlogging.serializer;
+
+import com.github.structlogging.LoggingEvent;
+import com.github.structlogging.utils.JsonWriter;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Serializer of logging events into caller supplied writer, serializer for event class is obtained from {@link EventSerializers},
+ * which is used by all built-in callbacks. Implementations have to be thread safe.
+ */
+public interface EventSerializer {
+
+    /**
+     * serializes event, appending its bytes to writer
+     * @param event to be serialized
+     * @param writer to write to, it is used as reusable buffer, implementations producing other formats than JSON
+     *               can append their bytes by {@link JsonWriter#writeRaw(byte[])} or {@link JsonWriter#outputStream()}
+     */
+    void serialize(LoggingEvent event, JsonWriter writer);
+
+    /**
+     * @return bytes written after each event by stream based callbacks, line separator by default,
+     *         serializers of self-delimiting binary formats return empty array
+     */
+    default byte[] recordSeparator() {
+        return System.lineSeparator().getBytes(StandardCharsets.UTF_8);
+    }
+}
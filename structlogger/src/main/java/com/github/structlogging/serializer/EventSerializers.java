@@ -0,0 +1,115 @@
+/**
+ * Copyright © 2018, Ondrej Benkovsky
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ *
+ * The views and conclusions contained in the software and documentation are those
+ * of the authors and should not be interpreted as representing official policies,
+ * either expressed or implied, of the FreeBSD Project.
+ */
+package com.github.structlogging.serializer;
+
+import com.github.structlogging.LoggingEvent;
+import com.github.structlogging.utils.JsonWriter;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Registry of event serializers keyed by event class, serializer of each class is resolved only once and cached in {@link ClassValue}.
+ *
+ * Unless other serializer is registered for event class, events generated by annotation processor are serialized by
+ * {@link GeneratedEventSerializer} and other events by {@link JacksonEventSerializer}.
+ */
+public final class EventSerializers {
+
+    private static final ConcurrentMap<Class<?>, EventSerializer> REGISTRATIONS = new ConcurrentHashMap<>();
+
+    private static final ClassValue<EventSerializer> SERIALIZERS = new ClassValue<EventSerializer>() {
+        @Override
+        protected EventSerializer computeValue(final Class<?> type) {
+            final EventSerializer registered = REGISTRATIONS.get(type);
+            if (registered != null) {
+                return registered;
+            }
+            return createDefault(type.asSubclass(LoggingEvent.class));
+        }
+    };
+
+    /**
+     * serializer, which serializes each event by serializer registered for its class
+     */
+    public static final EventSerializer REGISTERED = EventSerializers::serialize;
+
+    private EventSerializers() {
+    }
+
+    /**
+     * serializes event by serializer of its class
+     * @param event to be serialized
+     * @param writer to write to
+     */
+    public static void serialize(final LoggingEvent event, final JsonWriter writer) {
+        SERIALIZERS.get(event.getClass()).serialize(event, writer);
+    }
+
+    /**
+     * @param eventClass class of events
+     * @return serializer used for events of given class
+     */
+    public static EventSerializer get(final Class<? extends LoggingEvent> eventClass) {
+        return SERIALIZERS.get(eventClass);
+    }
+
+    /**
+     * registers serializer for events of given class, subclasses of it are not affected
+     * @param eventClass class of events
+     * @param serializer to be used for events of given class
+     */
+    public static void register(final Class<? extends LoggingEvent> eventClass, final EventSerializer serializer) {
+        if (serializer == null) {
+            throw new IllegalArgumentException("serializer cannot be null");
+        }
+        REGISTRATIONS.put(eventClass, serializer);
+        SERIALIZERS.remove(eventClass);
+    }
+
+    /**
+     * removes serializer registered for events of given class, default serializer is used for them afterwards
+     * @param eventClass class of events
+     */
+    public static void unregister(final Class<? extends LoggingEvent> eventClass) {
+        REGISTRATIONS.remove(eventClass);
+        SERIALIZERS.remove(eventClass);
+    }
+
+    private static EventSerializer createDefault(final Class<? extends LoggingEvent> eventClass) {
+        try {
+            if (eventClass.getMethod("writeJson", JsonWriter.class).getDeclaringClass() != LoggingEvent.class) {
+                return GeneratedEventSerializer.INSTANCE;
+            }
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException("logging event has no writeJson method", e);
+        }
+        return new JacksonEventSerializer(eventClass);
+    }
+}
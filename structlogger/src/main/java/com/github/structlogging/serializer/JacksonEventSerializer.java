@@ -0,0 +1,69 @@
+/**
+ * Copyright © 2018, Ondrej Benkovsky
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ *
+ * The views and conclusions contained in the software and documentation are those
+ * of the authors and should not be interpreted as representing official policies,
+ * either expressed or implied, of the FreeBSD Project.
+ */
+package com.github.structlogging.serializer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.github.structlogging.LoggingEvent;
+import com.github.structlogging.utils.JsonWriter;
+
+import java.io.IOException;
+
+/**
+ * Serializer of events using Jackson, ObjectWriter for event class is prebuilt, so serializer of class is not looked up for every event
+ */
+public class JacksonEventSerializer implements EventSerializer {
+
+    private final ObjectWriter objectWriter;
+
+    /**
+     * creates serializer using ObjectMapper shared with {@link JsonWriter}
+     * @param eventClass class of serialized events
+     */
+    public JacksonEventSerializer(final Class<? extends LoggingEvent> eventClass) {
+        this(JsonWriter.objectMapper(), eventClass);
+    }
+
+    /**
+     * @param objectMapper used to create ObjectWriter, e.g. mapper with binary data format
+     * @param eventClass class of serialized events
+     */
+    public JacksonEventSerializer(final ObjectMapper objectMapper, final Class<? extends LoggingEvent> eventClass) {
+        this.objectWriter = objectMapper.writerFor(eventClass);
+    }
+
+    @Override
+    public void serialize(final LoggingEvent event, final JsonWriter writer) {
+        try {
+            objectWriter.writeValue(writer.outputStream(), event);
+        } catch (IOException e) {
+            throw new RuntimeException("unable to serialize event", e);
+        }
+    }
+}
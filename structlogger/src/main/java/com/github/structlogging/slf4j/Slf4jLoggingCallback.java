@@ -28,30 +28,55 @@
  */
 package com.github.structlogging.slf4j;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.github.structlogging.LoggingEvent;
 import com.github.structlogging.LoggingCallback;
+import com.github.structlogging.serializer.EventSerializers;
+import com.github.structlogging.utils.JsonWriter;
 import org.slf4j.Logger;
+import org.slf4j.Marker;
 import org.slf4j.MarkerFactory;
 
 /**
- * Logging callback which serializes events as string and pass them to SLF4j inside log message
+ * Logging callback which serializes events as string and pass them to SLF4j inside log message,
+ * events are not serialized when level of SLF4j logger is disabled
  */
 public class Slf4jLoggingCallback implements LoggingCallback {
 
-    private static final ObjectMapper MAPPER = new ObjectMapper();
     private static final String AUDIT = "AUDIT";
+    private static final Marker AUDIT_MARKER = MarkerFactory.getMarker(AUDIT);
+    private static final String LAZY_PATTERN = "{}";
     private final Logger logger;
+    private final boolean lazySerialization;
 
     public Slf4jLoggingCallback(final Logger logger) {
+        this(logger, false);
+    }
+
+    /**
+     * @param logger SLF4j logger
+     * @param lazySerialization whether events are passed to SLF4j as argument of "{}" message pattern, which serializes event
+     *                          only when SLF4j implementation formats message, or not at all when message is filtered out
+     *                          before it is formatted. Serialization is not moved off logging thread, e.g. Logback
+     *                          AsyncAppender formats message on calling thread in prepareForDeferredProcessing,
+     *                          use {@link com.github.structlogging.logback.LogbackLoggingCallback} to pass events to Logback unformatted
+     */
+    public Slf4jLoggingCallback(final Logger logger, final boolean lazySerialization) {
         this.logger = logger;
+        this.lazySerialization = lazySerialization;
     }
 
     @Override
     public void info(final LoggingEvent e) {
+        if (!logger.isInfoEnabled()) {
+            return;
+        }
         try {
-            logger.info(serialize(e));
+            if (lazySerialization) {
+                logger.info(LAZY_PATTERN, new LazyJson(e));
+            }
+            else {
+                logger.info(serialize(e));
+            }
         } catch (Exception ex) {
             throw new RuntimeException("unable to serialize event", ex);
         }
@@ -59,8 +84,16 @@ public class Slf4jLoggingCallback implements LoggingCallback {
 
     @Override
     public void warn(final LoggingEvent e) {
+        if (!logger.isWarnEnabled()) {
+            return;
+        }
         try {
-            logger.warn(serialize(e));
+            if (lazySerialization) {
+                logger.warn(LAZY_PATTERN, new LazyJson(e));
+            }
+            else {
+                logger.warn(serialize(e));
+            }
         } catch (Exception ex) {
             throw new RuntimeException("unable to serialize event", ex);
         }
@@ -68,8 +101,16 @@ public class Slf4jLoggingCallback implements LoggingCallback {
 
     @Override
     public void debug(final LoggingEvent e) {
+        if (!logger.isDebugEnabled()) {
+            return;
+        }
         try {
-            logger.debug(serialize(e));
+            if (lazySerialization) {
+                logger.debug(LAZY_PATTERN, new LazyJson(e));
+            }
+            else {
+                logger.debug(serialize(e));
+            }
         } catch (Exception ex) {
             throw new RuntimeException("unable to serialize event", ex);
         }
@@ -77,8 +118,16 @@ public class Slf4jLoggingCallback implements LoggingCallback {
 
     @Override
     public void error(final LoggingEvent e) {
+        if (!logger.isErrorEnabled()) {
+            return;
+        }
         try {
-            logger.error(serialize(e));
+            if (lazySerialization) {
+                logger.error(LAZY_PATTERN, new LazyJson(e));
+            }
+            else {
+                logger.error(serialize(e));
+            }
         } catch (Exception ex) {
             throw new RuntimeException("unable to serialize event", ex);
         }
@@ -86,8 +135,16 @@ public class Slf4jLoggingCallback implements LoggingCallback {
 
     @Override
     public void trace(final LoggingEvent e) {
+        if (!logger.isTraceEnabled()) {
+            return;
+        }
         try {
-            logger.trace(serialize(e));
+            if (lazySerialization) {
+                logger.trace(LAZY_PATTERN, new LazyJson(e));
+            }
+            else {
+                logger.trace(serialize(e));
+            }
         } catch (Exception ex) {
             throw new RuntimeException("unable to serialize event", ex);
         }
@@ -98,14 +155,82 @@ public class Slf4jLoggingCallback implements LoggingCallback {
      */
     @Override
     public void audit(final LoggingEvent e) {
+        if (!logger.isInfoEnabled(AUDIT_MARKER)) {
+            return;
+        }
         try {
-            logger.info(MarkerFactory.getMarker(AUDIT), serialize(e));
+            if (lazySerialization) {
+                logger.info(AUDIT_MARKER, LAZY_PATTERN, new LazyJson(e));
+            }
+            else {
+                logger.info(AUDIT_MARKER, serialize(e));
+            }
         } catch (Exception ex) {
             throw new RuntimeException("unable to serialize event", ex);
         }
     }
 
-    private String serialize(LoggingEvent e) throws JsonProcessingException {
-        return MAPPER.writeValueAsString(e);
+    @Override
+    public boolean isInfoEnabled() {
+        return logger.isInfoEnabled();
+    }
+
+    @Override
+    public boolean isWarnEnabled() {
+        return logger.isWarnEnabled();
+    }
+
+    @Override
+    public boolean isDebugEnabled() {
+        return logger.isDebugEnabled();
+    }
+
+    @Override
+    public boolean isErrorEnabled() {
+        return logger.isErrorEnabled();
+    }
+
+    @Override
+    public boolean isTraceEnabled() {
+        return logger.isTraceEnabled();
+    }
+
+    /**
+     * audit events are enabled when INFO level of slf4j is enabled for AUDIT marker
+     */
+    @Override
+    public boolean isAuditEnabled() {
+        return logger.isInfoEnabled(AUDIT_MARKER);
+    }
+
+    private static String serialize(LoggingEvent e) {
+        final JsonWriter writer = JsonWriter.acquire();
+        try {
+            EventSerializers.serialize(e, writer);
+            return writer.toString();
+        } finally {
+            writer.release();
+        }
+    }
+
+    //message argument, which serializes event when SLF4j formats message, reusable event is copied, because it can be formatted later
+    private static final class LazyJson {
+
+        private final LoggingEvent event;
+        private String json;
+
+        LazyJson(final LoggingEvent event) {
+            this.event = event.snapshot();
+        }
+
+        @Override
+        public String toString() {
+            String result = json;
+            if (result == null) {
+                result = serialize(event);
+                json = result;
+            }
+            return result;
+        }
     }
 }
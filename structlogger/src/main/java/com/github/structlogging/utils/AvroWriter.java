@@ -0,0 +1,323 @@
+/**
+ * Copyright © 2018, Ondrej Benkovsky
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ *
+ * The views and conclusions contained in the software and documentation are those
+ * of the authors and should not be interpreted as representing official policies,
+ * either expressed or implied, of the FreeBSD Project.
+ */
+package com.github.structlogging.utils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+
+/**
+ * Writer of values in Avro binary encoding into reusable byte buffer, generated logging events use it to write themselves
+ * in order of fields of their Avro schema, field names are not written at all.
+ * Nullable values are written as unions of null (branch 0) and value (branch 1), values of not well-known types are written as JSON strings.
+ *
+ * Writer is not thread safe, use {@link #acquire()} to obtain writer of current thread.
+ */
+public final class AvroWriter {
+
+    private static final int INITIAL_CAPACITY = 256;
+    private static final int MAX_RETAINED_CAPACITY = 64 * 1024;
+
+    private static final ThreadLocal<AvroWriter> THREAD_WRITER = ThreadLocal.withInitial(AvroWriter::new);
+
+    private byte[] buffer = new byte[INITIAL_CAPACITY];
+    private int size;
+    private boolean acquired;
+    private final StringBuilder charBuffer = new StringBuilder(); //used for rendering messages
+
+    /**
+     * @return empty writer of current thread, which should be given back by {@link #release()},
+     *         new writer is returned when writer of current thread is already in use
+     */
+    public static AvroWriter acquire() {
+        final AvroWriter writer = THREAD_WRITER.get();
+        if (writer.acquired) {
+            return new AvroWriter();
+        }
+        writer.acquired = true;
+        writer.size = 0;
+        return writer;
+    }
+
+    /**
+     * gives writer back, so it can be reused by next {@link #acquire()} call of the same thread
+     */
+    public void release() {
+        acquired = false;
+        if (buffer.length > MAX_RETAINED_CAPACITY) {
+            buffer = new byte[INITIAL_CAPACITY];
+        }
+        size = 0;
+    }
+
+    /**
+     * discards all written content
+     */
+    public void reset() {
+        size = 0;
+    }
+
+    public void writeBoolean(final boolean value) {
+        ensureCapacity(1);
+        buffer[size++] = (byte) (value ? 1 : 0);
+    }
+
+    /**
+     * writes int as zig-zag encoded variable length number
+     * @param value to be written
+     */
+    public void writeInt(final int value) {
+        ensureCapacity(5);
+        int n = (value << 1) ^ (value >> 31);
+        while ((n & ~0x7F) != 0) {
+            buffer[size++] = (byte) ((n & 0x7F) | 0x80);
+            n >>>= 7;
+        }
+        buffer[size++] = (byte) n;
+    }
+
+    /**
+     * writes long as zig-zag encoded variable length number
+     * @param value to be written
+     */
+    public void writeLong(final long value) {
+        ensureCapacity(10);
+        long n = (value << 1) ^ (value >> 63);
+        while ((n & ~0x7FL) != 0) {
+            buffer[size++] = (byte) ((n & 0x7F) | 0x80);
+            n >>>= 7;
+        }
+        buffer[size++] = (byte) n;
+    }
+
+    public void writeFloat(final float value) {
+        ensureCapacity(4);
+        final int bits = Float.floatToIntBits(value);
+        buffer[size++] = (byte) bits;
+        buffer[size++] = (byte) (bits >>> 8);
+        buffer[size++] = (byte) (bits >>> 16);
+        buffer[size++] = (byte) (bits >>> 24);
+    }
+
+    public void writeDouble(final double value) {
+        ensureCapacity(8);
+        final long bits = Double.doubleToLongBits(value);
+        for (int shift = 0; shift < 64; shift += 8) {
+            buffer[size++] = (byte) (bits >>> shift);
+        }
+    }
+
+    /**
+     * writes character as string of length one
+     * @param value to be written
+     */
+    public void writeChar(final char value) {
+        charBuffer.setLength(0);
+        charBuffer.append(value);
+        writeString(charBuffer);
+    }
+
+    /**
+     * writes length of string followed by its UTF-8 bytes, unpaired surrogates are replaced by '?'
+     * @param value to be written, must not be null
+     */
+    public void writeString(final CharSequence value) {
+        final int length = value.length();
+        int utf8Length = 0;
+        for (int i = 0; i < length; i++) {
+            final char c = value.charAt(i);
+            if (c < 0x80) {
+                utf8Length++;
+            }
+            else if (c < 0x800) {
+                utf8Length += 2;
+            }
+            else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(value.charAt(i + 1))) {
+                utf8Length += 4;
+                i++;
+            }
+            else if (Character.isSurrogate(c)) {
+                utf8Length++;
+            }
+            else {
+                utf8Length += 3;
+            }
+        }
+        writeInt(utf8Length);
+        ensureCapacity(utf8Length);
+        final byte[] buf = buffer;
+        int position = size;
+        for (int i = 0; i < length; i++) {
+            final char c = value.charAt(i);
+            if (c < 0x80) {
+                buf[position++] = (byte) c;
+            }
+            else if (c < 0x800) {
+                buf[position++] = (byte) (0xC0 | (c >> 6));
+                buf[position++] = (byte) (0x80 | (c & 0x3F));
+            }
+            else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(value.charAt(i + 1))) {
+                final int codePoint = Character.toCodePoint(c, value.charAt(++i));
+                buf[position++] = (byte) (0xF0 | (codePoint >> 18));
+                buf[position++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+                buf[position++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+                buf[position++] = (byte) (0x80 | (codePoint & 0x3F));
+            }
+            else if (Character.isSurrogate(c)) {
+                buf[position++] = '?';
+            }
+            else {
+                buf[position++] = (byte) (0xE0 | (c >> 12));
+                buf[position++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                buf[position++] = (byte) (0x80 | (c & 0x3F));
+            }
+        }
+        size = position;
+    }
+
+    /**
+     * @param present whether value of nullable union follows
+     * @return whether value should be written
+     */
+    public boolean writeUnionIndex(final boolean present) {
+        ensureCapacity(1);
+        buffer[size++] = (byte) (present ? 2 : 0); //zig-zag encoded branch 1 or 0
+        return present;
+    }
+
+    public void writeNullableString(final CharSequence value) {
+        if (writeUnionIndex(value != null)) {
+            writeString(value);
+        }
+    }
+
+    public void writeNullableBoolean(final Boolean value) {
+        if (writeUnionIndex(value != null)) {
+            writeBoolean(value);
+        }
+    }
+
+    /**
+     * writes Byte, Short or Integer value as nullable int
+     * @param value to be written
+     */
+    public void writeNullableInt(final Number value) {
+        if (writeUnionIndex(value != null)) {
+            writeInt(value.intValue());
+        }
+    }
+
+    public void writeNullableLong(final Long value) {
+        if (writeUnionIndex(value != null)) {
+            writeLong(value);
+        }
+    }
+
+    public void writeNullableFloat(final Float value) {
+        if (writeUnionIndex(value != null)) {
+            writeFloat(value);
+        }
+    }
+
+    public void writeNullableDouble(final Double value) {
+        if (writeUnionIndex(value != null)) {
+            writeDouble(value);
+        }
+    }
+
+    public void writeNullableChar(final Character value) {
+        if (writeUnionIndex(value != null)) {
+            writeChar(value);
+        }
+    }
+
+    /**
+     * writes value of not well-known type as nullable string containing its JSON
+     * @param value to be written
+     */
+    public void writeNullableJson(final Object value) {
+        if (writeUnionIndex(value != null)) {
+            final JsonWriter jsonWriter = JsonWriter.acquire();
+            try {
+                jsonWriter.writeObject(value);
+                writeInt(jsonWriter.size());
+                ensureCapacity(jsonWriter.size());
+                size += jsonWriter.copyTo(buffer, size);
+            } finally {
+                jsonWriter.release();
+            }
+        }
+    }
+
+    /**
+     * @return empty reusable StringBuilder, which can be used to render string value before it is written
+     */
+    public StringBuilder charBuffer() {
+        charBuffer.setLength(0);
+        return charBuffer;
+    }
+
+    /**
+     * @return count of written bytes
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return copy of written bytes
+     */
+    public byte[] toByteArray() {
+        return Arrays.copyOf(buffer, size);
+    }
+
+    /**
+     * writes all written bytes into output stream using one write call
+     * @param outputStream to write to
+     * @throws IOException when output stream fails
+     */
+    public void writeTo(final OutputStream outputStream) throws IOException {
+        outputStream.write(buffer, 0, size);
+    }
+
+    /**
+     * appends all written bytes to JSON writer, which is used as byte buffer by serializers
+     * @param writer to append to
+     */
+    public void writeTo(final JsonWriter writer) {
+        writer.writeRaw(buffer, 0, size);
+    }
+
+    private void ensureCapacity(final int length) {
+        final int required = size + length;
+        if (required > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(required, buffer.length * 2));
+        }
+    }
+}
@@ -0,0 +1,178 @@
+/**
+ * Copyright © 2018, Ondrej Benkovsky
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ *
+ * The views and conclusions contained in the software and documentation are those
+ * of the authors and should not be interpreted as representing official policies,
+ * either expressed or implied, of the FreeBSD Project.
+ */
+package com.github.structlogging.utils;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Generator handing out blocks of sids to threads, thread touches shared counter only once per block,
+ * so threads do not contend on it. Sids are unique and increasing within each thread, sids of different threads
+ * are ordered roughly, up to size of block.
+ *
+ * Generators created by forNode methods put node id into 10 highest bits of sid, so that sids of different nodes never collide.
+ * Generator created by {@link #forNode(int, Path, int)} persists high-water mark of handed out sids into file before it hands them out
+ * and continues after it when node is restarted, so that sids stay unique across restarts. Generator created by
+ * {@link #forNode(int, long, int)} only starts counting from microseconds since epoch, sids of restarted node are usually higher,
+ * but they are not guaranteed to be unique, e.g. when previous run handed out sids faster than clock advanced.
+ * Only one generator may use same node id at a time.
+ */
+public class BlockSidGenerator implements SidGenerator {
+
+    private static final int NODE_BITS = 10;
+    private static final int COUNTER_BITS = Long.SIZE - 1 - NODE_BITS;
+    private static final int MAX_NODE_ID = (1 << NODE_BITS) - 1;
+    //count of blocks reserved by one write of high-water mark
+    private static final int RESERVED_BLOCKS = 1024;
+
+    private final AtomicLong nextBlock;
+    private final int blockSize;
+    private final ThreadLocal<Block> threadBlock = ThreadLocal.withInitial(Block::new);
+
+    private final Path highWaterMark; //null when high-water mark is not persisted
+    private volatile long reservedLimit; //sids lower than limit can be handed out, it is persisted in high-water mark
+
+    /**
+     * Constructs generator of sids starting at 1
+     * @param blockSize count of sids handed out to thread at once
+     */
+    public BlockSidGenerator(final int blockSize) {
+        this(1, blockSize);
+    }
+
+    /**
+     * @param firstSid first sid handed out
+     * @param blockSize count of sids handed out to thread at once
+     */
+    public BlockSidGenerator(final long firstSid, final int blockSize) {
+        this(firstSid, blockSize, null);
+    }
+
+    private BlockSidGenerator(final long firstSid, final int blockSize, final Path highWaterMark) {
+        if (blockSize <= 0) {
+            throw new IllegalArgumentException("blockSize must be positive");
+        }
+        this.nextBlock = new AtomicLong(firstSid);
+        this.blockSize = blockSize;
+        this.highWaterMark = highWaterMark;
+        //with high-water mark, nothing is reserved until first block is handed out
+        this.reservedLimit = highWaterMark == null ? Long.MAX_VALUE : firstSid;
+    }
+
+    /**
+     * @param nodeId id of node unique in cluster, from 0 to 1023
+     * @param epochMillis start of epoch in milliseconds since 1970, must not be in future,
+     *                    counter part of sids overflows 285 years after epoch
+     * @param blockSize count of sids handed out to thread at once
+     * @return generator of sids unique across nodes, see class documentation for sids of restarted node
+     */
+    public static BlockSidGenerator forNode(final int nodeId, final long epochMillis, final int blockSize) {
+        checkNodeId(nodeId);
+        final long micros = (System.currentTimeMillis() - epochMillis) * 1000;
+        if (micros < 0) {
+            throw new IllegalArgumentException("epoch must not be in future");
+        }
+        return new BlockSidGenerator(((long) nodeId << COUNTER_BITS) | micros, blockSize);
+    }
+
+    /**
+     * @param nodeId id of node unique in cluster, from 0 to 1023
+     * @param highWaterMark file, in which node keeps limit of sids it may have handed out, it is created when it does not exist,
+     *                      it is rewritten once per 1024 blocks of sids
+     * @param blockSize count of sids handed out to thread at once
+     * @return generator of sids unique across nodes and restarts, it continues after sids reserved by previous run of node
+     * @throws IOException when high-water mark cannot be read
+     */
+    public static BlockSidGenerator forNode(final int nodeId, final Path highWaterMark, final int blockSize) throws IOException {
+        checkNodeId(nodeId);
+        long firstSid = (long) nodeId << COUNTER_BITS;
+        if (Files.exists(highWaterMark)) {
+            final long reserved = Long.parseLong(new String(Files.readAllBytes(highWaterMark), StandardCharsets.UTF_8).trim());
+            if (reserved >>> COUNTER_BITS != nodeId) {
+                throw new IllegalArgumentException("high-water mark " + highWaterMark + " belongs to other node");
+            }
+            firstSid = Math.max(firstSid, reserved);
+        }
+        return new BlockSidGenerator(firstSid, blockSize, highWaterMark);
+    }
+
+    @Override
+    public long nextSid() {
+        final Block block = threadBlock.get();
+        if (block.next == block.limit) {
+            final long next = nextBlock.getAndAdd(blockSize);
+            if (next + blockSize > reservedLimit) {
+                reserve(next + blockSize);
+            }
+            block.next = next;
+            block.limit = next + blockSize;
+        }
+        return block.next++;
+    }
+
+    //persists new high-water mark, so that sids up to limit are never handed out again after restart
+    private synchronized void reserve(final long limit) {
+        if (limit <= reservedLimit) {
+            return;
+        }
+        final long reserved = limit + (long) RESERVED_BLOCKS * blockSize;
+        final Path temporary = highWaterMark.resolveSibling(highWaterMark.getFileName() + ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                channel.write(ByteBuffer.wrap(Long.toString(reserved).getBytes(StandardCharsets.UTF_8)));
+                channel.force(true);
+            }
+            Files.move(temporary, highWaterMark, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException ex) {
+            throw new IllegalStateException("unable to persist sid high-water mark " + highWaterMark, ex);
+        }
+        reservedLimit = reserved;
+    }
+
+    private static void checkNodeId(final int nodeId) {
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException("nodeId must be from 0 to " + MAX_NODE_ID);
+        }
+    }
+
+    /**
+     * Range of sids of one thread, next is handed out next, limit is first sid not belonging to range
+     */
+    private static final class Block {
+        private long next;
+        private long limit;
+    }
+}
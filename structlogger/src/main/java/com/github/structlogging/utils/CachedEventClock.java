@@ -0,0 +1,86 @@
+/**
+ * Copyright © 2018, Ondrej Benkovsky
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ *
+ * The views and conclusions contained in the software and documentation are those
+ * of the authors and should not be interpreted as representing official policies,
+ * either expressed or implied, of the FreeBSD Project.
+ */
+package com.github.structlogging.utils;
+
+import java.io.Closeable;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Clock returning time cached by background ticker thread, reading it costs one volatile read,
+ * timestamps have precision of tick interval and events logged within one tick get same timestamp
+ */
+public class CachedEventClock implements EventClock, Closeable {
+
+    private static final long NANOS_PER_MILLI = 1_000_000;
+
+    private final long tickNanos;
+    private final Thread ticker;
+    private volatile long currentTimeNanos;
+    private volatile boolean running = true;
+
+    /**
+     * Constructs clock and starts its ticker thread, which updates cached time every millisecond
+     */
+    public CachedEventClock() {
+        this(NANOS_PER_MILLI);
+    }
+
+    /**
+     * Constructs clock and starts its ticker thread
+     * @param tickNanos interval of updates of cached time in nanoseconds
+     */
+    public CachedEventClock(final long tickNanos) {
+        this.tickNanos = tickNanos;
+        this.currentTimeNanos = System.currentTimeMillis() * NANOS_PER_MILLI;
+        this.ticker = new Thread(this::tick, "structlogger-clock");
+        ticker.setDaemon(true);
+        ticker.start();
+    }
+
+    @Override
+    public long currentTimeNanos() {
+        return currentTimeNanos;
+    }
+
+    /**
+     * stops ticker thread, clock keeps returning last cached time
+     */
+    @Override
+    public void close() {
+        running = false;
+        LockSupport.unpark(ticker);
+    }
+
+    private void tick() {
+        while (running) {
+            currentTimeNanos = System.currentTimeMillis() * NANOS_PER_MILLI;
+            LockSupport.parkNanos(tickNanos);
+        }
+    }
+}
@@ -0,0 +1,201 @@
+/**
+ * Copyright © 2018, Ondrej Benkovsky
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ *
+ * The views and conclusions contained in the software and documentation are those
+ * of the authors and should not be interpreted as representing official policies,
+ * either expressed or implied, of the FreeBSD Project.
+ */
+package com.github.structlogging.utils;
+
+import com.github.structlogging.LoggingEvent;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Binary frames of events, which are written by statements of loggers with binary frames enabled instead of creating events.
+ *
+ * Frame consists of header (int type id, byte level, long sid, long timestamp in nanoseconds, int call site) followed by values of variables,
+ * primitives are written by corresponding put methods, Strings as int length (-1 for null) followed by chars.
+ * Call site -1 (statement compiled against other version of event class) is followed by message, sourceFile, long lineNumber
+ * and boolean parametrized flag of statement, which are otherwise resolved from call site by decoder.
+ * Type ids are assigned to generated event classes by {@link EventTypes} when they are initialized, so frame can be decoded only in JVM which encoded it.
+ */
+public final class EventFrames {
+
+    public static final int HEADER_SIZE = 4 + 1 + 8 + 8 + 4;
+
+    public static final int INFO = 0;
+    public static final int WARN = 1;
+    public static final int DEBUG = 2;
+    public static final int ERROR = 3;
+    public static final int TRACE = 4;
+    public static final int AUDIT = 5;
+
+    private static final String[] LEVEL_NAMES = {"INFO", "WARN", "DEBUG", "ERROR", "TRACE", "AUDIT"};
+
+    private static final int INITIAL_CAPACITY = 256;
+    private static final int MAX_RETAINED_CAPACITY = 64 * 1024;
+
+    private static final ThreadLocal<FrameBuffer> THREAD_BUFFER = ThreadLocal.withInitial(FrameBuffer::new);
+
+    private static volatile FrameDecoder[] decoders = new FrameDecoder[0];
+
+    private EventFrames() {
+    }
+
+    /**
+     * registers decoder of generated event class, called when event class is initialized
+     * @param typeId type id of event class assigned by {@link EventTypes}
+     * @param decoder decoder of frames of event class
+     * @return type id of event class
+     */
+    public static synchronized int register(final int typeId, final FrameDecoder decoder) {
+        final FrameDecoder[] current = decoders;
+        final FrameDecoder[] updated = new FrameDecoder[Math.max(current.length, typeId + 1)];
+        System.arraycopy(current, 0, updated, 0, current.length);
+        updated[typeId] = decoder;
+        decoders = updated;
+        return typeId;
+    }
+
+    /**
+     * @param frame frame positioned at its beginning
+     * @return event decoded by decoder of type of frame
+     */
+    public static LoggingEvent decode(final ByteBuffer frame) {
+        return decoders[frame.getInt(frame.position())].decode(frame);
+    }
+
+    /**
+     * @param frame frame positioned at its beginning
+     * @return level code of frame, e.g. {@link #INFO}
+     */
+    public static int level(final ByteBuffer frame) {
+        return frame.get(frame.position() + 4);
+    }
+
+    /**
+     * @param levelName name of level, e.g. INFO
+     * @return level code used in frame header
+     */
+    public static byte levelCode(final String levelName) {
+        for (int i = 0; i < LEVEL_NAMES.length; i++) {
+            if (LEVEL_NAMES[i].equals(levelName)) {
+                return (byte) i;
+            }
+        }
+        throw new IllegalArgumentException("unknown level " + levelName);
+    }
+
+    /**
+     * @param levelCode level code used in frame header
+     * @return name of level, e.g. INFO
+     */
+    public static String levelName(final int levelCode) {
+        return LEVEL_NAMES[levelCode];
+    }
+
+    /**
+     * @param size size of frame in bytes
+     * @return empty buffer of current thread with at least given capacity, which should be given back by {@link #release(ByteBuffer)},
+     *         new buffer is returned when buffer of current thread is already in use (e.g. event is logged by callback receiving another frame)
+     */
+    public static ByteBuffer acquire(final int size) {
+        final FrameBuffer frameBuffer = THREAD_BUFFER.get();
+        if (frameBuffer.acquired) {
+            return ByteBuffer.allocate(size).order(ByteOrder.nativeOrder());
+        }
+        if (frameBuffer.buffer.capacity() < size) {
+            frameBuffer.buffer = allocate(Math.max(size, frameBuffer.buffer.capacity() * 2));
+        }
+        frameBuffer.acquired = true;
+        frameBuffer.buffer.clear();
+        return frameBuffer.buffer;
+    }
+
+    /**
+     * gives buffer obtained by {@link #acquire(int)} back, so it can be reused by next frame of the same thread
+     * @param frame buffer to give back
+     */
+    public static void release(final ByteBuffer frame) {
+        final FrameBuffer frameBuffer = THREAD_BUFFER.get();
+        if (frameBuffer.buffer == frame) {
+            frameBuffer.acquired = false;
+            if (frame.capacity() > MAX_RETAINED_CAPACITY) {
+                frameBuffer.buffer = allocate(INITIAL_CAPACITY);
+            }
+        }
+    }
+
+    //buffers of threads are direct and use native byte order, so that multi-byte values are written by single memory access
+    private static ByteBuffer allocate(final int capacity) {
+        return ByteBuffer.allocateDirect(capacity).order(ByteOrder.nativeOrder());
+    }
+
+    /**
+     * @param value String to be written
+     * @return count of bytes written by {@link #putString(ByteBuffer, String)}
+     */
+    public static int stringSize(final String value) {
+        return value == null ? 4 : 4 + 2 * value.length();
+    }
+
+    public static void putString(final ByteBuffer frame, final String value) {
+        if (value == null) {
+            frame.putInt(-1);
+            return;
+        }
+        final int length = value.length();
+        frame.putInt(length);
+        for (int i = 0; i < length; i++) {
+            frame.putChar(value.charAt(i));
+        }
+    }
+
+    public static String getString(final ByteBuffer frame) {
+        final int length = frame.getInt();
+        if (length < 0) {
+            return null;
+        }
+        final char[] chars = new char[length];
+        for (int i = 0; i < length; i++) {
+            chars[i] = frame.getChar();
+        }
+        return new String(chars);
+    }
+
+    public static void putBoolean(final ByteBuffer frame, final boolean value) {
+        frame.put(value ? (byte) 1 : (byte) 0);
+    }
+
+    public static boolean getBoolean(final ByteBuffer frame) {
+        return frame.get() != 0;
+    }
+
+    private static final class FrameBuffer {
+        private ByteBuffer buffer = allocate(INITIAL_CAPACITY);
+        private boolean acquired;
+    }
+}
@@ -0,0 +1,244 @@
+/**
+ * Copyright © 2018, Ondrej Benkovsky
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ *
+ * The views and conclusions contained in the software and documentation are those
+ * of the authors and should not be interpreted as representing official policies,
+ * either expressed or implied, of the FreeBSD Project.
+ */
+package com.github.structlogging.utils;
+
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.MBeanRegistrationException;
+import javax.management.MBeanServer;
+import javax.management.MalformedObjectNameException;
+import javax.management.NotCompliantMBeanException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Runtime switchboard enabling and disabling logging of single event types, independently of log levels
+ *
+ * Each generated logging statement is guarded by {@link #isEnabled(int)} with TYPE_ID of its event class, so that
+ * disabled event is not created and variables of statement are not evaluated. Flags are kept in bitset indexed by
+ * ids from {@link EventTypes}, check is one volatile read and one bit probe. All types are enabled by default.
+ *
+ * Types are looked up by name without registering them, type, which is not registered yet, is kept as pending override
+ * and applied when its event class registers it, so that types can be switched before their classes are initialized.
+ *
+ * Switchboard can be controlled through static methods or through JMX after {@link #registerMBean()} is called.
+ */
+public final class EventSwitchboard {
+
+    /**
+     * name under which switchboard is registered in platform MBean server
+     */
+    public static final String OBJECT_NAME = "com.github.structlogging:type=EventSwitchboard";
+
+    // bitset of disabled type ids, replaced as a whole on each change
+    private static volatile long[] disabled = new long[0];
+
+    // disabled types, which are not registered yet, guarded by class lock
+    private static final Set<String> pendingDisabled = new TreeSet<>();
+
+    private EventSwitchboard() {
+    }
+
+    /**
+     * @param typeId id of event type, see {@link EventTypes}
+     * @return true when events of type should be logged
+     */
+    public static boolean isEnabled(final int typeId) {
+        final long[] current = disabled;
+        final int word = typeId >>> 6;
+        return word >= current.length || (current[word] & (1L << typeId)) == 0;
+    }
+
+    /**
+     * @param type of event
+     * @return true when events of type should be logged
+     */
+    public static boolean isEnabled(final String type) {
+        final int typeId = EventTypes.find(type);
+        if (typeId != EventTypes.UNKNOWN) {
+            return isEnabled(typeId);
+        }
+        synchronized (EventSwitchboard.class) {
+            return !pendingDisabled.contains(type);
+        }
+    }
+
+    /**
+     * stops logging of events with given type id
+     * @param typeId id of event type
+     */
+    public static synchronized void disable(final int typeId) {
+        final long[] current = disabled;
+        final int word = typeId >>> 6;
+        final long[] updated = new long[Math.max(current.length, word + 1)];
+        System.arraycopy(current, 0, updated, 0, current.length);
+        updated[word] |= 1L << typeId;
+        disabled = updated;
+    }
+
+    /**
+     * stops logging of events with given type, type without id is kept as pending and disabled when it is registered
+     * @param type of event
+     */
+    public static synchronized void disable(final String type) {
+        final int typeId = EventTypes.find(type);
+        if (typeId != EventTypes.UNKNOWN) {
+            disable(typeId);
+        } else {
+            pendingDisabled.add(type);
+        }
+    }
+
+    /**
+     * resumes logging of events with given type id
+     * @param typeId id of event type
+     */
+    public static synchronized void enable(final int typeId) {
+        final long[] current = disabled;
+        final int word = typeId >>> 6;
+        if (word >= current.length) {
+            return;
+        }
+        final long[] updated = current.clone();
+        updated[word] &= ~(1L << typeId);
+        disabled = updated;
+    }
+
+    /**
+     * resumes logging of events with given type
+     * @param type of event
+     */
+    public static synchronized void enable(final String type) {
+        final int typeId = EventTypes.find(type);
+        if (typeId != EventTypes.UNKNOWN) {
+            enable(typeId);
+        } else {
+            pendingDisabled.remove(type);
+        }
+    }
+
+    /**
+     * resumes logging of all event types
+     */
+    public static synchronized void enableAll() {
+        disabled = new long[0];
+        pendingDisabled.clear();
+    }
+
+    /**
+     * called by {@link EventTypes} when type gets its id, before id is visible to other threads,
+     * caller holds switchboard lock until id is published, so that no override by name is left pending for registered type
+     * @param type registered type
+     * @param typeId id of type
+     */
+    static synchronized void registered(final String type, final int typeId) {
+        if (pendingDisabled.remove(type)) {
+            disable(typeId);
+        }
+    }
+
+    /**
+     * @return types, which are currently disabled, in order of their ids, followed by pending types, which are not registered yet
+     */
+    public static synchronized String[] getDisabledTypes() {
+        final long[] current = disabled;
+        final List<String> types = new ArrayList<>();
+        for (int word = 0; word < current.length; word++) {
+            long bits = current[word];
+            while (bits != 0) {
+                final int typeId = (word << 6) + Long.numberOfTrailingZeros(bits);
+                if (typeId < EventTypes.count()) {
+                    types.add(EventTypes.type(typeId));
+                }
+                bits &= bits - 1;
+            }
+        }
+        types.addAll(pendingDisabled);
+        return types.toArray(new String[types.size()]);
+    }
+
+    /**
+     * registers switchboard in platform MBean server under {@link #OBJECT_NAME}, does nothing when already registered
+     * @return name of registered MBean
+     * @throws IllegalStateException when MBean cannot be registered
+     */
+    public static synchronized ObjectName registerMBean() {
+        try {
+            final ObjectName name = new ObjectName(OBJECT_NAME);
+            final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            if (!server.isRegistered(name)) {
+                server.registerMBean(new Management(), name);
+            }
+            return name;
+        } catch (MalformedObjectNameException | InstanceAlreadyExistsException | MBeanRegistrationException | NotCompliantMBeanException e) {
+            throw new IllegalStateException("EventSwitchboard MBean cannot be registered", e);
+        }
+    }
+
+    private static final class Management implements EventSwitchboardMXBean {
+
+        @Override
+        public void disable(final String type) {
+            EventSwitchboard.disable(type);
+        }
+
+        @Override
+        public void enable(final String type) {
+            EventSwitchboard.enable(type);
+        }
+
+        @Override
+        public void enableAll() {
+            EventSwitchboard.enableAll();
+        }
+
+        @Override
+        public boolean isEnabled(final String type) {
+            return EventSwitchboard.isEnabled(type);
+        }
+
+        @Override
+        public String[] getDisabledTypes() {
+            return EventSwitchboard.getDisabledTypes();
+        }
+
+        @Override
+        public String[] getRegisteredTypes() {
+            final int count = EventTypes.count();
+            final String[] types = new String[count];
+            for (int i = 0; i < count; i++) {
+                types[i] = EventTypes.type(i);
+            }
+            return types;
+        }
+    }
+}
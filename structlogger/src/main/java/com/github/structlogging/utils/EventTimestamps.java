@@ -0,0 +1,61 @@
+/**
+ * Copyright © 2018, Ondrej Benkovsky
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ *
+ * The views and conclusions contained in the software and documentation are those
+ * of the authors and should not be interpreted as representing official policies,
+ * either expressed or implied, of the FreeBSD Project.
+ */
+package com.github.structlogging.utils;
+
+/**
+ * Source of timestamps of events, generated events use it to get timestamp in nanoseconds since epoch.
+ *
+ * Timestamps are taken from {@link SystemEventClock} by default, clock can be replaced by {@link #setClock(EventClock)},
+ * e.g. by {@link CachedEventClock} for lowest overhead or by {@link NanoTimeEventClock} for sub-millisecond precision
+ */
+public class EventTimestamps {
+    private static volatile EventClock clock = new SystemEventClock(); //must be static, generated events use it to get timestamp
+
+    /**
+     * @return current time in nanoseconds since epoch
+     */
+    public static long currentTimeNanos() {
+        return clock.currentTimeNanos();
+    }
+
+    /**
+     * replaces clock of events
+     * @param eventClock clock used by all subsequently logged events
+     */
+    public static void setClock(final EventClock eventClock) {
+        clock = eventClock;
+    }
+
+    /**
+     * @return clock of events
+     */
+    public static EventClock getClock() {
+        return clock;
+    }
+}
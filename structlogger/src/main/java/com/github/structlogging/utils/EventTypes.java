@@ -0,0 +1,152 @@
+/**
+ * Copyright © 2018, Ondrej Benkovsky
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ *
+ * The views and conclusions contained in the software and documentation are those
+ * of the authors and should not be interpreted as representing official policies,
+ * either expressed or implied, of the FreeBSD Project.
+ */
+package com.github.structlogging.utils;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.Enumeration;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Registry assigning dense int ids to event types, so that callbacks can keep per-type state (counters, topics, flags)
+ * in arrays indexed by {@link com.github.structlogging.LoggingEvent#typeId()} instead of maps keyed by type name.
+ *
+ * Each generated event class registers its type when it is initialized and keeps its id in public static final field TYPE_ID,
+ * ids are assigned from 0 in order of registration and same type name always gets same id. Annotation processor lists
+ * event classes generated by each compilation in resource {@link #REGISTRY_RESOURCE}, {@link #registerAll(ClassLoader)}
+ * initializes all listed classes in order of their names, so that ids are same in each run with same classpath.
+ * Ids are valid only within one JVM.
+ */
+public final class EventTypes {
+
+    /**
+     * resource listing qualified names of event classes generated by one compilation, one per line
+     */
+    public static final String REGISTRY_RESOURCE = "META-INF/structlogger/events";
+
+    private static final ConcurrentMap<String, Integer> IDS = new ConcurrentHashMap<>();
+
+    private static volatile String[] types = new String[0];
+
+    private EventTypes() {
+    }
+
+    /**
+     * id returned by {@link #find(String)} for types, which are not registered
+     */
+    public static final int UNKNOWN = -1;
+
+    /**
+     * registers type of generated event class, ids are never released, so types should be registered only by classes
+     * generated by annotation processor, other code looks types up by {@link #find(String)}
+     * @param type type of event
+     * @return id of type, type is registered when it has no id yet
+     */
+    public static int register(final String type) {
+        final Integer id = IDS.get(type);
+        if (id != null) {
+            return id;
+        }
+        synchronized (EventTypes.class) {
+            final Integer existing = IDS.get(type);
+            if (existing != null) {
+                return existing;
+            }
+            final String[] current = types;
+            final String[] updated = new String[current.length + 1];
+            System.arraycopy(current, 0, updated, 0, current.length);
+            updated[current.length] = type;
+            // id is published under switchboard lock, so that override of type by name is either pending or applied to its id
+            synchronized (EventSwitchboard.class) {
+                EventSwitchboard.registered(type, current.length); //applies pending override before id is published
+                types = updated;
+                IDS.put(type, current.length);
+            }
+            return current.length;
+        }
+    }
+
+    /**
+     * looks type up without registering it
+     * @param type type of event
+     * @return id of type, or {@link #UNKNOWN} when type is not registered
+     */
+    public static int find(final String type) {
+        final Integer id = IDS.get(type);
+        return id != null ? id : UNKNOWN;
+    }
+
+    /**
+     * @param typeId id of type
+     * @return type with given id
+     * @throws ArrayIndexOutOfBoundsException when no type has given id
+     */
+    public static String type(final int typeId) {
+        return types[typeId];
+    }
+
+    /**
+     * @return count of registered types, ids of all registered types are lower than count
+     */
+    public static int count() {
+        return types.length;
+    }
+
+    /**
+     * registers types of all event classes listed in {@link #REGISTRY_RESOURCE} resources of class loader
+     * by initializing these classes in order of their names
+     * @param classLoader used to find resources and load classes
+     * @return count of registered types
+     * @throws IOException when resource cannot be read
+     * @throws ClassNotFoundException when listed class cannot be loaded
+     */
+    public static int registerAll(final ClassLoader classLoader) throws IOException, ClassNotFoundException {
+        final TreeSet<String> classNames = new TreeSet<>();
+        final Enumeration<URL> resources = classLoader.getResources(REGISTRY_RESOURCE);
+        while (resources.hasMoreElements()) {
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(resources.nextElement().openStream(), StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (!line.trim().isEmpty()) {
+                        classNames.add(line.trim());
+                    }
+                }
+            }
+        }
+        for (String className : classNames) {
+            Class.forName(className, true, classLoader);
+        }
+        return count();
+    }
+}
@@ -0,0 +1,498 @@
+/**
+ * Copyright © 2018, Ondrej Benkovsky
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ *
+ * The views and conclusions contained in the software and documentation are those
+ * of the authors and should not be interpreted as representing official policies,
+ * either expressed or implied, of the FreeBSD Project.
+ */
+package com.github.structlogging.utils;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Writer of JSON objects, which encodes JSON directly as UTF-8 into reusable byte buffer.
+ * Generated logging events use it to serialize themselves field by field without Jackson bean introspection,
+ * output is same as output of default Jackson ObjectMapper, which is still used for values of not well-known types.
+ *
+ * Writer is not thread safe, use {@link #acquire()} to obtain writer of current thread.
+ */
+public final class JsonWriter {
+
+    private static final int INITIAL_CAPACITY = 512;
+    private static final int MAX_RETAINED_CAPACITY = 64 * 1024;
+
+    private static final byte[] HEX = "0123456789ABCDEF".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] NULL = "null".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] TRUE = "true".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] FALSE = "false".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] LONG_MIN_VALUE = String.valueOf(Long.MIN_VALUE).getBytes(StandardCharsets.US_ASCII);
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private static final ThreadLocal<JsonWriter> THREAD_WRITER = ThreadLocal.withInitial(JsonWriter::new);
+
+    private byte[] buffer = new byte[INITIAL_CAPACITY];
+    private int size;
+    private boolean needsComma;
+    private boolean acquired;
+    private final StringBuilder charBuffer = new StringBuilder(); //used for rendering messages and floating point numbers
+    private final OutputStream outputStream = new WriterOutputStream();
+
+    /**
+     * @return ObjectMapper shared by all writers and Jackson based serializers of events
+     */
+    public static ObjectMapper objectMapper() {
+        return MAPPER;
+    }
+
+    /**
+     * @return empty writer of current thread, which should be given back by {@link #release()},
+     *         new writer is returned when writer of current thread is already in use (e.g. event is logged during serialization of another event)
+     */
+    public static JsonWriter acquire() {
+        final JsonWriter writer = THREAD_WRITER.get();
+        if (writer.acquired) {
+            return new JsonWriter();
+        }
+        writer.acquired = true;
+        writer.reset();
+        return writer;
+    }
+
+    /**
+     * gives writer back, so it can be reused by next {@link #acquire()} call of the same thread
+     */
+    public void release() {
+        acquired = false;
+        if (buffer.length > MAX_RETAINED_CAPACITY) {
+            buffer = new byte[INITIAL_CAPACITY];
+        }
+        size = 0;
+    }
+
+    /**
+     * discards all written content
+     */
+    public void reset() {
+        size = 0;
+        needsComma = false;
+    }
+
+    public void writeStartObject() {
+        writeByte('{');
+        needsComma = false;
+    }
+
+    public void writeEndObject() {
+        writeByte('}');
+        needsComma = true;
+    }
+
+    /**
+     * writes field name followed by colon, separating it from previous field by comma when needed
+     * @param name of field
+     */
+    public void writeFieldName(final String name) {
+        if (needsComma) {
+            writeByte(',');
+        }
+        writeQuoted(name);
+        writeByte(':');
+        needsComma = false;
+    }
+
+    public void writeField(final String name, final String value) {
+        writeFieldName(name);
+        writeString(value);
+    }
+
+    public void writeField(final String name, final long value) {
+        writeFieldName(name);
+        writeValue(value);
+    }
+
+    public void writeField(final String name, final int value) {
+        writeFieldName(name);
+        writeValue(value);
+    }
+
+    public void writeField(final String name, final double value) {
+        writeFieldName(name);
+        writeValue(value);
+    }
+
+    public void writeField(final String name, final float value) {
+        writeFieldName(name);
+        writeValue(value);
+    }
+
+    public void writeField(final String name, final boolean value) {
+        writeFieldName(name);
+        writeValue(value);
+    }
+
+    public void writeField(final String name, final char value) {
+        writeFieldName(name);
+        writeValue(value);
+    }
+
+    public void writeField(final String name, final Object value) {
+        writeFieldName(name);
+        writeObject(value);
+    }
+
+    public void writeValue(final long value) {
+        writeLong(value);
+        needsComma = true;
+    }
+
+    public void writeValue(final int value) {
+        writeValue((long) value);
+    }
+
+    public void writeValue(final double value) {
+        writeDouble(value);
+        needsComma = true;
+    }
+
+    public void writeValue(final float value) {
+        writeFloat(value);
+        needsComma = true;
+    }
+
+    public void writeValue(final boolean value) {
+        writeRaw(value ? TRUE : FALSE);
+        needsComma = true;
+    }
+
+    public void writeValue(final char value) {
+        charBuffer.setLength(0);
+        charBuffer.append(value);
+        writeString(charBuffer);
+    }
+
+    public void writeValue(final String value) {
+        writeString(value);
+    }
+
+    public void writeValue(final Object value) {
+        writeObject(value);
+    }
+
+    /**
+     * writes string value, null is written as JSON null
+     * @param value to be written
+     */
+    public void writeString(final CharSequence value) {
+        if (value == null) {
+            writeRaw(NULL);
+        }
+        else {
+            writeQuoted(value);
+        }
+        needsComma = true;
+    }
+
+    /**
+     * writes value, strings, numbers, booleans and characters are written directly, other types are serialized by Jackson
+     * @param value to be written
+     */
+    public void writeObject(final Object value) {
+        if (value == null) {
+            writeRaw(NULL);
+        }
+        else if (value instanceof String) {
+            writeQuoted((String) value);
+        }
+        else if (value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof Byte) {
+            writeLong(((Number) value).longValue());
+        }
+        else if (value instanceof Double) {
+            writeDouble((Double) value);
+        }
+        else if (value instanceof Float) {
+            writeFloat((Float) value);
+        }
+        else if (value instanceof Boolean) {
+            writeRaw((Boolean) value ? TRUE : FALSE);
+        }
+        else if (value instanceof Character) {
+            charBuffer.setLength(0);
+            charBuffer.append((char) (Character) value);
+            writeQuoted(charBuffer);
+        }
+        else {
+            try {
+                MAPPER.writeValue(outputStream, value);
+            } catch (IOException e) {
+                throw new RuntimeException("unable to serialize object", e);
+            }
+        }
+        needsComma = true;
+    }
+
+    /**
+     * @return empty reusable StringBuilder, which can be used to render string value before it is written by {@link #writeString(CharSequence)}
+     */
+    public StringBuilder charBuffer() {
+        charBuffer.setLength(0);
+        return charBuffer;
+    }
+
+    /**
+     * @return view of this writer as output stream, written bytes are appended to writer as they are,
+     *         so it can be passed to serializers, which write into output streams (e.g. Jackson ObjectWriter)
+     */
+    public OutputStream outputStream() {
+        return outputStream;
+    }
+
+    /**
+     * writes already encoded JSON fragment, e.g. pre-encoded constant parts of event, fragment has to contain all needed commas
+     * @param bytes UTF-8 encoded JSON fragment
+     */
+    public void writeRaw(final byte[] bytes) {
+        writeRaw(bytes, 0, bytes.length);
+    }
+
+    public void writeRaw(final byte[] bytes, final int offset, final int length) {
+        ensureCapacity(length);
+        System.arraycopy(bytes, offset, buffer, size, length);
+        size += length;
+    }
+
+    /**
+     * @return count of written bytes
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return copy of written bytes
+     */
+    public byte[] toByteArray() {
+        return Arrays.copyOf(buffer, size);
+    }
+
+    /**
+     * copies written bytes into array
+     * @param bytes to copy into, it must have enough space
+     * @param offset in array
+     * @return count of copied bytes
+     */
+    public int copyTo(final byte[] bytes, final int offset) {
+        System.arraycopy(buffer, 0, bytes, offset, size);
+        return size;
+    }
+
+    /**
+     * writes all written bytes into output stream using one write call
+     * @param outputStream to write to
+     * @throws IOException when output stream fails
+     */
+    public void writeTo(final OutputStream outputStream) throws IOException {
+        outputStream.write(buffer, 0, size);
+    }
+
+    /**
+     * puts all written bytes into byte buffer at its position
+     * @param byteBuffer to put bytes into, it must have enough remaining space
+     */
+    public void writeTo(final ByteBuffer byteBuffer) {
+        byteBuffer.put(buffer, 0, size);
+    }
+
+    /**
+     * appends all written bytes to another writer
+     * @param writer to append to
+     */
+    public void writeTo(final JsonWriter writer) {
+        writer.writeRaw(buffer, 0, size);
+    }
+
+    /**
+     * @return written JSON as String
+     */
+    @Override
+    public String toString() {
+        return new String(buffer, 0, size, StandardCharsets.UTF_8);
+    }
+
+    private void writeByte(final char c) {
+        ensureCapacity(1);
+        buffer[size++] = (byte) c;
+    }
+
+    private void writeLong(long value) {
+        if (value == Long.MIN_VALUE) {
+            writeRaw(LONG_MIN_VALUE);
+            return;
+        }
+        ensureCapacity(20);
+        if (value < 0) {
+            buffer[size++] = '-';
+            value = -value;
+        }
+        int digits = 1;
+        for (long rest = value / 10; rest != 0; rest /= 10) {
+            digits++;
+        }
+        int position = size + digits;
+        size = position;
+        do {
+            buffer[--position] = (byte) ('0' + value % 10);
+            value /= 10;
+        } while (value != 0);
+    }
+
+    //NaN and infinities are written as strings, same as Jackson does by default
+    private void writeDouble(final double value) {
+        charBuffer.setLength(0);
+        charBuffer.append(value);
+        writeNumberChars(Double.isNaN(value) || Double.isInfinite(value));
+    }
+
+    private void writeFloat(final float value) {
+        charBuffer.setLength(0);
+        charBuffer.append(value);
+        writeNumberChars(Float.isNaN(value) || Float.isInfinite(value));
+    }
+
+    private void writeNumberChars(final boolean quoted) {
+        if (quoted) {
+            writeQuoted(charBuffer);
+            return;
+        }
+        final int length = charBuffer.length();
+        ensureCapacity(length);
+        for (int i = 0; i < length; i++) {
+            buffer[size++] = (byte) charBuffer.charAt(i);
+        }
+    }
+
+    //writes quoted and escaped string encoded in UTF-8, unpaired surrogates are replaced by '?'
+    private void writeQuoted(final CharSequence value) {
+        final int length = value.length();
+        ensureCapacity(length * 6 + 2);
+        final byte[] buf = buffer;
+        int position = size;
+        buf[position++] = '"';
+        for (int i = 0; i < length; i++) {
+            final char c = value.charAt(i);
+            if (c < 0x80) {
+                if (c < 0x20 || c == '"' || c == '\\') {
+                    position = writeEscaped(c, buf, position);
+                }
+                else {
+                    buf[position++] = (byte) c;
+                }
+            }
+            else if (c < 0x800) {
+                buf[position++] = (byte) (0xC0 | (c >> 6));
+                buf[position++] = (byte) (0x80 | (c & 0x3F));
+            }
+            else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(value.charAt(i + 1))) {
+                final int codePoint = Character.toCodePoint(c, value.charAt(++i));
+                buf[position++] = (byte) (0xF0 | (codePoint >> 18));
+                buf[position++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+                buf[position++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+                buf[position++] = (byte) (0x80 | (codePoint & 0x3F));
+            }
+            else if (Character.isSurrogate(c)) {
+                buf[position++] = '?';
+            }
+            else {
+                buf[position++] = (byte) (0xE0 | (c >> 12));
+                buf[position++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                buf[position++] = (byte) (0x80 | (c & 0x3F));
+            }
+        }
+        buf[position++] = '"';
+        size = position;
+    }
+
+    //same escaping as Jackson uses, short escapes for common control characters, \\uXXXX for others
+    private static int writeEscaped(final char c, final byte[] buf, int position) {
+        buf[position++] = '\\';
+        switch (c) {
+            case '"':
+                buf[position++] = '"';
+                break;
+            case '\\':
+                buf[position++] = '\\';
+                break;
+            case '\b':
+                buf[position++] = 'b';
+                break;
+            case '\t':
+                buf[position++] = 't';
+                break;
+            case '\n':
+                buf[position++] = 'n';
+                break;
+            case '\f':
+                buf[position++] = 'f';
+                break;
+            case '\r':
+                buf[position++] = 'r';
+                break;
+            default:
+                buf[position++] = 'u';
+                buf[position++] = '0';
+                buf[position++] = '0';
+                buf[position++] = HEX[c >> 4];
+                buf[position++] = HEX[c & 0xF];
+        }
+        return position;
+    }
+
+    private void ensureCapacity(final int length) {
+        final int required = size + length;
+        if (required > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(required, buffer.length * 2));
+        }
+    }
+
+    //output stream appending to writer, closing it does nothing, so writer can be used after serializer closes stream
+    private final class WriterOutputStream extends OutputStream {
+
+        @Override
+        public void write(final int b) {
+            ensureCapacity(1);
+            buffer[size++] = (byte) b;
+        }
+
+        @Override
+        public void write(final byte[] bytes, final int offset, final int length) {
+            writeRaw(bytes, offset, length);
+        }
+    }
+}
@@ -0,0 +1,56 @@
+/**
+ * Copyright © 2018, Ondrej Benkovsky
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ *
+ * The views and conclusions contained in the software and documentation are those
+ * of the authors and should not be interpreted as representing official policies,
+ * either expressed or implied, of the FreeBSD Project.
+ */
+package com.github.structlogging.utils;
+
+/**
+ * Clock with nanosecond resolution, time is computed from {@link System#nanoTime()} and offset between it and wall clock
+ * taken when clock is created, so that timestamps of events logged by one JVM are ordered with sub-millisecond precision.
+ * Wall clock adjustments after clock is created are not reflected, clock can be recreated to take new offset
+ */
+public class NanoTimeEventClock implements EventClock {
+
+    private static final long NANOS_PER_MILLI = 1_000_000;
+
+    private final long offsetNanos;
+
+    public NanoTimeEventClock() {
+        //offset is taken at the edge of millisecond, so that it is precise to the resolution of System.nanoTime
+        final long millis = System.currentTimeMillis();
+        long now;
+        while ((now = System.currentTimeMillis()) == millis) {
+            Thread.yield();
+        }
+        this.offsetNanos = now * NANOS_PER_MILLI - System.nanoTime();
+    }
+
+    @Override
+    public long currentTimeNanos() {
+        return offsetNanos + System.nanoTime();
+    }
+}
@@ -28,19 +28,35 @@
  */
 package com.github.structlogging.utils;
 
-import java.util.concurrent.atomic.AtomicLong;
-
 /**
- * Sequence ID counter, used for generating sid part of result
+ * Sequence ID counter, used for generating sid part of result.
+ *
+ * Sids are generated by {@link AtomicSidGenerator} by default, generator can be replaced by {@link #setGenerator(SidGenerator)},
+ * e.g. by {@link BlockSidGenerator}, when many threads log concurrently or sids have to be unique across restarts
  */
 public class SidCounter {
-    private static final AtomicLong SEQ_NUMBER = new AtomicLong(); //must be static, generated events use it to generate sequence id
+    private static volatile SidGenerator generator = new AtomicSidGenerator(); //must be static, generated events use it to generate sequence id
 
     /**
      * increment and get new value of SID
      * @return incremented counter value
      */
     public static long incrementAndGet() {
-        return SEQ_NUMBER.incrementAndGet();
+        return generator.nextSid();
+    }
+
+    /**
+     * replaces generator of sids, it should be set before first event is logged
+     * @param sidGenerator generator used by all subsequently logged events
+     */
+    public static void setGenerator(final SidGenerator sidGenerator) {
+        generator = sidGenerator;
+    }
+
+    /**
+     * @return generator of sids
+     */
+    public static SidGenerator getGenerator() {
+        return generator;
     }
 }